@@ -1,15 +1,20 @@
 package com.MediSys.MediSys.auth.config;
 
+import com.MediSys.MediSys.auth.model.AccountDetails;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -28,56 +33,73 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final UserDetailsService userDetailsService;
     private final UnauthorizedEntryPoint unauthorizedEntryPoint;
     private final TokenProvider tokenProvider;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
+    private final MeterRegistry meterRegistry;
 
-    public JwtAuthenticationFilter(UserDetailsService userDetailsService, TokenProvider tokenProvider, UnauthorizedEntryPoint unauthorizedEntryPoint) {
+    public JwtAuthenticationFilter(UserDetailsService userDetailsService, TokenProvider tokenProvider, UnauthorizedEntryPoint unauthorizedEntryPoint,
+                                   JwtAuthenticationCache jwtAuthenticationCache, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
         this.unauthorizedEntryPoint = unauthorizedEntryPoint;
+        this.jwtAuthenticationCache = jwtAuthenticationCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String path = request.getServletPath();
         if (path.startsWith("/api/auth/") || path.equals("/api/doctors" )|| path.equals("/api/room-bookings/check-availability") || path.equals("/api/resources")
-                || path.equals("/api/resource-bookings/check-availability")
+                || path.equals("/api/resource-bookings/check-availability") || path.equals("/actuator/health") || path.startsWith("/uploads/")
         ) {
             filterChain.doFilter(request, response);
             return;
         }
         String header = request.getHeader(HEADER_STRING);
-        String username = null;
-        String authToken = null;
         if (header != null && header.startsWith(TOKEN_PREFIX)) {
-            authToken = header.replace(TOKEN_PREFIX, "").trim();
-            try {
-                username = tokenProvider.getUsernameFromToken(authToken);
-            } catch (IllegalArgumentException e) {
-                logger.error("An error occurred while trying to retrieve the username from token", e);
-            } catch (ExpiredJwtException e) {
-                logger.warn("The token is expired", e);
-                unauthorizedEntryPoint.commence(request, response, null);
-            } catch (SignatureException e) {
-                logger.error("Authentication failed", e);
+            String authToken = header.replace(TOKEN_PREFIX, "").trim();
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                try {
+                    UsernamePasswordAuthenticationToken authentication = authenticate(authToken);
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } catch (ExpiredJwtException e) {
+                    logger.warn("The token is expired", e);
+                    unauthorizedEntryPoint.commence(request, response, new CredentialsExpiredException("Token expired"));
+                } catch (IllegalArgumentException e) {
+                    logger.error("An error occurred while trying to retrieve the username from token", e);
+                } catch (JwtException e) {
+                    logger.error("Authentication failed", e);
+                } catch (Exception e) {
+                    logger.error("An error occurred while trying to authenticate user", e);
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
+                }
             }
         }
         else{
             logger.warn("Authorization header not found");
         }
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            try{
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if(tokenProvider.validateToken(authToken,userDetails)){
-                    UsernamePasswordAuthenticationToken authentication = tokenProvider.getAuthenticationToken
-                            (authToken,SecurityContextHolder.getContext().getAuthentication(), userDetails);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+        filterChain.doFilter(request, response);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        JwtAuthenticationCache.VerifiedToken verified = jwtAuthenticationCache.get(authToken);
+        String cache = verified == null ? "miss" : "hit";
+        String outcome = "failure";
+        try {
+            if (verified == null) {
+                Claims claims = tokenProvider.getAllClaimsFromToken(authToken);
+                AuthenticatedUser principal = tokenProvider.getPrincipal(claims);
+                if (principal == null) {
+                    principal = ((AccountDetails) userDetailsService.loadUserByUsername(claims.getSubject())).getPrincipal();
                 }
+                verified = jwtAuthenticationCache.put(authToken, principal, tokenProvider.getAuthorities(claims),
+                        claims.getExpiration());
             }
-            catch(Exception e){
-                logger.error("An error occurred while trying to authenticate user", e);
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
-            }
+            outcome = "success";
+            return new UsernamePasswordAuthenticationToken(verified.principal(), "", verified.authorities());
+        } finally {
+            sample.stop(meterRegistry.timer("medisys.jwt.validation", "cache", cache, "outcome", outcome));
         }
-        filterChain.doFilter(request, response);
     }
 }
@@ -1,9 +1,11 @@
 package com.MediSys.MediSys.auth.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -14,15 +16,21 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final UnauthorizedEntryPoint unauthorizedEntryPoint;
     private final TokenProvider tokenProvider;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
+    private final MeterRegistry meterRegistry;
 
-    public SecurityConfig(UserDetailsService userDetailsService, TokenProvider tokenProvider, UnauthorizedEntryPoint unauthorizedEntryPoint) {
+    public SecurityConfig(UserDetailsService userDetailsService, TokenProvider tokenProvider, UnauthorizedEntryPoint unauthorizedEntryPoint,
+                          JwtAuthenticationCache jwtAuthenticationCache, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
         this.unauthorizedEntryPoint = unauthorizedEntryPoint;
+        this.jwtAuthenticationCache = jwtAuthenticationCache;
+        this.meterRegistry = meterRegistry;
     }
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -40,6 +48,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/uploads/**","/api/doctors","/api/room-bookings/check-availability", "/api/resources","/api/resource-bookings/check-availability").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/appointments/**").hasAnyRole("PATIENT", "DOCTOR")
@@ -57,7 +67,7 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter authenticationTokenFilterBean(){
-        return new JwtAuthenticationFilter(userDetailsService,tokenProvider,unauthorizedEntryPoint);
+        return new JwtAuthenticationFilter(userDetailsService,tokenProvider,unauthorizedEntryPoint,jwtAuthenticationCache,meterRegistry);
     }
 
 }
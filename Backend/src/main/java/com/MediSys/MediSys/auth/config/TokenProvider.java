@@ -1,32 +1,34 @@
 package com.MediSys.MediSys.auth.config;
 
-import com.MediSys.MediSys.auth.model.User;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.io.Serializable;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.Base64;
-import java.util.Collection;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
 public class TokenProvider implements Serializable {
 
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String ROLE_CLAIM = "role";
+    private static final String DOCTOR_ID_CLAIM = "doctorId";
+    private static final String PATIENT_ID_CLAIM = "patientId";
+
     @Value("${jwt.signing.key}")
     private String secretKey;
 
@@ -36,62 +38,57 @@ public class TokenProvider implements Serializable {
     @Value("${jwt.authorities.key}")
     private String AUTHORITIES_KEY;
 
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    private transient SecretKey key;
+    private transient JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
-
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return getExpirationDateFromToken(token).before(new Date());
+        return key;
     }
 
-    public String generateToken(Authentication authentication, User user) {
+    public String generateToken(Authentication authentication, AuthenticatedUser principal) {
         String authorities = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
         return Jwts.builder()
-                .setSubject(authentication.getName())
+                .setSubject(principal.email())
                 .claim(AUTHORITIES_KEY, authorities)
-                .claim("userId", user.getId())
+                .claim(USER_ID_CLAIM, principal.userId())
+                .claim(ROLE_CLAIM, principal.role())
+                .claim(DOCTOR_ID_CLAIM, principal.doctorId())
+                .claim(PATIENT_ID_CLAIM, principal.patientId())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY * 1000))
                 .signWith(getKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Rebuilds the principal from the signed claims, or returns null for a token issued
+     * before the identity claims were added.
+     */
+    public AuthenticatedUser getPrincipal(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role == null) {
+            return null;
+        }
+        return new AuthenticatedUser(claims.get(USER_ID_CLAIM, Long.class), claims.getSubject(), role,
+                claims.get(DOCTOR_ID_CLAIM, Long.class), claims.get(PATIENT_ID_CLAIM, Long.class));
     }
-    public UsernamePasswordAuthenticationToken getAuthenticationToken(final String token, final Authentication existingAuth, final UserDetails userDetails) {
-        final Claims claims = getAllClaimsFromToken(token);
-        final Collection<? extends GrantedAuthority> authorities = Arrays
-                .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        return Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
-
-        return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
     }
 }
 
@@ -11,4 +11,6 @@ public class AuthResponse {
     private String token;
     private String role;
     private Long userId;
+    private Long doctorId;
+    private Long patientId;
 }
@@ -0,0 +1,24 @@
+package com.MediSys.MediSys.auth.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * UserDetails that keeps the principal resolved while loading the account, so login
+ * can issue the token without looking the user up again.
+ */
+public class AccountDetails extends org.springframework.security.core.userdetails.User {
+
+    private final AuthenticatedUser principal;
+
+    public AccountDetails(AuthenticatedUser principal, String password,
+                          Collection<? extends GrantedAuthority> authorities) {
+        super(principal.email(), password, authorities);
+        this.principal = principal;
+    }
+
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+}
@@ -0,0 +1,35 @@
+package com.MediSys.MediSys.auth.model;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+
+/**
+ * Identity of the caller, resolved once at login and carried in the token claims.
+ * doctorId and patientId are set only for users with that role.
+ */
+public record AuthenticatedUser(Long userId, String email, String role, Long doctorId, Long patientId)
+        implements AuthenticatedPrincipal, Serializable {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    /**
+     * Patients may only act for their own patient record; admins may act for anyone.
+     */
+    public boolean mayActForPatient(Long patientId) {
+        return !"PATIENT".equals(role) || (patientId != null && patientId.equals(this.patientId));
+    }
+
+    /**
+     * Detached user to attach to a new row; only the id is written as the foreign key.
+     */
+    public User asUser() {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(email);
+        return user;
+    }
+}
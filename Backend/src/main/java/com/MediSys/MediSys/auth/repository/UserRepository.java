@@ -1,10 +1,12 @@
 package com.MediSys.MediSys.auth.repository;
 import com.MediSys.MediSys.auth.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @EntityGraph(attributePaths = "role")
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 }
@@ -4,10 +4,8 @@ package com.MediSys.MediSys.auth.service;
 import com.MediSys.MediSys.auth.config.TokenProvider;
 import com.MediSys.MediSys.auth.dto.AuthResponse;
 import com.MediSys.MediSys.auth.dto.UserLoginDto;
-import com.MediSys.MediSys.auth.model.Role;
-import com.MediSys.MediSys.auth.model.User;
-import com.MediSys.MediSys.auth.repository.RoleRepository;
-import com.MediSys.MediSys.auth.repository.UserRepository;
+import com.MediSys.MediSys.auth.model.AccountDetails;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,14 +16,10 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
-    private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
     private final TokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
 
-    public AuthService(UserRepository userRepository, RoleRepository roleRepository, TokenProvider tokenProvider, AuthenticationManager authenticationManager){
-        this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+    public AuthService(TokenProvider tokenProvider, AuthenticationManager authenticationManager){
         this.tokenProvider = tokenProvider;
         this.authenticationManager = authenticationManager;
     }
@@ -33,21 +27,18 @@ public class AuthService {
         if (request.getEmail() == null || request.getPassword() == null) {
             throw new BadCredentialsException("Invalid email or password");
         }
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BadCredentialsException("User not found"));
 
+        // The user is loaded once, by the authentication manager
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String token = tokenProvider.generateToken(authentication, user);
-        String role = user.getRole().getName();
-        Long userId = user.getId();
+        AuthenticatedUser principal = ((AccountDetails) authentication.getPrincipal()).getPrincipal();
+        String token = tokenProvider.generateToken(authentication, principal);
 
         return new AuthResponse(
-                token, role, userId
+                token, principal.role(), principal.userId(), principal.doctorId(), principal.patientId()
         );
     }
 
 }
-
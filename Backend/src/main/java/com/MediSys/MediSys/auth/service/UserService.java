@@ -2,15 +2,19 @@ package com.MediSys.MediSys.auth.service;
 
 import com.MediSys.MediSys.auth.dto.RegisterDoctorDto;
 import com.MediSys.MediSys.auth.dto.RegisterDto;
+import com.MediSys.MediSys.auth.model.AccountDetails;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
 import com.MediSys.MediSys.auth.model.Role;
 import com.MediSys.MediSys.auth.model.User;
 import com.MediSys.MediSys.auth.repository.RoleRepository;
 import com.MediSys.MediSys.auth.repository.UserRepository;
+import com.MediSys.MediSys.enums.Catalog;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.Doctor;
 import com.MediSys.MediSys.model.Patient;
 import com.MediSys.MediSys.repository.DoctorRepository;
 import com.MediSys.MediSys.repository.PatientRepository;
+import com.MediSys.MediSys.service.CatalogCache;
 import com.MediSys.MediSys.service.FileStorageService;
 import jakarta.transaction.Transactional;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -33,23 +37,30 @@ public class UserService implements UserDetailsService {
     private final DoctorRepository doctorRepository;
     private final PasswordEncoder passwordEncoder;
     private final FileStorageService fileStorageService;
+    private final CatalogCache catalogCache;
 
     public UserService(UserRepository userRepository, RoleRepository roleRepository,
                        PatientRepository patientRepository, DoctorRepository doctorRepository,
-                       PasswordEncoder passwordEncoder, FileStorageService fileStorageService) {
+                       PasswordEncoder passwordEncoder, FileStorageService fileStorageService,
+                       CatalogCache catalogCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.passwordEncoder = passwordEncoder;
         this.fileStorageService = fileStorageService;
+        this.catalogCache = catalogCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        return new org.springframework.security.core.userdetails.User(email, user.getPassword(), getAuthority(user));
+        String role = user.getRole().getName();
+        Long doctorId = "DOCTOR".equalsIgnoreCase(role) ? doctorRepository.findIdByUserId(user.getId()).orElse(null) : null;
+        Long patientId = "PATIENT".equalsIgnoreCase(role) ? patientRepository.findIdByUserId(user.getId()).orElse(null) : null;
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), role, doctorId, patientId);
+        return new AccountDetails(principal, user.getPassword(), getAuthority(user));
     }
 
     private Set<SimpleGrantedAuthority> getAuthority(User user) {
@@ -117,5 +128,6 @@ public class UserService implements UserDetailsService {
         }
 
         doctorRepository.save(doctor);
+        catalogCache.invalidate(Catalog.DOCTORS);
     }
 }
\ No newline at end of file
@@ -1,32 +1,73 @@
 package com.MediSys.MediSys.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 @Configuration
 public class FileStorageConfig implements WebMvcConfigurer {
 
-    private static final String UPLOAD_DIR = "uploads/";
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}([_.].*)?");
 
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.local.root:uploads}")
+    private String localRoot;
+
+    @Value("${uploads.memory-cache.max-bytes:67108864}")
+    private long memoryCacheMaxBytes;
+
+    @Value("${uploads.memory-cache.max-entry-bytes:262144}")
+    private long memoryCacheMaxEntryBytes;
+
+    @Value("${uploads.memory-cache.ttl:10m}")
+    private Duration memoryCacheTtl;
+
+    public FileStorageConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Upload names are never reused (content hashes, or UUIDs for older files), so the
+     * responses are cached as immutable. Ranges and conditional GETs are handled by the
+     * resource handler itself.
+     */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + UPLOAD_DIR);
+                .addResourceLocations("file:" + Paths.get(localRoot).toAbsolutePath().normalize() + "/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .setEtagGenerator(FileStorageConfig::contentHashEtag)
+                .resourceChain(false)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new InMemoryResourceResolver(memoryCacheMaxBytes, memoryCacheMaxEntryBytes,
+                        memoryCacheTtl, meterRegistry));
     }
 
-    public static void init() {
-        try {
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+    // Content-addressed names already identify the bytes; other files fall back to Last-Modified
+    static String contentHashEtag(Resource resource) {
+        String filename = resource.getFilename();
+        if (filename == null || !CONTENT_ADDRESSED.matcher(filename).matches()) {
+            return null;
+        }
+        if (resource instanceof HttpResource httpResource) {
+            String encoding = httpResource.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (encoding != null) {
+                return filename + "-" + encoding;
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Could not create upload directory", e);
         }
+        return filename;
     }
-}
\ No newline at end of file
+}
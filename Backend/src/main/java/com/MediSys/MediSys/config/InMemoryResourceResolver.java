@@ -0,0 +1,109 @@
+package com.MediSys.MediSys.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps small, frequently requested uploads in memory so repeat hits skip the disk read.
+ * The cache is bounded by total bytes; uploads are never rewritten in place, so the only
+ * staleness is a deleted file being served until its entry expires.
+ */
+class InMemoryResourceResolver extends AbstractResourceResolver {
+
+    private final Cache<String, CachedResource> cache;
+    private final long maxEntryBytes;
+
+    InMemoryResourceResolver(long maxBytes, long maxEntryBytes, Duration ttl, MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String path, CachedResource resource) -> (int) Math.min(Integer.MAX_VALUE, resource.contentLength()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "uploads");
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        CachedResource cached = cache.getIfPresent(requestPath);
+        if (cached != null) {
+            return cached;
+        }
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || resource instanceof HttpResource) {
+            return resource;
+        }
+        try {
+            if (resource.contentLength() > maxEntryBytes) {
+                return resource;
+            }
+            CachedResource loaded = new CachedResource(resource, resource.getContentAsByteArray(), resource.lastModified());
+            cache.put(requestPath, loaded);
+            return loaded;
+        } catch (IOException e) {
+            logger.debug("Serving " + requestPath + " from disk, could not cache it", e);
+            return resource;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    /**
+     * Bytes of a file resource. Relative lookups still go to disk so precompressed
+     * siblings are found by the encoded resource resolver.
+     */
+    private static final class CachedResource extends ByteArrayResource {
+
+        private final Resource origin;
+        private final long lastModified;
+
+        CachedResource(Resource origin, byte[] content, long lastModified) {
+            super(content, origin.getDescription());
+            this.origin = origin;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String getFilename() {
+            return origin.getFilename();
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return origin.createRelative(relativePath);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -1,17 +1,37 @@
 package com.MediSys.MediSys.controller;
 
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
 import com.MediSys.MediSys.dto.AppointmentRequest;
+import com.MediSys.MediSys.dto.AppointmentSummary;
+import com.MediSys.MediSys.dto.AvailableSlotDto;
+import com.MediSys.MediSys.dto.BulkAppointmentRequest;
+import com.MediSys.MediSys.dto.BulkBookingResult;
+import com.MediSys.MediSys.dto.CalendarDaySummary;
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.dto.SlotHoldDto;
+import com.MediSys.MediSys.enums.BulkBookingMode;
 import com.MediSys.MediSys.model.Appointment;
 import com.MediSys.MediSys.service.AppointmentService;
+import com.MediSys.MediSys.service.AvailabilityBroadcaster;
+import com.MediSys.MediSys.service.AvailabilitySearchService;
+import com.MediSys.MediSys.service.BulkAppointmentService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -19,9 +39,18 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AvailabilitySearchService availabilitySearchService;
+    private final BulkAppointmentService bulkAppointmentService;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService,
+                                 AvailabilitySearchService availabilitySearchService,
+                                 BulkAppointmentService bulkAppointmentService,
+                                 AvailabilityBroadcaster availabilityBroadcaster) {
         this.appointmentService = appointmentService;
+        this.availabilitySearchService = availabilitySearchService;
+        this.bulkAppointmentService = bulkAppointmentService;
+        this.availabilityBroadcaster = availabilityBroadcaster;
     }
 
     @PostMapping("/book")
@@ -31,6 +60,38 @@ public class AppointmentController {
         return ResponseEntity.ok(appt);
     }
 
+    // Reserves the slot for the booking form; confirm within the hold TTL to turn it into an appointment
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<SlotHoldDto> holdAppointment(@Valid @RequestBody AppointmentRequest request,
+                                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(appointmentService.holdAppointment(request, principal));
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<Appointment> confirmAppointmentHold(@PathVariable UUID holdId,
+                                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(appointmentService.confirmAppointmentHold(holdId, principal));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<Void> releaseAppointmentHold(@PathVariable UUID holdId,
+                                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        appointmentService.releaseAppointmentHold(holdId, principal);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<BulkBookingResult> bookAppointments(@Valid @RequestBody BulkAppointmentRequest request,
+                                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        BulkBookingResult result = bulkAppointmentService.book(request, principal);
+        boolean rolledBack = request.getMode() == BulkBookingMode.ALL_OR_NOTHING && result.getRejected() > 0;
+        return ResponseEntity.status(rolledBack ? HttpStatus.CONFLICT : HttpStatus.OK).body(result);
+    }
+
     @GetMapping("/available-slots")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
     public ResponseEntity<List<LocalDateTime>> getAvailableSlots(
@@ -39,6 +100,30 @@ public class AppointmentController {
         return ResponseEntity.ok(appointmentService.getAvailableSlots(doctorId, date));
     }
 
+    // Sends the free slots as a "snapshot" event, then "slot-taken" / "slot-freed" as bookings commit
+    @GetMapping(value = "/available-slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<SseEmitter> streamAvailableSlots(
+            @RequestParam Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return availabilityBroadcaster
+                .subscribeDoctor(doctorId, date, () -> appointmentService.getAvailableSlots(doctorId, date))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build());
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<List<AvailableSlotDto>> searchAvailableSlots(
+            @RequestParam String specialization,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime earliest,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime latest,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(availabilitySearchService.search(specialization, from, to, earliest, latest, limit));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT') or hasRole('DOCTOR')")
     public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
@@ -47,14 +132,28 @@ public class AppointmentController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
-        return ResponseEntity.ok(appointmentService.getAllAppointments());
+    public ResponseEntity<CursorPage<AppointmentSummary>> getAllAppointments(PageQuery pageQuery) {
+        return ResponseEntity.ok(appointmentService.getAllAppointments(pageQuery));
+    }
+
+    //http://localhost:8090/api/appointments/calendar/1?from=2025-06-01&to=2025-06-30
+    @GetMapping("/calendar/{doctorId}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCTOR') and #doctorId == principal.doctorId())")
+    public ResponseEntity<List<CalendarDaySummary>> getDoctorCalendar(
+            @PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(appointmentService.getDoctorCalendar(doctorId, from, to));
     }
 
-    //http://localhost:8090/api/appointments/get-by-doctor/1
+    //http://localhost:8090/api/appointments/get-by-doctor/1?from=2025-06-01&to=2025-06-30
     @GetMapping("/get-by-doctor/{doctorId}")
-    public ResponseEntity<List<Appointment>> getByDoctorId(@PathVariable Long doctorId) {
-        return ResponseEntity.ok(appointmentService.findByDoctor(doctorId));
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCTOR') and #doctorId == principal.doctorId())")
+    public ResponseEntity<List<Appointment>> getByDoctorId(
+            @PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(appointmentService.findByDoctor(doctorId, from, to));
     }
 
     @PutMapping("/{id}")
@@ -69,4 +168,4 @@ public class AppointmentController {
         appointmentService.cancelAppointment(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,22 @@
 package com.MediSys.MediSys.controller;
 
 import com.MediSys.MediSys.auth.dto.RegisterDoctorDto;
-import com.MediSys.MediSys.auth.model.User;
-import com.MediSys.MediSys.auth.repository.UserRepository;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.enums.Catalog;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.Doctor;
-import com.MediSys.MediSys.model.Patient;
-import com.MediSys.MediSys.repository.DoctorRepository;
-import com.MediSys.MediSys.repository.PatientRepository;
+import com.MediSys.MediSys.service.CatalogCache;
 import com.MediSys.MediSys.service.DoctorService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/doctors")
@@ -28,27 +26,26 @@ public class DoctorController {
     @Autowired
     private DoctorService doctorService;
     @Autowired
-    private DoctorRepository doctorRepository;
-    @Autowired
-    private UserRepository userRepository;
+    private CatalogCache catalogCache;
 
     //http://localhost:8090/api/doctors
     @GetMapping
-    public List<Doctor> getAllDoctors() {
-        return doctorService.getAllDoctors();
+    public ResponseEntity<byte[]> getAllDoctors(PageQuery pageQuery) {
+        // Validates the query first, so a bad one fails before it could become a cache key
+        String variant = doctorService.pageCacheKey(pageQuery);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogCache.get(Catalog.DOCTORS, variant, () -> doctorService.getAllDoctors(pageQuery)));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentDoctor() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        Doctor doctor = doctorRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new RuntimeException("Doctor not found"));
-
-        return ResponseEntity.ok(doctor);
+    public ResponseEntity<Doctor> getCurrentDoctor(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal.doctorId() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return doctorService.getDoctorById(principal.doctorId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}")
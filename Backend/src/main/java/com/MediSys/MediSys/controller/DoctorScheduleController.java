@@ -1,6 +1,9 @@
 package com.MediSys.MediSys.controller;
 
+import com.MediSys.MediSys.dto.CursorPage;
 import com.MediSys.MediSys.dto.DoctorScheduleDto;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.dto.PageQuery;
 import com.MediSys.MediSys.model.DoctorSchedule;
 import com.MediSys.MediSys.service.DoctorScheduleService;
 import jakarta.validation.Valid;
@@ -26,8 +29,8 @@ public class DoctorScheduleController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
-    public List<DoctorSchedule> getAllSchedules() {
-        return doctorScheduleService.getAllSchedules();
+    public CursorPage<DoctorScheduleSummary> getAllSchedules(PageQuery pageQuery) {
+        return doctorScheduleService.getAllSchedules(pageQuery);
     }
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -37,7 +40,7 @@ public class DoctorScheduleController {
 
     @GetMapping("/doctor/{doctorId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
-    public List<DoctorSchedule> getSchedulesByDoctorId(@PathVariable Long doctorId) {
+    public List<DoctorScheduleSummary> getSchedulesByDoctorId(@PathVariable Long doctorId) {
         return doctorScheduleService.getSchedulesByDoctorId(doctorId);
     }
 
@@ -0,0 +1,82 @@
+package com.MediSys.MediSys.controller;
+
+import com.MediSys.MediSys.dto.ExportQuery;
+import com.MediSys.MediSys.enums.ExportFormat;
+import com.MediSys.MediSys.repository.ExportRepository.Export;
+import com.MediSys.MediSys.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/exports")
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    //http://localhost:8090/api/admin/exports/appointments?format=ndjson&from=2025-01-01T00:00:00&status=COMPLETED
+    @GetMapping("/appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            ExportQuery query,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream(exportService.appointments(query), format, acceptEncoding);
+    }
+
+    @GetMapping("/room-bookings")
+    public ResponseEntity<StreamingResponseBody> exportRoomBookings(
+            ExportQuery query,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream(exportService.roomBookings(query), format, acceptEncoding);
+    }
+
+    @GetMapping("/resource-bookings")
+    public ResponseEntity<StreamingResponseBody> exportResourceBookings(
+            ExportQuery query,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream(exportService.resourceBookings(query), format, acceptEncoding);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(Export export, String format, String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.getMediaType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(export.name() + "." + exportFormat.getExtension())
+                .build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192)) {
+                    exportService.write(export, exportFormat, compressed);
+                }
+            } else {
+                exportService.write(export, exportFormat, out);
+            }
+        };
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+}
@@ -1,7 +1,10 @@
 package com.MediSys.MediSys.controller;
 
 import com.MediSys.MediSys.dto.HospitalResourceDto;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.enums.Catalog;
 import com.MediSys.MediSys.model.HospitalResource;
+import com.MediSys.MediSys.service.CatalogCache;
 import com.MediSys.MediSys.service.HospitalResourceService;
 import com.MediSys.MediSys.service.ResourceBookingService;
 import jakarta.annotation.security.PermitAll;
@@ -14,17 +17,19 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/resources")
 public class HospitalResourceController {
     private final HospitalResourceService hospitalResourceService;
     private final ResourceBookingService resourceBookingService;
+    private final CatalogCache catalogCache;
 
-    public HospitalResourceController(HospitalResourceService hospitalResourceService, ResourceBookingService resourceBookingService) {
+    public HospitalResourceController(HospitalResourceService hospitalResourceService, ResourceBookingService resourceBookingService,
+                                      CatalogCache catalogCache) {
         this.hospitalResourceService = hospitalResourceService;
         this.resourceBookingService = resourceBookingService;
+        this.catalogCache = catalogCache;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -42,8 +47,11 @@ public class HospitalResourceController {
     }
 
     @GetMapping
-    public List<HospitalResource> getAllResources() {
-        return hospitalResourceService.getAllResources();
+    public ResponseEntity<byte[]> getAllResources(PageQuery pageQuery) {
+        String variant = hospitalResourceService.pageCacheKey(pageQuery);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogCache.get(Catalog.RESOURCES, variant, () -> hospitalResourceService.getAllResources(pageQuery)));
     }
 
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -1,7 +1,10 @@
 package com.MediSys.MediSys.controller;
 
 import com.MediSys.MediSys.dto.HospitalRoomDto;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.enums.Catalog;
 import com.MediSys.MediSys.model.HospitalRoom;
+import com.MediSys.MediSys.service.CatalogCache;
 import com.MediSys.MediSys.service.HospitalRoomService;
 import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
@@ -10,15 +13,15 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/rooms")
 public class HospitalRoomController {
     private final HospitalRoomService hospitalRoomService;
+    private final CatalogCache catalogCache;
 
-    public HospitalRoomController(HospitalRoomService hospitalRoomService) {
+    public HospitalRoomController(HospitalRoomService hospitalRoomService, CatalogCache catalogCache) {
         this.hospitalRoomService = hospitalRoomService;
+        this.catalogCache = catalogCache;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -31,8 +34,11 @@ public class HospitalRoomController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<HospitalRoom> getAllRooms() {
-        return hospitalRoomService.getAllRooms();
+    public ResponseEntity<byte[]> getAllRooms(PageQuery pageQuery) {
+        String variant = hospitalRoomService.pageCacheKey(pageQuery);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogCache.get(Catalog.ROOMS, variant, () -> hospitalRoomService.getAllRooms(pageQuery)));
     }
 
     @GetMapping("/{id}")
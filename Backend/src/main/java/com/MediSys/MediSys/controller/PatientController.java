@@ -1,18 +1,18 @@
 package com.MediSys.MediSys.controller;
 
-import com.MediSys.MediSys.auth.model.User;
-import com.MediSys.MediSys.auth.repository.UserRepository;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.dto.PatientSummary;
 import com.MediSys.MediSys.model.Patient;
 import com.MediSys.MediSys.repository.PatientRepository;
 import com.MediSys.MediSys.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/patients")
@@ -23,25 +23,20 @@ public class PatientController {
     private PatientService patientService;
     @Autowired
     private PatientRepository patientRepository;
-    @Autowired
-    private UserRepository userRepository;
 
     @GetMapping
-    public List<Patient> getAllPatients() {
-        return patientService.getAllPatients();
+    public CursorPage<PatientSummary> getAllPatients(PageQuery pageQuery) {
+        return patientService.getAllPatients(pageQuery);
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentPatient() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        Patient patient = patientRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new RuntimeException("Patient not found"));
-
-        return ResponseEntity.ok(patient);
+    public ResponseEntity<Patient> getCurrentPatient(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal.patientId() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return patientService.getPatientById(principal.patientId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
 //    @GetMapping("/profile/current")
@@ -1,6 +1,12 @@
 package com.MediSys.MediSys.controller;
 
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
 import com.MediSys.MediSys.dto.ResourceBookingRequest;
+import com.MediSys.MediSys.dto.ResourceBookingSummary;
+import com.MediSys.MediSys.dto.SlotHoldDto;
+import com.MediSys.MediSys.dto.TimeSlotDto;
 import com.MediSys.MediSys.model.ResourceBooking;
 import com.MediSys.MediSys.service.ResourceBookingService;
 import jakarta.annotation.security.PermitAll;
@@ -8,11 +14,12 @@ import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/resource-bookings")
@@ -24,12 +31,35 @@ public class ResourceBookingController {
     }
 
     @PostMapping("/book")
-    public ResourceBooking bookResource(@Valid @RequestBody ResourceBookingRequest request) {
-        return resourceBookingService.bookResource(request);
+    public ResourceBooking bookResource(@Valid @RequestBody ResourceBookingRequest request,
+                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        return resourceBookingService.bookResource(request, principal);
+    }
+
+    // Reserves the slot for the booking form; confirm within the hold TTL to turn it into a booking
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public SlotHoldDto holdResource(@Valid @RequestBody ResourceBookingRequest request,
+                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        return resourceBookingService.holdResource(request, principal);
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResourceBooking confirmResourceHold(@PathVariable UUID holdId, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return resourceBookingService.confirmResourceHold(holdId, principal);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<Void> releaseResourceHold(@PathVariable UUID holdId,
+                                                @AuthenticationPrincipal AuthenticatedUser principal) {
+        resourceBookingService.releaseResourceHold(holdId, principal);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/available-slots")
-    public List<LocalDateTime> getAvailableResourceSlots(
+    public List<TimeSlotDto> getAvailableResourceSlots(
             @RequestParam Long resourceId,
             @RequestParam LocalDateTime start,
             @RequestParam LocalDateTime end) {
@@ -37,8 +67,8 @@ public class ResourceBookingController {
     }
 
     @GetMapping()
-    public List<ResourceBooking> getAllResourceBookings() {
-        return resourceBookingService.getAllResourceBookings();
+    public CursorPage<ResourceBookingSummary> getAllResourceBookings(PageQuery pageQuery) {
+        return resourceBookingService.getAllResourceBookings(pageQuery);
     }
     @GetMapping("/check-availability")
     @PermitAll
@@ -1,42 +1,91 @@
 package com.MediSys.MediSys.controller;
 
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
 import com.MediSys.MediSys.dto.RoomBookingRequest;
+import com.MediSys.MediSys.dto.RoomBookingSummary;
+import com.MediSys.MediSys.dto.SlotHoldDto;
+import com.MediSys.MediSys.dto.TimeSlotDto;
 import com.MediSys.MediSys.model.RoomBooking;
+import com.MediSys.MediSys.service.AvailabilityBroadcaster;
 import com.MediSys.MediSys.service.RoomBookingService;
 import jakarta.annotation.security.PermitAll;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/room-bookings")
 public class RoomBookingController {
     private final RoomBookingService roomBookingService;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
 
-    public RoomBookingController(RoomBookingService roomBookingService) {
+    public RoomBookingController(RoomBookingService roomBookingService, AvailabilityBroadcaster availabilityBroadcaster) {
         this.roomBookingService = roomBookingService;
+        this.availabilityBroadcaster = availabilityBroadcaster;
     }
 
     @PostMapping("/book")
-    public RoomBooking bookRoom(@Valid @RequestBody RoomBookingRequest request) {
-        return roomBookingService.bookRoom(request);
+    public RoomBooking bookRoom(@Valid @RequestBody RoomBookingRequest request,
+                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        return roomBookingService.bookRoom(request, principal);
+    }
+
+    // Reserves the slot for the booking form; confirm within the hold TTL to turn it into a booking
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public SlotHoldDto holdRoom(@Valid @RequestBody RoomBookingRequest request,
+                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        return roomBookingService.holdRoom(request, principal);
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public RoomBooking confirmRoomHold(@PathVariable UUID holdId, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return roomBookingService.confirmRoomHold(holdId, principal);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
+    public ResponseEntity<Void> releaseRoomHold(@PathVariable UUID holdId,
+                                                @AuthenticationPrincipal AuthenticatedUser principal) {
+        roomBookingService.releaseRoomHold(holdId, principal);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/available-slots")
     @PermitAll
-    public List<LocalDateTime> getAvailableRoomSlots(
+    public List<TimeSlotDto> getAvailableRoomSlots(
             @RequestParam Long roomId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         return roomBookingService.getAvailableRoomSlots(roomId, start, end);
     }
 
+    // Sends the free slots in the window as a "snapshot" event, then "slot-taken" / "slot-freed" as bookings commit
+    @GetMapping(value = "/available-slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailableRoomSlots(
+            @RequestParam Long roomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return availabilityBroadcaster
+                .subscribeRoom(roomId, start, end, () -> roomBookingService.getAvailableRoomSlots(roomId, start, end))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build());
+    }
+
     @GetMapping("/check-availability")
     @PermitAll
     public ResponseEntity<Boolean> checkRoomAvailability(
@@ -48,8 +97,8 @@ public class RoomBookingController {
     }
 
     @GetMapping
-    public List<RoomBooking> getRoomBookings(){
-        return roomBookingService.getAllRoomBookings();
+    public CursorPage<RoomBookingSummary> getRoomBookings(PageQuery pageQuery){
+        return roomBookingService.getAllRoomBookings(pageQuery);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,20 @@
+package com.MediSys.MediSys.dto;
+
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class AppointmentSummary {
+    private Long id;
+    private LocalDateTime appointmentDateTime;
+    private AppointmentStatus status;
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private Long patientId;
+    private String patientName;
+}
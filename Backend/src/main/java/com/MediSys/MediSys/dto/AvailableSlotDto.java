@@ -0,0 +1,15 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class AvailableSlotDto {
+    private Long doctorId;
+    private String doctorName;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
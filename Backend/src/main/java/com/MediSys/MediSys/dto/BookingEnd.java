@@ -0,0 +1,13 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingEnd {
+    private Long id;
+    private LocalDateTime endDateTime;
+}
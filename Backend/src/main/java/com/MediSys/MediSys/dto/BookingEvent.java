@@ -0,0 +1,24 @@
+package com.MediSys.MediSys.dto;
+
+import com.MediSys.MediSys.enums.BookingEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed booking change as handed to subscribers. aggregateId is the appointment,
+ * room booking or resource booking; targetId the doctor, room or resource. endDateTime
+ * is null for appointments. The same event may be delivered more than once.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingEvent {
+    private Long id;
+    private BookingEventType type;
+    private Long aggregateId;
+    private Long targetId;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,21 @@
+package com.MediSys.MediSys.dto;
+
+import com.MediSys.MediSys.enums.BulkBookingMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkAppointmentRequest {
+    @Valid
+    private List<AppointmentRequest> appointments = new ArrayList<>();
+
+    @Valid
+    private RecurrenceRequest recurrence;
+
+    @NotNull(message = "Booking mode is required")
+    private BulkBookingMode mode = BulkBookingMode.ALL_OR_NOTHING;
+}
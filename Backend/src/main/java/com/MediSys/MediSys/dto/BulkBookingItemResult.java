@@ -0,0 +1,20 @@
+package com.MediSys.MediSys.dto;
+
+import com.MediSys.MediSys.enums.BulkItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BulkBookingItemResult {
+    private int index;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDateTime appointmentDateTime;
+    private BulkItemStatus status;
+    private Long appointmentId;
+    private String reason;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.MediSys.MediSys.dto;
+
+import com.MediSys.MediSys.enums.BulkBookingMode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BulkBookingResult {
+    private BulkBookingMode mode;
+    private int booked;
+    private int rejected;
+    private List<BulkBookingItemResult> items;
+}
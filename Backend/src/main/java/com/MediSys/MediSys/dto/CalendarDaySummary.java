@@ -0,0 +1,23 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CalendarDaySummary {
+    private LocalDate date;
+    private int scheduled;
+    private int confirmed;
+    private int completed;
+    private int cancelled;
+    private int slotCapacity;
+    // Percentage of schedule slots taken by non-cancelled appointments; null on days without a schedule
+    private Double utilization;
+    // Only listed for days inside the rolling window
+    private List<LocalDateTime> bookedSlots;
+}
@@ -0,0 +1,18 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalTime;
+
+@Getter
+@AllArgsConstructor
+public class DoctorScheduleSummary {
+    private Long id;
+    private Long doctorId;
+    private String doctorName;
+    private String dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer slotDuration;
+}
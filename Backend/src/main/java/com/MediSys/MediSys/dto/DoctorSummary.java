@@ -0,0 +1,19 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DoctorSummary {
+    private Long id;
+    private String fullName;
+    private String email;
+    private String phone;
+    private String specialization;
+    private String registrationNumber;
+    private Integer yearsOfExperience;
+    private String gender;
+    private Boolean active;
+    private String imageUrl;
+}
@@ -0,0 +1,15 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class HospitalResourceSummary {
+    private Long id;
+    private String name;
+    private String description;
+    private int quantity;
+    private double price;
+    private String image;
+}
@@ -0,0 +1,14 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class HospitalRoomSummary {
+    private Long id;
+    private String roomNumber;
+    private String type;
+    private Double price;
+    private String roomPicture;
+}
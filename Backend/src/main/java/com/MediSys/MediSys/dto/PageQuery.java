@@ -0,0 +1,15 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class PageQuery {
+    private String cursor;
+    private Integer size;
+    private String sort = "id";
+    private String direction = "asc";
+}
@@ -0,0 +1,19 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class PatientSummary {
+    private Long id;
+    private String fullName;
+    private String email;
+    private String phone;
+    private LocalDate dateOfBirth;
+    private String gender;
+    private Boolean active;
+    private String address;
+}
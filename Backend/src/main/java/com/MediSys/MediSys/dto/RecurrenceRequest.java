@@ -0,0 +1,27 @@
+package com.MediSys.MediSys.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RecurrenceRequest {
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Patient ID is required")
+    private Long patientId;
+
+    @NotNull(message = "First appointment date and time are required")
+    private LocalDateTime firstAppointment;
+
+    @Min(value = 1, message = "Interval must be at least one day")
+    private int intervalDays = 7;
+
+    @Min(value = 1, message = "At least one occurrence is required")
+    @Max(value = 52, message = "A series can have at most 52 occurrences")
+    private int occurrences = 1;
+}
@@ -0,0 +1,21 @@
+package com.MediSys.MediSys.dto;
+
+import com.MediSys.MediSys.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ResourceBookingSummary {
+    private Long id;
+    private Long resourceId;
+    private String resourceName;
+    private Double resourcePrice;
+    private Long userId;
+    private Long appointmentId;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    private BookingStatus status;
+}
@@ -0,0 +1,21 @@
+package com.MediSys.MediSys.dto;
+
+import com.MediSys.MediSys.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RoomBookingSummary {
+    private Long id;
+    private Long roomId;
+    private String roomNumber;
+    private Double roomPrice;
+    private Long userId;
+    private Long appointmentId;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    private BookingStatus status;
+}
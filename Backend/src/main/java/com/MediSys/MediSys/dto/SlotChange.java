@@ -0,0 +1,17 @@
+package com.MediSys.MediSys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SlotChange {
+    private Long doctorId;
+    private Long roomId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
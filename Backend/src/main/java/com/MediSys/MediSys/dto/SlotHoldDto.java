@@ -0,0 +1,16 @@
+package com.MediSys.MediSys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class SlotHoldDto {
+    private UUID holdId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime expiresAt;
+}
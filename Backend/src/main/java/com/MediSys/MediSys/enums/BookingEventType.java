@@ -0,0 +1,11 @@
+package com.MediSys.MediSys.enums;
+
+public enum BookingEventType {
+    APPOINTMENT_BOOKED,
+    APPOINTMENT_UPDATED,
+    APPOINTMENT_CANCELLED,
+    ROOM_BOOKED,
+    ROOM_CANCELLED,
+    RESOURCE_BOOKED,
+    RESOURCE_RELEASED
+}
@@ -0,0 +1,7 @@
+package com.MediSys.MediSys.enums;
+
+public enum BulkItemStatus {
+    BOOKED,
+    REJECTED,
+    NOT_BOOKED
+}
@@ -0,0 +1,26 @@
+package com.MediSys.MediSys.enums;
+
+/**
+ * Resized copies generated for every uploaded image. A variant of {@code /uploads/ab/<hash>.png}
+ * is served as {@code /uploads/ab/<hash>_<suffix>.jpg}.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 160),
+    MEDIUM("medium", 640);
+
+    private final String suffix;
+    private final int maxSize;
+
+    ImageVariant(String suffix, int maxSize) {
+        this.suffix = suffix;
+        this.maxSize = maxSize;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
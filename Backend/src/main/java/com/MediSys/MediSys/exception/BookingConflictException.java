@@ -1,7 +1,27 @@
 package com.MediSys.MediSys.exception;
 
 public class BookingConflictException extends RuntimeException {
-    public BookingConflictException(String message) {
+
+    public enum Reason {
+        DOCTOR_INACTIVE,
+        PATIENT_INACTIVE,
+        OFF_SCHEDULE,
+        SLOT_TAKEN,
+        SLOT_HELD,
+        HOLD_LIMIT,
+        ROOM_TAKEN,
+        RESOURCE_EXHAUSTED,
+        LOCK_TIMEOUT
+    }
+
+    private final Reason reason;
+
+    public BookingConflictException(Reason reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
     }
-}
\ No newline at end of file
+}
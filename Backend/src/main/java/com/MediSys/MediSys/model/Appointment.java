@@ -2,6 +2,8 @@
 package com.MediSys.MediSys.model;
 
 import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -14,33 +16,46 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_appointment_doctor_active_slot",
+        columnNames = {"doctor_id", "appointment_date_time", "active_slot"}))
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Appointment {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts; on MySQL the
+    // sequence is emulated by the appointment_seq table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id")
     @NotNull(message = "Patient is required")
     private Patient patient;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id")
     @NotNull(message = "Doctor is required")
     private Doctor doctor;
 
     @NotNull(message = "Appointment date and time are required")
+    @Column(name = "appointment_date_time")
     private LocalDateTime appointmentDateTime;
 
     @Enumerated(EnumType.STRING)
     @NotNull(message = "Status is required")
     private AppointmentStatus status;
 
+    // Generated from status (see V2__booking_integrity.sql); NULL for inactive rows keeps them out of the unique key.
+    @JsonIgnore
+    @Column(name = "active_slot", insertable = false, updatable = false, columnDefinition = "TINYINT")
+    private Integer activeSlot;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
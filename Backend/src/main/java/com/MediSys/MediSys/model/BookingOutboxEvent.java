@@ -0,0 +1,51 @@
+package com.MediSys.MediSys.model;
+
+import com.MediSys.MediSys.enums.BookingEventType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking domain event waiting to be relayed to subscribers. Written in the transaction
+ * that changes the booking, so an event exists exactly when its change was committed.
+ * targetId is the doctor, room or resource the booking is for. abandonedAt is set
+ * instead of publishedAt when the relay gives up on the event.
+ */
+@Entity
+@Table(name = "booking_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookingOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private BookingEventType eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(nullable = false)
+    private LocalDateTime startDateTime;
+
+    private LocalDateTime endDateTime;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    private LocalDateTime abandonedAt;
+
+    private int attempts;
+}
@@ -0,0 +1,36 @@
+package com.MediSys.MediSys.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Per doctor, per day appointment counts by status. Maintained incrementally in the same
+ * transaction as the appointment change, so long date ranges never scan appointments.
+ */
+@Entity
+@Table(name = "doctor_calendar_day", uniqueConstraints = @UniqueConstraint(
+        name = "uk_calendar_doctor_date", columnNames = {"doctor_id", "calendar_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DoctorCalendarDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "calendar_date", nullable = false)
+    private LocalDate calendarDate;
+
+    private int scheduled;
+    private int confirmed;
+    private int completed;
+    private int cancelled;
+}
@@ -7,6 +7,9 @@ import lombok.*;
 import java.time.LocalTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_doctor_schedule_doctor_day",
+        columnNames = {"doctor_id", "day_of_week"}))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -17,7 +20,7 @@ public class DoctorSchedule {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id")
     @JsonBackReference
     private Doctor doctor;
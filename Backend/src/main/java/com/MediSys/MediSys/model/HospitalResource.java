@@ -1,5 +1,6 @@
 package com.MediSys.MediSys.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -20,7 +22,11 @@ public class HospitalResource {
     private String name; // e.g., Oxygen Cylinder, Wheelchair
     private String description;
 
-    private int quantity;
+    private int quantity; // total units owned; units in use are derived from overlapping bookings
     private double price;
     private String image;
+
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
 }
@@ -1,17 +1,25 @@
 package com.MediSys.MediSys.repository;
 
+import com.MediSys.MediSys.dto.BookedSlot;
 import com.MediSys.MediSys.enums.AppointmentStatus;
 import com.MediSys.MediSys.model.Appointment;
 import com.MediSys.MediSys.model.Doctor;
 import com.MediSys.MediSys.model.HospitalResource;
 import com.MediSys.MediSys.model.HospitalRoom;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
         List<Appointment> findByDoctorAndAppointmentDateTimeBetween(
@@ -23,6 +31,36 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
         List<Appointment> findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
                 Long doctorId, LocalDateTime startTime, LocalDateTime endTime, List<AppointmentStatus> statuses);
 
-    List<Appointment> findByDoctor(Doctor doctor);
+    @Query("select new com.MediSys.MediSys.dto.BookedSlot(a.doctor.id, a.appointmentDateTime) from Appointment a " +
+            "where a.doctor.id in :doctorIds and a.appointmentDateTime >= :from and a.appointmentDateTime < :to " +
+            "and a.status in :statuses")
+    List<BookedSlot> findBookedSlots(@Param("doctorIds") Collection<Long> doctorIds, @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to, @Param("statuses") List<AppointmentStatus> statuses);
+
+    @EntityGraph(attributePaths = {"doctor", "doctor.user", "doctor.user.role", "doctor.schedules",
+            "patient", "patient.user", "patient.user.role"})
+    Optional<Appointment> findDetailedById(Long id);
+
+    @EntityGraph(attributePaths = {"patient", "patient.user", "patient.user.role"})
+    @Query("select a from Appointment a where a.doctor = :doctor and a.appointmentDateTime >= :from " +
+            "and a.appointmentDateTime < :to order by a.appointmentDateTime")
+    List<Appointment> findByDoctorBetween(@Param("doctor") Doctor doctor, @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    @Query("select a from Appointment a where a.status in :statuses and a.appointmentDateTime < :before " +
+            "and a.id > :afterId order by a.id")
+    List<Appointment> findStartingBefore(@Param("statuses") List<AppointmentStatus> statuses,
+                                         @Param("before") LocalDateTime before, @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Appointment a where a.id in :ids and a.status in :statuses")
+    List<Appointment> lockByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+                                            @Param("statuses") List<AppointmentStatus> statuses);
+
+    @Modifying
+    @Query("update Appointment a set a.status = :to, a.updatedAt = :now where a.id in :ids and a.status in :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") List<AppointmentStatus> from,
+                     @Param("to") AppointmentStatus to, @Param("now") LocalDateTime now);
 }
 
@@ -0,0 +1,35 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.model.BookingOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingOutboxRepository extends JpaRepository<BookingOutboxEvent, Long> {
+
+    List<BookingOutboxEvent> findByPublishedAtIsNullAndAbandonedAtIsNullAndIdGreaterThanOrderById(Long afterId,
+                                                                                                  Limit limit);
+
+    List<BookingOutboxEvent> findByPublishedAtIsNullAndAbandonedAtIsNotNull();
+
+    @Query("select e.id from BookingOutboxEvent e where e.publishedAt < :before order by e.publishedAt")
+    List<Long> findPublishedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("update BookingOutboxEvent e set e.publishedAt = :now where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update BookingOutboxEvent e set e.abandonedAt = :now, e.attempts = e.attempts + 1 where e.id in :ids")
+    int markAbandoned(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update BookingOutboxEvent e set e.attempts = e.attempts + 1 where e.id in :ids")
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,25 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.model.DoctorCalendarDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DoctorCalendarDayRepository extends JpaRepository<DoctorCalendarDay, Long> {
+
+    List<DoctorCalendarDay> findByDoctorIdAndCalendarDateBetweenOrderByCalendarDate(
+            Long doctorId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "insert into doctor_calendar_day (doctor_id, calendar_date, scheduled, confirmed, completed, cancelled) "
+            + "values (:doctorId, :date, :scheduled, :confirmed, :completed, :cancelled) "
+            + "on duplicate key update scheduled = scheduled + :scheduled, confirmed = confirmed + :confirmed, "
+            + "completed = completed + :completed, cancelled = cancelled + :cancelled", nativeQuery = true)
+    void addCounts(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+                   @Param("scheduled") int scheduled, @Param("confirmed") int confirmed,
+                   @Param("completed") int completed, @Param("cancelled") int cancelled);
+}
@@ -2,12 +2,20 @@ package com.MediSys.MediSys.repository;
 
 import com.MediSys.MediSys.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     boolean existsByEmail(String email);
-    Optional<Doctor> findByUserId(Long userId);
+    // The derived query left-joins user and filters on the joined id, which skips the user_id key.
+    @Query("select d from Doctor d where d.user.id = :userId")
+    Optional<Doctor> findByUserId(@Param("userId") Long userId);
+
+    @Query("select d.id from Doctor d where d.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    boolean existsByImageUrl(String imageUrl);
 
 }
 
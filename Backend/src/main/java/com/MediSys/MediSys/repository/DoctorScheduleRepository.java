@@ -1,14 +1,25 @@
 package com.MediSys.MediSys.repository;
 
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
 import com.MediSys.MediSys.model.Doctor;
 import com.MediSys.MediSys.model.DoctorSchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule, Long> {
-    Optional<DoctorSchedule> findByDoctorAndDayOfWeek(Doctor doctor, String dayOfWeek);
+    @Query("select new com.MediSys.MediSys.dto.DoctorScheduleSummary(s.id, d.id, d.fullName, s.dayOfWeek, " +
+            "s.startTime, s.endTime, s.slotDuration) from DoctorSchedule s join s.doctor d where d.id = :doctorId order by s.id")
+    List<DoctorScheduleSummary> findSummariesByDoctorId(@Param("doctorId") Long doctorId);
+
+    // Case-insensitive through the column collation; lower() would keep the index from being used.
+    @Query("select new com.MediSys.MediSys.dto.DoctorScheduleSummary(s.id, d.id, d.fullName, s.dayOfWeek, " +
+            "s.startTime, s.endTime, s.slotDuration) from DoctorSchedule s join s.doctor d " +
+            "where d.active = true and d.specialization = :specialization order by d.id")
+    List<DoctorScheduleSummary> findActiveSummariesBySpecialization(@Param("specialization") String specialization);
     boolean existsByDoctorAndDayOfWeek(Doctor doctor, String dayOfWeek);
 }
\ No newline at end of file
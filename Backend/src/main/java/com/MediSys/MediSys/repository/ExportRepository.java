@@ -0,0 +1,126 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.dto.ExportQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams export rows over a forward-only, read-only cursor. With MySQL Connector/J a
+ * fetch size of Integer.MIN_VALUE makes the driver hand over one row at a time instead of
+ * buffering the whole result, so memory stays flat however large the export is.
+ */
+@Repository
+public class ExportRepository {
+
+    public record Export(String name, List<String> columns, String sql, List<Object> params) {
+    }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(Object[] values) throws IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ExportRepository(JdbcTemplate jdbcTemplate, @Value("${export.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    public Export appointments(ExportQuery query, String status) {
+        return build("appointments",
+                List.of("id", "appointment_date_time", "status", "doctor_id", "doctor_name",
+                        "patient_id", "patient_name", "created_at", "updated_at"),
+                "select a.id, a.appointment_date_time, a.status, a.doctor_id, d.full_name, "
+                        + "a.patient_id, p.full_name, a.created_at, a.updated_at from appointment a "
+                        + "left join doctors d on d.id = a.doctor_id left join patient p on p.id = a.patient_id",
+                "a", "appointment_date_time", query, status);
+    }
+
+    public Export roomBookings(ExportQuery query, String status) {
+        return build("room-bookings",
+                List.of("id", "room_id", "room_number", "user_id", "appointment_id",
+                        "start_date_time", "end_date_time", "status", "created_at", "updated_at"),
+                "select b.id, b.room_id, r.room_number, b.user_id, b.appointment_id, b.start_date_time, "
+                        + "b.end_date_time, b.status, b.created_at, b.updated_at from room_booking b "
+                        + "left join hospital_room r on r.id = b.room_id",
+                "b", "start_date_time", query, status);
+    }
+
+    public Export resourceBookings(ExportQuery query, String status) {
+        return build("resource-bookings",
+                List.of("id", "resource_id", "resource_name", "user_id", "appointment_id",
+                        "start_date_time", "end_date_time", "status", "created_at", "updated_at"),
+                "select b.id, b.resource_id, r.name, b.user_id, b.appointment_id, b.start_date_time, "
+                        + "b.end_date_time, b.status, b.created_at, b.updated_at from resource_booking b "
+                        + "left join hospital_resource r on r.id = b.resource_id",
+                "b", "start_date_time", query, status);
+    }
+
+    public long stream(Export export, RowHandler handler) throws IOException {
+        int width = export.columns().size();
+        long[] rows = {0};
+        try {
+            streamRows(export, handler, width, rows);
+        } catch (UncheckedIOException e) {
+            // The client went away or the response failed; surface it as the original I/O error
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private void streamRows(Export export, RowHandler handler, int width, long[] rows) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(export.sql(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < export.params().size(); i++) {
+                statement.setObject(i + 1, export.params().get(i));
+            }
+            return statement;
+        }, resultSet -> {
+            Object[] values = new Object[width];
+            for (int i = 0; i < width; i++) {
+                Object value = resultSet.getObject(i + 1);
+                values[i] = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+            }
+            try {
+                handler.row(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+    }
+
+    private static Export build(String name, List<String> columns, String select, String alias, String timeColumn,
+                                ExportQuery query, String status) {
+        StringBuilder sql = new StringBuilder(select).append(" where ").append(alias).append(".id > ?");
+        List<Object> params = new ArrayList<>();
+        params.add(query.getAfterId() == null ? 0L : query.getAfterId());
+        if (query.getFrom() != null) {
+            sql.append(" and ").append(alias).append('.').append(timeColumn).append(" >= ?");
+            params.add(query.getFrom());
+        }
+        if (query.getTo() != null) {
+            sql.append(" and ").append(alias).append('.').append(timeColumn).append(" < ?");
+            params.add(query.getTo());
+        }
+        if (status != null) {
+            sql.append(" and ").append(alias).append(".status = ?");
+            params.add(status);
+        }
+        sql.append(" order by ").append(alias).append(".id");
+        return new Export(name, columns, sql.toString(), List.copyOf(params));
+    }
+}
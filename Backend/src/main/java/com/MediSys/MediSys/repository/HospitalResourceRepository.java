@@ -1,10 +1,21 @@
 package com.MediSys.MediSys.repository;
 
 import com.MediSys.MediSys.model.HospitalResource;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface HospitalResourceRepository extends JpaRepository<HospitalResource, Long> {
     boolean existsByName(String name);
+    boolean existsByImage(String image);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from HospitalResource r where r.id = :id")
+    Optional<HospitalResource> lockById(@Param("id") Long id);
 }
\ No newline at end of file
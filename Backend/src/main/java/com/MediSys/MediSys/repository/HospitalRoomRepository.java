@@ -7,4 +7,5 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface HospitalRoomRepository extends JpaRepository<HospitalRoom, Long> {
     boolean existsByRoomNumber(String roomNumber);
+    boolean existsByRoomPicture(String roomPicture);
 }
\ No newline at end of file
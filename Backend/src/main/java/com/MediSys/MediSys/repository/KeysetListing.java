@@ -0,0 +1,80 @@
+package com.MediSys.MediSys.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Describes how one entity is listed: the DTO it is projected into and the columns it
+ * may be sorted by. Every sort key is paired with the entity id as a tie-breaker, so
+ * sort expressions must be non-null (wrap nullable columns in coalesce).
+ */
+public final class KeysetListing<E, D> {
+
+    record SortKey<E, D>(Class<?> type,
+                         BiFunction<Root<E>, CriteriaBuilder, Expression<?>> expression,
+                         Function<D, Object> value) {
+    }
+
+    private final Class<E> entityType;
+    private final Class<D> dtoType;
+    private final BiFunction<Root<E>, CriteriaBuilder, Selection<D>> projection;
+    private final Function<D, Long> idOf;
+    private final Map<String, SortKey<E, D>> sortKeys = new LinkedHashMap<>();
+
+    private KeysetListing(Class<E> entityType, Class<D> dtoType,
+                          BiFunction<Root<E>, CriteriaBuilder, Selection<D>> projection, Function<D, Long> idOf) {
+        this.entityType = entityType;
+        this.dtoType = dtoType;
+        this.projection = projection;
+        this.idOf = idOf;
+        sortKeys.put("id", new SortKey<>(Long.class, (root, cb) -> root.get("id"), idOf::apply));
+    }
+
+    public static <E, D> KeysetListing<E, D> of(Class<E> entityType, Class<D> dtoType,
+                                                BiFunction<Root<E>, CriteriaBuilder, Selection<D>> projection,
+                                                Function<D, Long> idOf) {
+        return new KeysetListing<>(entityType, dtoType, projection, idOf);
+    }
+
+    /**
+     * Adds a sort key. The expression and the value read back from the DTO must never be
+     * null; the pager refuses to issue a cursor for a null sort value.
+     */
+    public KeysetListing<E, D> sortable(String name, Class<?> type,
+                                        BiFunction<Root<E>, CriteriaBuilder, Expression<?>> expression,
+                                        Function<D, Object> value) {
+        sortKeys.put(name, new SortKey<>(type, expression, value));
+        return this;
+    }
+
+    Class<E> entityType() {
+        return entityType;
+    }
+
+    Class<D> dtoType() {
+        return dtoType;
+    }
+
+    Selection<D> projection(Root<E> root, CriteriaBuilder cb) {
+        return projection.apply(root, cb);
+    }
+
+    Long idOf(D dto) {
+        return idOf.apply(dto);
+    }
+
+    SortKey<E, D> sortKey(String name) {
+        SortKey<E, D> sortKey = sortKeys.get(name);
+        if (sortKey == null) {
+            throw new IllegalArgumentException("Cannot sort by '" + name + "', expected one of " + sortKeys.keySet());
+        }
+        return sortKey;
+    }
+}
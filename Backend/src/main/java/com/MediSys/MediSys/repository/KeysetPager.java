@@ -0,0 +1,179 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Runs keyset (seek) pagination over a {@link KeysetListing}. The next page starts after
+ * the last row's (sort key, id) pair instead of skipping an offset, so every page costs
+ * the same no matter how deep the client scrolls.
+ */
+@Repository
+public class KeysetPager {
+
+    private final EntityManager entityManager;
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPager(EntityManager entityManager,
+                       @Value("${pagination.default-size:20}") int defaultSize,
+                       @Value("${pagination.max-size:100}") int maxSize) {
+        this.entityManager = entityManager;
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Validates the query as {@link #fetch} would and returns a key naming the page it
+     * selects, with defaults applied and the size clamped, so equivalent queries share it.
+     * Pages after a cursor get null: any cursor that decodes is accepted, so keying them
+     * would let callers mint as many keys as they like.
+     */
+    public <E, D> String cacheKey(KeysetListing<E, D> listing, PageQuery pageQuery) {
+        String sort = pageQuery.getSort() == null ? "id" : pageQuery.getSort();
+        boolean ascending = isAscending(pageQuery.getDirection());
+        KeysetListing.SortKey<E, D> sortKey = listing.sortKey(sort);
+        int size = pageSize(pageQuery.getSize());
+        if (pageQuery.getCursor() != null && !pageQuery.getCursor().isBlank()) {
+            Cursor.decode(pageQuery.getCursor(), sort, ascending).value(sortKey.type());
+            return null;
+        }
+        return sort + "|" + (ascending ? "asc" : "desc") + "|" + size;
+    }
+
+    public <E, D> CursorPage<D> fetch(KeysetListing<E, D> listing, PageQuery pageQuery) {
+        String sort = pageQuery.getSort() == null ? "id" : pageQuery.getSort();
+        boolean ascending = isAscending(pageQuery.getDirection());
+        KeysetListing.SortKey<E, D> sortKey = listing.sortKey(sort);
+        int size = pageSize(pageQuery.getSize());
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<D> query = cb.createQuery(listing.dtoType());
+        Root<E> root = query.from(listing.entityType());
+        Expression<Comparable> id = root.get("id");
+        Expression<Comparable> key = comparable(sortKey.expression().apply(root, cb));
+
+        query.select(listing.projection(root, cb));
+        if (pageQuery.getCursor() != null && !pageQuery.getCursor().isBlank()) {
+            Cursor cursor = Cursor.decode(pageQuery.getCursor(), sort, ascending);
+            query.where("id".equals(sort)
+                    ? after(cb, id, cursor.id(), ascending)
+                    : cb.or(after(cb, key, cursor.value(sortKey.type()), ascending),
+                            cb.and(cb.equal(key, cursor.value(sortKey.type())), after(cb, id, cursor.id(), ascending))));
+        }
+        if ("id".equals(sort)) {
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            query.orderBy(ascending ? cb.asc(key) : cb.desc(key), ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        List<D> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<D> items = rows.subList(0, size);
+        D last = items.get(size - 1);
+        String next = Cursor.encode(sort, ascending, listing.idOf(last), sortKey.value().apply(last));
+        return new CursorPage<>(List.copyOf(items), next);
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        return Math.max(1, Math.min(requested, maxSize));
+    }
+
+    private static boolean isAscending(String direction) {
+        if (direction == null || direction.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Sort direction must be 'asc' or 'desc'");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<Comparable> comparable(Expression<?> expression) {
+        return (Expression<Comparable>) expression;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate after(CriteriaBuilder cb, Expression<Comparable> expression, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(expression, value) : cb.lessThan(expression, value);
+    }
+
+    // Opaque to clients; carries the sort it was issued for so it cannot be replayed against another ordering.
+    private record Cursor(String sort, boolean ascending, Long id, String rawValue) {
+
+        static String encode(String sort, boolean ascending, Long id, Object value) {
+            // A null would be written as "null" and the rows after it compared against that
+            if (value == null) {
+                throw new IllegalStateException("Sort key '" + sort + "' has no value for row " + id
+                        + "; nullable columns must be wrapped in coalesce");
+            }
+            String token = sort + "," + (ascending ? "asc" : "desc") + "," + id + "," + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token, String sort, boolean ascending) {
+            Cursor cursor;
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(",", 4);
+                cursor = new Cursor(parts[0], parts[1].equals("asc"), Long.valueOf(parts[2]), parts[3]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid page cursor", e);
+            }
+            if (!cursor.sort().equals(sort) || cursor.ascending() != ascending) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            return cursor;
+        }
+
+        Comparable value(Class<?> type) {
+            try {
+                return parse(type);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page cursor", e);
+            }
+        }
+
+        private Comparable parse(Class<?> type) {
+            if (type == Long.class) {
+                return Long.valueOf(rawValue);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(rawValue);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(rawValue);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(rawValue);
+            }
+            if (type == LocalTime.class) {
+                return LocalTime.parse(rawValue);
+            }
+            return rawValue;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.dto.AppointmentSummary;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.dto.DoctorSummary;
+import com.MediSys.MediSys.dto.HospitalResourceSummary;
+import com.MediSys.MediSys.dto.HospitalRoomSummary;
+import com.MediSys.MediSys.dto.PatientSummary;
+import com.MediSys.MediSys.dto.ResourceBookingSummary;
+import com.MediSys.MediSys.dto.RoomBookingSummary;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.model.DoctorSchedule;
+import com.MediSys.MediSys.model.HospitalResource;
+import com.MediSys.MediSys.model.HospitalRoom;
+import com.MediSys.MediSys.model.Patient;
+import com.MediSys.MediSys.model.ResourceBooking;
+import com.MediSys.MediSys.model.RoomBooking;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+import java.time.LocalDateTime;
+
+public final class Listings {
+
+    public static final KeysetListing<Appointment, AppointmentSummary> APPOINTMENTS = KeysetListing.of(
+            Appointment.class, AppointmentSummary.class,
+            (root, cb) -> {
+                Join<Appointment, Doctor> doctor = root.join("doctor", JoinType.LEFT);
+                Join<Appointment, Patient> patient = root.join("patient", JoinType.LEFT);
+                return cb.construct(AppointmentSummary.class, root.get("id"), root.get("appointmentDateTime"),
+                        root.get("status"), doctor.get("id"), doctor.get("fullName"), doctor.get("specialization"),
+                        patient.get("id"), patient.get("fullName"));
+            },
+            AppointmentSummary::getId)
+            .sortable("appointmentDateTime", LocalDateTime.class,
+                    (root, cb) -> root.get("appointmentDateTime"), AppointmentSummary::getAppointmentDateTime);
+
+    public static final KeysetListing<Doctor, DoctorSummary> DOCTORS = KeysetListing.of(
+            Doctor.class, DoctorSummary.class,
+            (root, cb) -> cb.construct(DoctorSummary.class, root.get("id"), root.get("fullName"), root.get("email"),
+                    root.get("phone"), root.get("specialization"), root.get("registrationNumber"), root.get("yearsOfExperience"),
+                    root.get("gender"), root.get("active"), root.get("imageUrl")),
+            DoctorSummary::getId)
+            .sortable("fullName", String.class,
+                    (root, cb) -> cb.coalesce(root.<String>get("fullName"), ""), doctor -> nullToEmpty(doctor.getFullName()));
+
+    public static final KeysetListing<Patient, PatientSummary> PATIENTS = KeysetListing.of(
+            Patient.class, PatientSummary.class,
+            (root, cb) -> cb.construct(PatientSummary.class, root.get("id"), root.get("fullName"), root.get("email"),
+                    root.get("phone"), root.get("dateOfBirth"), root.get("gender"), root.get("active"),
+                    root.get("address")),
+            PatientSummary::getId)
+            .sortable("fullName", String.class,
+                    (root, cb) -> cb.coalesce(root.<String>get("fullName"), ""), patient -> nullToEmpty(patient.getFullName()));
+
+    public static final KeysetListing<DoctorSchedule, DoctorScheduleSummary> DOCTOR_SCHEDULES = KeysetListing.of(
+            DoctorSchedule.class, DoctorScheduleSummary.class,
+            (root, cb) -> {
+                Join<DoctorSchedule, Doctor> doctor = root.join("doctor", JoinType.LEFT);
+                return cb.construct(DoctorScheduleSummary.class, root.get("id"), doctor.get("id"), doctor.get("fullName"),
+                        root.get("dayOfWeek"), root.get("startTime"), root.get("endTime"), root.get("slotDuration"));
+            },
+            DoctorScheduleSummary::getId)
+            .sortable("doctorId", Long.class,
+                    (root, cb) -> cb.coalesce(root.get("doctor").<Long>get("id"), 0L),
+                    schedule -> schedule.getDoctorId() == null ? 0L : schedule.getDoctorId());
+
+    public static final KeysetListing<HospitalRoom, HospitalRoomSummary> ROOMS = KeysetListing.of(
+            HospitalRoom.class, HospitalRoomSummary.class,
+            (root, cb) -> cb.construct(HospitalRoomSummary.class, root.get("id"), root.get("roomNumber"), root.get("type"),
+                    root.get("price"), root.get("roomPicture")),
+            HospitalRoomSummary::getId)
+            .sortable("roomNumber", String.class, (root, cb) -> root.get("roomNumber"), HospitalRoomSummary::getRoomNumber);
+
+    public static final KeysetListing<HospitalResource, HospitalResourceSummary> RESOURCES = KeysetListing.of(
+            HospitalResource.class, HospitalResourceSummary.class,
+            (root, cb) -> cb.construct(HospitalResourceSummary.class, root.get("id"), root.get("name"),
+                    root.get("description"), root.get("quantity"), root.get("price"), root.get("image")),
+            HospitalResourceSummary::getId)
+            .sortable("name", String.class,
+                    (root, cb) -> cb.coalesce(root.<String>get("name"), ""), resource -> nullToEmpty(resource.getName()));
+
+    public static final KeysetListing<RoomBooking, RoomBookingSummary> ROOM_BOOKINGS = KeysetListing.of(
+            RoomBooking.class, RoomBookingSummary.class,
+            (root, cb) -> {
+                Join<RoomBooking, HospitalRoom> room = root.join("room", JoinType.LEFT);
+                return cb.construct(RoomBookingSummary.class, root.get("id"), room.get("id"), room.get("roomNumber"),
+                        room.get("price"), root.get("user").get("id"), root.get("appointment").get("id"), root.get("startDateTime"), root.get("endDateTime"),
+                        root.get("status"));
+            },
+            RoomBookingSummary::getId)
+            .sortable("startDateTime", LocalDateTime.class,
+                    (root, cb) -> root.get("startDateTime"), RoomBookingSummary::getStartDateTime);
+
+    public static final KeysetListing<ResourceBooking, ResourceBookingSummary> RESOURCE_BOOKINGS = KeysetListing.of(
+            ResourceBooking.class, ResourceBookingSummary.class,
+            (root, cb) -> {
+                Join<ResourceBooking, HospitalResource> resource = root.join("resource", JoinType.LEFT);
+                return cb.construct(ResourceBookingSummary.class, root.get("id"), resource.get("id"),
+                        resource.get("name"), resource.get("price"), root.get("user").get("id"), root.get("appointment").get("id"), root.get("startDateTime"),
+                        root.get("endDateTime"), root.get("status"));
+            },
+            ResourceBookingSummary::getId)
+            .sortable("startDateTime", LocalDateTime.class,
+                    (root, cb) -> root.get("startDateTime"), ResourceBookingSummary::getStartDateTime);
+
+    private Listings() {
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
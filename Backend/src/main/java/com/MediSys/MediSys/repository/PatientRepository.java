@@ -2,6 +2,8 @@ package com.MediSys.MediSys.repository;
 
 import com.MediSys.MediSys.model.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -9,7 +11,12 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     boolean existsByEmail(String email);
 
     Patient findByEmail(String email);
-    Optional<Patient> findByUserId(Long userId);
+    // The derived query left-joins user and filters on the joined id, which skips the user_id key.
+    @Query("select p from Patient p where p.user.id = :userId")
+    Optional<Patient> findByUserId(@Param("userId") Long userId);
+
+    @Query("select p.id from Patient p where p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 
 }
 
@@ -1,15 +1,40 @@
 package com.MediSys.MediSys.repository;
 
+import com.MediSys.MediSys.dto.BookingEnd;
+import com.MediSys.MediSys.dto.TimeSlotDto;
 import com.MediSys.MediSys.enums.BookingStatus;
 import com.MediSys.MediSys.model.HospitalResource;
 import com.MediSys.MediSys.model.ResourceBooking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ResourceBookingRepository extends JpaRepository<ResourceBooking, Long> {
     List<ResourceBooking> findByResourceAndStartDateTimeBetweenAndStatus(HospitalResource resource, LocalDateTime start, LocalDateTime end, BookingStatus bookingStatus);
 
     List<ResourceBooking> findByEndDateTimeBeforeAndStatus(LocalDateTime now, BookingStatus bookingStatus);
+
+    List<ResourceBooking> findByStatusAndEndDateTimeAfter(BookingStatus status, LocalDateTime time);
+
+    @Query("select new com.MediSys.MediSys.dto.TimeSlotDto(b.startDateTime, b.endDateTime) from ResourceBooking b " +
+            "where b.resource.id = :resourceId and b.status = :status and b.startDateTime < :end and b.endDateTime > :start")
+    List<TimeSlotDto> findOverlapping(@Param("resourceId") Long resourceId, @Param("status") BookingStatus status,
+                                      @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("select new com.MediSys.MediSys.dto.BookingEnd(b.id, b.endDateTime) from ResourceBooking b " +
+            "where b.status = :status and b.endDateTime < :before and b.id > :afterId order by b.id")
+    List<BookingEnd> findEndingBefore(@Param("status") BookingStatus status, @Param("before") LocalDateTime before,
+                                      @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("update ResourceBooking b set b.status = :to, b.updatedAt = :now " +
+            "where b.id in :ids and b.status = :from and b.endDateTime <= :now")
+    int updateStatusIfEnded(@Param("ids") Collection<Long> ids, @Param("from") BookingStatus from,
+                            @Param("to") BookingStatus to, @Param("now") LocalDateTime now);
 }
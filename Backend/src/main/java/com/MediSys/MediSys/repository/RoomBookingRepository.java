@@ -1,13 +1,32 @@
 package com.MediSys.MediSys.repository;
 
+import com.MediSys.MediSys.dto.BookingEnd;
 import com.MediSys.MediSys.enums.BookingStatus;
 import com.MediSys.MediSys.model.HospitalRoom;
 import com.MediSys.MediSys.model.RoomBooking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface RoomBookingRepository extends JpaRepository<RoomBooking, Long> {
     List<RoomBooking> findByRoomAndStartDateTimeBetweenAndStatus(HospitalRoom room, LocalDateTime start, LocalDateTime end, BookingStatus bookingStatus);
+
+    List<RoomBooking> findByStatusAndEndDateTimeAfter(BookingStatus status, LocalDateTime time);
+
+    @Query("select new com.MediSys.MediSys.dto.BookingEnd(b.id, b.endDateTime) from RoomBooking b " +
+            "where b.status = :status and b.endDateTime < :before and b.id > :afterId order by b.id")
+    List<BookingEnd> findEndingBefore(@Param("status") BookingStatus status, @Param("before") LocalDateTime before,
+                                      @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("update RoomBooking b set b.status = :to, b.updatedAt = :now " +
+            "where b.id in :ids and b.status = :from and b.endDateTime <= :now")
+    int updateStatusIfEnded(@Param("ids") Collection<Long> ids, @Param("from") BookingStatus from,
+                            @Param("to") BookingStatus to, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,251 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.CalendarDaySummary;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.exception.ResourceNotFoundException;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.DoctorCalendarDay;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorCalendarDayRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per doctor, per day calendar: counts by status, booked slots and utilization. Counts
+ * live in doctor_calendar_day and are adjusted in the booking transaction. The next
+ * {@value #WINDOW_DAYS} days of each doctor that has been looked at are also held in
+ * memory, keyed by appointment id so replaying a change after commit is idempotent even
+ * when it races with the window being loaded.
+ */
+@Component
+public class AppointmentCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentCalendar.class);
+    static final int WINDOW_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    public record Entry(Long appointmentId, Long doctorId, LocalDateTime slot, AppointmentStatus status) {
+
+        public static Entry of(Appointment appointment) {
+            return new Entry(appointment.getId(), appointment.getDoctor().getId(),
+                    appointment.getAppointmentDateTime(), appointment.getStatus());
+        }
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private final DoctorCalendarDayRepository calendarDayRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final DoctorScheduleCache doctorScheduleCache;
+    private final LoadingMap<Long, DoctorWindow> windows = new LoadingMap<>();
+
+    public AppointmentCalendar(DoctorCalendarDayRepository calendarDayRepository,
+                               AppointmentRepository appointmentRepository,
+                               DoctorRepository doctorRepository,
+                               DoctorScheduleCache doctorScheduleCache) {
+        this.calendarDayRepository = calendarDayRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.doctorScheduleCache = doctorScheduleCache;
+    }
+
+    public void booked(Appointment appointment) {
+        record(List.of(), List.of(Entry.of(appointment)));
+    }
+
+    public void bookedAll(Collection<Appointment> appointments) {
+        record(List.of(), appointments.stream().map(Entry::of).toList());
+    }
+
+    /**
+     * Moves an appointment from its previous doctor, time and status to its current one.
+     * Must be called inside the transaction that saves the change.
+     */
+    public void changed(Entry previous, Appointment current) {
+        record(List.of(previous), List.of(Entry.of(current)));
+    }
+
+    /**
+     * Moves appointments changed by a bulk status update to their new status. Must be
+     * called inside the transaction that runs the update.
+     */
+    public void statusChanged(List<Entry> previous, AppointmentStatus status) {
+        record(previous, previous.stream()
+                .map(entry -> new Entry(entry.appointmentId(), entry.doctorId(), entry.slot(), status))
+                .toList());
+    }
+
+    private void record(List<Entry> removed, List<Entry> added) {
+        Map<DayKey, int[]> deltas = new LinkedHashMap<>();
+        removed.forEach(entry -> delta(deltas, entry)[entry.status().ordinal()]--);
+        added.forEach(entry -> delta(deltas, entry)[entry.status().ordinal()]++);
+        deltas.forEach((day, delta) -> {
+            if (Arrays.stream(delta).anyMatch(count -> count != 0)) {
+                calendarDayRepository.addCounts(day.doctorId(), day.date(),
+                        delta[AppointmentStatus.SCHEDULED.ordinal()], delta[AppointmentStatus.CONFIRMED.ordinal()],
+                        delta[AppointmentStatus.COMPLETED.ordinal()], delta[AppointmentStatus.CANCELLED.ordinal()]);
+            }
+        });
+        TransactionHooks.afterCommit(() -> {
+            removed.forEach(entry -> windows.ifPresent(entry.doctorId(), window -> window.remove(entry)));
+            added.forEach(entry -> windows.ifPresent(entry.doctorId(), window -> window.put(entry)));
+        });
+    }
+
+    private static int[] delta(Map<DayKey, int[]> deltas, Entry entry) {
+        return deltas.computeIfAbsent(new DayKey(entry.doctorId(), entry.slot().toLocalDate()),
+                key -> new int[AppointmentStatus.values().length]);
+    }
+
+    public List<CalendarDaySummary> getCalendar(Long doctorId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Calendar start must not be after its end");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Calendar range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate windowEnd = today.plusDays(WINDOW_DAYS);
+        boolean needsTable = from.isBefore(today) || !to.isBefore(windowEnd);
+        Map<LocalDate, DoctorCalendarDay> stored = needsTable
+                ? calendarDayRepository.findByDoctorIdAndCalendarDateBetweenOrderByCalendarDate(doctorId, from, to)
+                        .stream().collect(Collectors.toMap(DoctorCalendarDay::getCalendarDate, Function.identity()))
+                : Map.of();
+        DoctorWindow window = !to.isBefore(today) && from.isBefore(windowEnd) ? window(doctorId, today) : null;
+
+        List<CalendarDaySummary> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int capacity = capacity(doctorId, date);
+            if (window != null && window.covers(date)) {
+                days.add(window.summary(date, capacity));
+            } else {
+                days.add(summary(date, counts(stored.get(date)), capacity, null));
+            }
+        }
+        return days;
+    }
+
+    private DoctorWindow window(Long doctorId, LocalDate today) {
+        DoctorWindow window = windows.get(doctorId, id -> loadWindow(id, today));
+        if (!window.start.equals(today)) {
+            windows.remove(doctorId);
+            window = windows.get(doctorId, id -> loadWindow(id, today));
+        }
+        return window;
+    }
+
+    private DoctorWindow loadWindow(Long doctorId, LocalDate start) {
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime to = start.plusDays(WINDOW_DAYS).atStartOfDay().minusNanos(1);
+        DoctorWindow window = new DoctorWindow(start);
+        appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
+                        doctorId, from, to, List.of(AppointmentStatus.values()))
+                .forEach(appointment -> window.put(new Entry(appointment.getId(), doctorId,
+                        appointment.getAppointmentDateTime(), appointment.getStatus())));
+        logger.info("Loaded {}-day calendar window for doctor {}", WINDOW_DAYS, doctorId);
+        return window;
+    }
+
+    private int capacity(Long doctorId, LocalDate date) {
+        Optional<DoctorScheduleSummary> schedule = doctorScheduleCache.getDay(doctorId, date.getDayOfWeek().toString());
+        if (schedule.isEmpty() || schedule.get().getSlotDuration() <= 0) {
+            return 0;
+        }
+        long minutes = ChronoUnit.MINUTES.between(schedule.get().getStartTime(), schedule.get().getEndTime());
+        return (int) Math.max(0, minutes / schedule.get().getSlotDuration());
+    }
+
+    private static int[] counts(DoctorCalendarDay day) {
+        int[] counts = new int[AppointmentStatus.values().length];
+        if (day != null) {
+            counts[AppointmentStatus.SCHEDULED.ordinal()] = day.getScheduled();
+            counts[AppointmentStatus.CONFIRMED.ordinal()] = day.getConfirmed();
+            counts[AppointmentStatus.COMPLETED.ordinal()] = day.getCompleted();
+            counts[AppointmentStatus.CANCELLED.ordinal()] = day.getCancelled();
+        }
+        return counts;
+    }
+
+    private static CalendarDaySummary summary(LocalDate date, int[] counts, int capacity, List<LocalDateTime> bookedSlots) {
+        int taken = counts[AppointmentStatus.SCHEDULED.ordinal()] + counts[AppointmentStatus.CONFIRMED.ordinal()]
+                + counts[AppointmentStatus.COMPLETED.ordinal()];
+        Double utilization = capacity == 0 ? null : Math.round(taken * 1000.0 / capacity) / 10.0;
+        return new CalendarDaySummary(date, counts[AppointmentStatus.SCHEDULED.ordinal()],
+                counts[AppointmentStatus.CONFIRMED.ordinal()], counts[AppointmentStatus.COMPLETED.ordinal()],
+                counts[AppointmentStatus.CANCELLED.ordinal()], capacity, utilization, bookedSlots);
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void rollWindows() {
+        windows.removeIf(doctorId -> true);
+        logger.info("Calendar windows dropped, they reload from today on next access");
+    }
+
+    private static final class DoctorWindow {
+        private final LocalDate start;
+        private final Map<LocalDate, Map<Long, Entry>> days = new HashMap<>();
+
+        DoctorWindow(LocalDate start) {
+            this.start = start;
+        }
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(start) && date.isBefore(start.plusDays(WINDOW_DAYS));
+        }
+
+        synchronized void put(Entry entry) {
+            // The appointment may have moved days within the window
+            days.values().forEach(day -> day.remove(entry.appointmentId()));
+            if (covers(entry.slot().toLocalDate())) {
+                days.computeIfAbsent(entry.slot().toLocalDate(), date -> new HashMap<>()).put(entry.appointmentId(), entry);
+            }
+        }
+
+        synchronized void remove(Entry entry) {
+            Map<Long, Entry> day = days.get(entry.slot().toLocalDate());
+            if (day != null) {
+                Entry current = day.get(entry.appointmentId());
+                if (current != null && current.equals(entry)) {
+                    day.remove(entry.appointmentId());
+                }
+            }
+        }
+
+        synchronized CalendarDaySummary summary(LocalDate date, int capacity) {
+            int[] counts = new int[AppointmentStatus.values().length];
+            List<LocalDateTime> bookedSlots = new ArrayList<>();
+            for (Entry entry : days.getOrDefault(date, Map.of()).values()) {
+                counts[entry.status().ordinal()]++;
+                if (entry.status() == AppointmentStatus.SCHEDULED || entry.status() == AppointmentStatus.CONFIRMED) {
+                    bookedSlots.add(entry.slot());
+                }
+            }
+            bookedSlots.sort(null);
+            return AppointmentCalendar.summary(date, counts, capacity, bookedSlots);
+        }
+    }
+}
@@ -1,50 +1,157 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
 import com.MediSys.MediSys.dto.AppointmentRequest;
+import com.MediSys.MediSys.dto.AppointmentSummary;
+import com.MediSys.MediSys.dto.CalendarDaySummary;
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.dto.SlotHoldDto;
 import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.enums.BookingEventType;
 import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.exception.BookingConflictException.Reason;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.Appointment;
 import com.MediSys.MediSys.model.Doctor;
-import com.MediSys.MediSys.model.DoctorSchedule;
 import com.MediSys.MediSys.model.Patient;
 import com.MediSys.MediSys.repository.AppointmentRepository;
 import com.MediSys.MediSys.repository.DoctorRepository;
-import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import com.MediSys.MediSys.repository.PatientRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 @Service
 public class AppointmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(AppointmentService.class);
+    static final List<AppointmentStatus> ACTIVE_STATUSES =
+            List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+    // Bounds the slot index to this many days per doctor
+    private static final int MAX_DAYS_AHEAD = 366;
+    private static final int MAX_LISTING_DAYS = 31;
 
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
-    private final DoctorScheduleRepository doctorScheduleRepository;
+    private final DoctorScheduleCache doctorScheduleCache;
+    private final DoctorSlotIndex doctorSlotIndex;
+    private final BookingLockManager bookingLockManager;
+    private final KeysetPager keysetPager;
+    private final BookingMetrics bookingMetrics;
+    private final AppointmentCalendar appointmentCalendar;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final BookingLifecycle bookingLifecycle;
+    private final BookingOutbox bookingOutbox;
 
     public AppointmentService(DoctorRepository doctorRepository,
                               PatientRepository patientRepository,
                               AppointmentRepository appointmentRepository,
-                              DoctorScheduleRepository doctorScheduleRepository) {
+                              DoctorScheduleCache doctorScheduleCache,
+                              DoctorSlotIndex doctorSlotIndex,
+                              BookingLockManager bookingLockManager,
+                              KeysetPager keysetPager,
+                              BookingMetrics bookingMetrics,
+                              AppointmentCalendar appointmentCalendar,
+                              AvailabilityBroadcaster availabilityBroadcaster,
+                              SlotHoldRegistry slotHoldRegistry,
+                              BookingLifecycle bookingLifecycle,
+                              BookingOutbox bookingOutbox) {
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
-        this.doctorScheduleRepository = doctorScheduleRepository;
+        this.doctorScheduleCache = doctorScheduleCache;
+        this.doctorSlotIndex = doctorSlotIndex;
+        this.bookingLockManager = bookingLockManager;
+        this.keysetPager = keysetPager;
+        this.bookingMetrics = bookingMetrics;
+        this.appointmentCalendar = appointmentCalendar;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.bookingLifecycle = bookingLifecycle;
+        this.bookingOutbox = bookingOutbox;
     }
 
     @Transactional
     public Appointment bookAppointment(AppointmentRequest appointmentRequest) {
+        return bookingMetrics.recordBooking("appointment", () ->
+                bookingLockManager.executeLocked(slotKey(appointmentRequest), () -> {
+                    RequestedSlot slot = resolveSlot(appointmentRequest);
+                    Long doctorId = slot.doctor().getId();
+                    if (slotHoldRegistry.isDoctorSlotHeld(doctorId, slot.start())) {
+                        logger.warn("Doctor {} slot at {} is held by a booking in progress", doctorId, slot.start());
+                        throw new BookingConflictException(Reason.SLOT_HELD, "The selected time is held by another booking in progress");
+                    }
+                    Appointment savedAppointment = insertAppointment(slot);
+                    availabilityBroadcaster.doctorSlotTaken(doctorId, slot.start());
+                    logger.info("Appointment booked successfully: {}", savedAppointment.getId());
+                    return savedAppointment;
+                }));
+    }
+
+    /**
+     * Holds the slot for the caller while they finish booking. The hold is confirmed
+     * with {@link #confirmAppointmentHold} or lapses after the hold TTL.
+     */
+    public SlotHoldDto holdAppointment(AppointmentRequest appointmentRequest, AuthenticatedUser principal) {
+        if (!principal.mayActForPatient(appointmentRequest.getPatientId())) {
+            throw new AccessDeniedException("Patients can only hold appointments for themselves");
+        }
+        return bookingMetrics.recordBooking("appointment_hold", () ->
+                bookingLockManager.executeLocked(slotKey(appointmentRequest), () -> {
+                    RequestedSlot slot = resolveSlot(appointmentRequest);
+                    Long doctorId = slot.doctor().getId();
+                    if (!checkDoctorAvailability(doctorId, slot.start(), slot.end(), null)) {
+                        logger.warn("Doctor {} is not available at {}", doctorId, slot.start());
+                        throw new BookingConflictException(Reason.SLOT_TAKEN, "Doctor is already booked for the selected time");
+                    }
+                    return slotHoldRegistry.holdDoctorSlot(doctorId, slot.start(), slot.end(), principal.userId(),
+                            appointmentRequest).toDto();
+                }));
+    }
+
+    @Transactional
+    public Appointment confirmAppointmentHold(UUID holdId, AuthenticatedUser principal) {
+        return bookingMetrics.recordBooking("appointment", () -> {
+            SlotHoldRegistry.Hold hold = slotHoldRegistry.find(holdId, SlotHoldRegistry.Kind.APPOINTMENT, principal.userId());
+            AppointmentRequest appointmentRequest = (AppointmentRequest) hold.request();
+            return bookingLockManager.executeLocked(slotKey(appointmentRequest), () -> {
+                RequestedSlot slot = resolveSlot(appointmentRequest);
+                if (!slotHoldRegistry.claim(hold)) {
+                    throw new ResourceNotFoundException("Hold not found or expired: " + holdId);
+                }
+                Appointment savedAppointment = insertAppointment(slot);
+                logger.info("Appointment {} booked from hold {}", savedAppointment.getId(), holdId);
+                return savedAppointment;
+            });
+        });
+    }
+
+    public void releaseAppointmentHold(UUID holdId, AuthenticatedUser principal) {
+        slotHoldRegistry.release(holdId, SlotHoldRegistry.Kind.APPOINTMENT, principal.userId());
+    }
+
+    // Built from the request alone: the lock must be held before the transaction's first
+    // read, see BookingLockManager
+    private static Object slotKey(AppointmentRequest appointmentRequest) {
+        return BookingLockManager.doctorSlot(appointmentRequest.getDoctorId(), appointmentRequest.getAppointmentDateTime());
+    }
+
+    private RequestedSlot resolveSlot(AppointmentRequest appointmentRequest) {
         if (appointmentRequest.getAppointmentDateTime() == null) {
             throw new IllegalArgumentException("Appointment date and time are required");
         }
@@ -52,161 +159,199 @@ public class AppointmentService {
         Doctor doctor = doctorRepository.findById(appointmentRequest.getDoctorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + appointmentRequest.getDoctorId()));
         if (!doctor.isActive()) {
-            throw new BookingConflictException("Doctor is not active");
+            throw new BookingConflictException(Reason.DOCTOR_INACTIVE, "Doctor is not active");
         }
 
         Patient patient = patientRepository.findById(appointmentRequest.getPatientId())
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + appointmentRequest.getPatientId()));
         if (!patient.isActive()) {
-            throw new BookingConflictException("Patient is not active");
+            throw new BookingConflictException(Reason.PATIENT_INACTIVE, "Patient is not active");
         }
 
         LocalDateTime startTime = appointmentRequest.getAppointmentDateTime();
         String dayOfWeek = startTime.getDayOfWeek().toString();
-        DoctorSchedule schedule = doctorScheduleRepository.findByDoctorAndDayOfWeek(doctor, dayOfWeek)
+        DoctorScheduleSummary schedule = doctorScheduleCache.getDay(doctor.getId(), dayOfWeek)
                 .orElseThrow(() -> new ResourceNotFoundException("No schedule found for doctor on " + dayOfWeek));
 
         LocalDateTime scheduleStart = startTime.toLocalDate().atTime(schedule.getStartTime());
         LocalDateTime scheduleEnd = startTime.toLocalDate().atTime(schedule.getEndTime());
         long minutesFromStart = java.time.temporal.ChronoUnit.MINUTES.between(scheduleStart, startTime);
+        // MINUTES.between drops seconds, and 09:00:30 would lock and store apart from 09:00
         if (minutesFromStart < 0 || startTime.plusMinutes(schedule.getSlotDuration()).isAfter(scheduleEnd) ||
-                minutesFromStart % schedule.getSlotDuration() != 0) {
-            throw new BookingConflictException("Appointment time does not align with doctor's schedule slots");
+                minutesFromStart % schedule.getSlotDuration() != 0 || !startTime.equals(startTime.truncatedTo(ChronoUnit.MINUTES))) {
+            throw new BookingConflictException(Reason.OFF_SCHEDULE, "Appointment time does not align with doctor's schedule slots");
         }
+        return new RequestedSlot(doctor, patient, startTime, startTime.plusMinutes(schedule.getSlotDuration()));
+    }
 
-        LocalDateTime endTime = startTime.plusMinutes(schedule.getSlotDuration());
-        if (!checkDoctorAvailability(doctor, startTime, endTime)) {
-            logger.warn("Doctor {} is not available at {}", doctor.getId(), startTime);
-            throw new BookingConflictException("Doctor is already booked for the selected time");
+    // Caller holds the slot's booking lock
+    private Appointment insertAppointment(RequestedSlot slot) {
+        Long doctorId = slot.doctor().getId();
+        if (!checkDoctorAvailability(doctorId, slot.start(), slot.end(), null)) {
+            logger.warn("Doctor {} is not available at {}", doctorId, slot.start());
+            throw new BookingConflictException(Reason.SLOT_TAKEN, "Doctor is already booked for the selected time");
         }
 
         Appointment appointment = new Appointment();
-        appointment.setDoctor(doctor);
-        appointment.setPatient(patient);
-        appointment.setAppointmentDateTime(startTime);
+        appointment.setDoctor(slot.doctor());
+        appointment.setPatient(slot.patient());
+        appointment.setAppointmentDateTime(slot.start());
         appointment.setStatus(AppointmentStatus.SCHEDULED);
 
-        Appointment savedAppointment = appointmentRepository.save(appointment);
-        logger.info("Appointment booked successfully: {}", savedAppointment.getId());
+        Appointment savedAppointment = saveAppointment(appointment);
+        doctorSlotIndex.markBooked(doctorId, slot.start());
+        appointmentCalendar.booked(savedAppointment);
+        bookingLifecycle.scheduled(BookingLifecycle.Kind.APPOINTMENT, savedAppointment.getId(), slot.end());
+        bookingOutbox.append(BookingEventType.APPOINTMENT_BOOKED, savedAppointment.getId(), doctorId, slot.start(), null);
         return savedAppointment;
     }
 
     public List<LocalDateTime> getAvailableSlots(Long doctorId, LocalDate date) {
+        LocalDate today = LocalDate.now();
+        if (date.isAfter(today.plusDays(MAX_DAYS_AHEAD))) {
+            throw new IllegalArgumentException("Slots can only be listed up to " + MAX_DAYS_AHEAD + " days ahead");
+        }
+        if (date.isBefore(today)) {
+            return List.of();
+        }
+        return bookingMetrics.recordSlotLookup(() -> {
+            List<LocalDateTime> slots = doctorSlotIndex
+                    .getOrLoad(doctorId, date, () -> loadDaySlots(doctorId, date))
+                    .freeSlotsAfter(LocalDateTime.now());
+            slots.removeIf(slot -> slotHoldRegistry.isDoctorSlotHeld(doctorId, slot));
+            return slots;
+        });
+    }
+
+    private DoctorSlotIndex.DaySlots loadDaySlots(Long doctorId, LocalDate date) {
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
         if (!doctor.isActive()) {
-            throw new BookingConflictException("Doctor is not active");
+            throw new BookingConflictException(Reason.DOCTOR_INACTIVE, "Doctor is not active");
         }
 
         String dayOfWeek = date.getDayOfWeek().toString();
-        DoctorSchedule schedule = doctorScheduleRepository.findByDoctorAndDayOfWeek(doctor, dayOfWeek)
+        DoctorScheduleSummary schedule = doctorScheduleCache.getDay(doctor.getId(), dayOfWeek)
                 .orElseThrow(() -> new ResourceNotFoundException("No schedule found for doctor on " + dayOfWeek));
 
         LocalDateTime startOfDay = date.atTime(schedule.getStartTime());
         LocalDateTime endOfDay = date.atTime(schedule.getEndTime());
-        List<LocalDateTime> allSlots = new ArrayList<>();
-        LocalDateTime currentSlot = startOfDay;
-        while (currentSlot.isBefore(endOfDay)) {
-            allSlots.add(currentSlot);
-            currentSlot = currentSlot.plusMinutes(schedule.getSlotDuration());
-        }
-
-        List<Appointment> bookedAppointments = appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
-                doctorId, startOfDay, endOfDay, List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED));
-
-        List<LocalDateTime> bookedSlots = bookedAppointments.stream()
+        List<LocalDateTime> bookedSlots = appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
+                        doctorId, startOfDay, endOfDay, ACTIVE_STATUSES)
+                .stream()
                 .map(Appointment::getAppointmentDateTime)
                 .toList();
-        List<LocalDateTime> availableSlots = allSlots.stream()
-                .filter(slot -> !bookedSlots.contains(slot))
-                .toList();
 
-        LocalDateTime now = LocalDateTime.now();
-        return availableSlots.stream()
-                .filter(slot -> slot.isAfter(now))
-                .sorted()
-                .collect(Collectors.toList());
+        logger.info("Loaded slot index for doctor {} on {}", doctorId, date);
+        return new DoctorSlotIndex.DaySlots(date, schedule.getStartTime(), schedule.getEndTime(),
+                schedule.getSlotDuration(), bookedSlots);
     }
 
     public Appointment getAppointmentById(Long id) {
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findDetailedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + id));
         logger.info("Retrieved appointment: {}", id);
         return appointment;
     }
 
-    public List<Appointment> getAllAppointments() {
-        List<Appointment> appointments = appointmentRepository.findAll();
-        logger.info("Retrieved {} appointments", appointments.size());
-        return appointments;
+    public CursorPage<AppointmentSummary> getAllAppointments(PageQuery pageQuery) {
+        CursorPage<AppointmentSummary> page = keysetPager.fetch(Listings.APPOINTMENTS, pageQuery);
+        logger.info("Retrieved {} appointments", page.getItems().size());
+        return page;
     }
 
     @Transactional
     public Appointment updateAppointment(Long id, AppointmentRequest request) {
-        Appointment appointment = appointmentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + id));
-
-        Doctor doctor = doctorRepository.findById(request.getDoctorId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + request.getDoctorId()));
-        if (!doctor.isActive()) {
-            throw new BookingConflictException("Doctor is not active");
-        }
-
-        Patient patient = patientRepository.findById(request.getPatientId())
-                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + request.getPatientId()));
-        if (!patient.isActive()) {
-            throw new BookingConflictException("Patient is not active");
-        }
-
-        LocalDateTime startTime = request.getAppointmentDateTime();
-        String dayOfWeek = startTime.getDayOfWeek().toString();
-        DoctorSchedule schedule = doctorScheduleRepository.findByDoctorAndDayOfWeek(doctor, dayOfWeek)
-                .orElseThrow(() -> new ResourceNotFoundException("No schedule found for doctor on " + dayOfWeek));
-
-        LocalDateTime scheduleStart = startTime.toLocalDate().atTime(schedule.getStartTime());
-        LocalDateTime scheduleEnd = startTime.toLocalDate().atTime(schedule.getEndTime());
-        long minutesFromStart = java.time.temporal.ChronoUnit.MINUTES.between(scheduleStart, startTime);
-        if (minutesFromStart < 0 || startTime.plusMinutes(schedule.getSlotDuration()).isAfter(scheduleEnd) ||
-                minutesFromStart % schedule.getSlotDuration() != 0) {
-            throw new BookingConflictException("Appointment time does not align with doctor's schedule slots");
-        }
-
-        LocalDateTime endTime = startTime.plusMinutes(schedule.getSlotDuration());
-        List<Appointment> conflictingAppointments = appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
-                doctor.getId(), startTime, endTime, List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED));
-        if (!conflictingAppointments.isEmpty() && !conflictingAppointments.get(0).getId().equals(id)) {
-            logger.warn("Doctor {} is not available at {}", doctor.getId(), startTime);
-            throw new BookingConflictException("Doctor is already booked for the selected time");
-        }
-
-        appointment.setDoctor(doctor);
-        appointment.setPatient(patient);
-        appointment.setAppointmentDateTime(startTime);
-        appointment.setStatus(AppointmentStatus.SCHEDULED);
-
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
-        logger.info("Appointment updated successfully: {}", id);
-        return updatedAppointment;
+        return bookingLockManager.executeLocked(slotKey(request), () -> {
+            Appointment appointment = appointmentRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + id));
+            RequestedSlot slot = resolveSlot(request);
+            Doctor doctor = slot.doctor();
+            LocalDateTime startTime = slot.start();
+            if (!checkDoctorAvailability(doctor.getId(), startTime, slot.end(), id)) {
+                logger.warn("Doctor {} is not available at {}", doctor.getId(), startTime);
+                throw new BookingConflictException(Reason.SLOT_TAKEN, "Doctor is already booked for the selected time");
+            }
+            if (slotHoldRegistry.isDoctorSlotHeld(doctor.getId(), startTime)) {
+                logger.warn("Doctor {} slot at {} is held by a booking in progress", doctor.getId(), startTime);
+                throw new BookingConflictException(Reason.SLOT_HELD, "The selected time is held by another booking in progress");
+            }
+
+            if (isActive(appointment.getStatus())) {
+                doctorSlotIndex.markFree(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+                availabilityBroadcaster.doctorSlotFreed(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+            }
+            AppointmentCalendar.Entry previous = AppointmentCalendar.Entry.of(appointment);
+
+            appointment.setDoctor(doctor);
+            appointment.setPatient(slot.patient());
+            appointment.setAppointmentDateTime(startTime);
+            appointment.setStatus(AppointmentStatus.SCHEDULED);
+
+            Appointment updatedAppointment = saveAppointment(appointment);
+            doctorSlotIndex.markBooked(doctor.getId(), startTime);
+            availabilityBroadcaster.doctorSlotTaken(doctor.getId(), startTime);
+            appointmentCalendar.changed(previous, updatedAppointment);
+            bookingLifecycle.scheduled(BookingLifecycle.Kind.APPOINTMENT, id, slot.end());
+            bookingOutbox.append(BookingEventType.APPOINTMENT_UPDATED, id, doctor.getId(), startTime, null);
+            logger.info("Appointment updated successfully: {}", id);
+            return updatedAppointment;
+        });
     }
 
     @Transactional
     public void cancelAppointment(Long id) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + id));
+        if (isActive(appointment.getStatus())) {
+            doctorSlotIndex.markFree(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+            availabilityBroadcaster.doctorSlotFreed(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+        }
+        AppointmentCalendar.Entry previous = AppointmentCalendar.Entry.of(appointment);
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
+        appointmentCalendar.changed(previous, appointment);
+        bookingOutbox.append(BookingEventType.APPOINTMENT_CANCELLED, id, previous.doctorId(), previous.slot(), null);
         logger.info("Appointment cancelled successfully: {}", id);
     }
 
-    private boolean checkDoctorAvailability(Doctor doctor, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Appointment> conflictingAppointments = appointmentRepository
-                .findByDoctorAndAppointmentDateTimeBetween(doctor, startTime, endTime);
-        return conflictingAppointments.isEmpty();
+    private record RequestedSlot(Doctor doctor, Patient patient, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private boolean isActive(AppointmentStatus status) {
+        return status == AppointmentStatus.SCHEDULED || status == AppointmentStatus.CONFIRMED;
+    }
+
+    private boolean checkDoctorAvailability(Long doctorId, LocalDateTime startTime, LocalDateTime endTime, Long appointmentId) {
+        return appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
+                        doctorId, startTime, endTime, ACTIVE_STATUSES)
+                .stream()
+                .noneMatch(existing -> existing.getAppointmentDateTime().isBefore(endTime)
+                        && !existing.getId().equals(appointmentId));
     }
 
-    public List<Appointment> findByDoctor(Long doctorId) {
+    private Appointment saveAppointment(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Slot {} for doctor {} was taken concurrently", appointment.getAppointmentDateTime(),
+                    appointment.getDoctor().getId());
+            throw new BookingConflictException(Reason.SLOT_TAKEN, "Doctor is already booked for the selected time");
+        }
+    }
+
+    public List<CalendarDaySummary> getDoctorCalendar(Long doctorId, LocalDate from, LocalDate to) {
+        return appointmentCalendar.getCalendar(doctorId, from, to);
+    }
+
+    public List<Appointment> findByDoctor(Long doctorId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Listing start must not be after its end");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_LISTING_DAYS) {
+            throw new IllegalArgumentException("Appointments can only be listed " + MAX_LISTING_DAYS + " days at a time");
+        }
         Doctor doctor = doctorRepository.findById(doctorId).orElseThrow(()-> new RuntimeException("Doctor not found"));
-        List<Appointment> appointments = appointmentRepository.findByDoctor(doctor);
-        return appointments;
+        return appointmentRepository.findByDoctorBetween(doctor, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
     }
 }
\ No newline at end of file
@@ -0,0 +1,251 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.SlotChange;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pushes slot-taken and slot-freed deltas to clients subscribed to a doctor's day or a
+ * room's window. Connections are async servlet requests, so an idle subscriber holds no
+ * thread. Each subscriber drains its own queue on the application task executor, one
+ * drain at a time, so deltas arrive in commit order and a slow client only delays itself.
+ */
+@Component
+public class AvailabilityBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityBroadcaster.class);
+    static final String SNAPSHOT = "snapshot";
+    static final String SLOT_TAKEN = "slot-taken";
+    static final String SLOT_FREED = "slot-freed";
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+
+    private record Room(Long roomId) {
+    }
+
+    private record Event(String name, Object data) {
+    }
+
+    private final Map<Object, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int maxPending;
+
+    public AvailabilityBroadcaster(@Qualifier("applicationTaskExecutor") Executor executor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${availability.sse.timeout:30m}") Duration timeout,
+                                   @Value("${availability.sse.max-subscribers:10000}") int maxSubscribers,
+                                   @Value("${availability.sse.max-pending:256}") int maxPending) {
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+        Gauge.builder("medisys.availability.subscribers", subscribers, AtomicInteger::get)
+                .description("Open availability streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Streams changes to the doctor's slots on the given day, starting with the current
+     * free slots. Empty when the subscriber limit is reached.
+     */
+    public Optional<SseEmitter> subscribeDoctor(Long doctorId, LocalDate date, Supplier<?> snapshot) {
+        return subscribe(new DoctorDay(doctorId, date), null, null, snapshot);
+    }
+
+    /**
+     * Streams changes to room bookings overlapping [from, to), starting with the current
+     * free slots. Empty when the subscriber limit is reached.
+     */
+    public Optional<SseEmitter> subscribeRoom(Long roomId, LocalDateTime from, LocalDateTime to, Supplier<?> snapshot) {
+        return subscribe(new Room(roomId), from, to, snapshot);
+    }
+
+    public void doctorSlotTaken(Long doctorId, LocalDateTime slot) {
+        TransactionHooks.afterCommit(() -> publish(new DoctorDay(doctorId, slot.toLocalDate()), slot, slot,
+                new Event(SLOT_TAKEN, new SlotChange(doctorId, null, slot, null))));
+    }
+
+    public void doctorSlotFreed(Long doctorId, LocalDateTime slot) {
+        TransactionHooks.afterCommit(() -> publish(new DoctorDay(doctorId, slot.toLocalDate()), slot, slot,
+                new Event(SLOT_FREED, new SlotChange(doctorId, null, slot, null))));
+    }
+
+    public void roomSlotTaken(Long roomId, LocalDateTime start, LocalDateTime end) {
+        TransactionHooks.afterCommit(() -> publish(new Room(roomId), start, end,
+                new Event(SLOT_TAKEN, new SlotChange(null, roomId, start, end))));
+    }
+
+    public void roomSlotFreed(Long roomId, LocalDateTime start, LocalDateTime end) {
+        TransactionHooks.afterCommit(() -> publish(new Room(roomId), start, end,
+                new Event(SLOT_FREED, new SlotChange(null, roomId, start, end))));
+    }
+
+    int subscriberCount() {
+        return subscribers.get();
+    }
+
+    private Optional<SseEmitter> subscribe(Object topic, LocalDateTime from, LocalDateTime to, Supplier<?> snapshot) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            logger.warn("Rejected availability stream for {}, {} streams open", topic, maxSubscribers);
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(topic, emitter, from, to);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Deltas committed while the snapshot is read wait for it and are applied on top
+        subscriber.lock.lock();
+        try {
+            topics.compute(topic, (key, subscribed) -> {
+                Set<Subscriber> set = subscribed == null ? ConcurrentHashMap.newKeySet() : subscribed;
+                set.add(subscriber);
+                return set;
+            });
+            subscriber.send(new Event(SNAPSHOT, snapshot.get()));
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        } finally {
+            subscriber.lock.unlock();
+        }
+        return Optional.of(emitter);
+    }
+
+    private void publish(Object topic, LocalDateTime start, LocalDateTime end, Event event) {
+        Set<Subscriber> subscribed = topics.get(topic);
+        if (subscribed == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribed) {
+            if (subscriber.overlaps(start, end)) {
+                subscriber.enqueue(event);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and finds clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${availability.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        topics.values().forEach(subscribed -> subscribed.forEach(subscriber -> subscriber.enqueue(null)));
+    }
+
+    private final class Subscriber {
+        private final Object topic;
+        private final SseEmitter emitter;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        Subscriber(Object topic, SseEmitter emitter, LocalDateTime from, LocalDateTime to) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return from == null || (start.isBefore(to) && end.isAfter(from));
+        }
+
+        /**
+         * Queues an event, or a heartbeat when null, and schedules a drain unless one is
+         * already running. A client that falls too far behind is disconnected; it
+         * reconnects and starts again from a fresh snapshot.
+         */
+        void enqueue(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                logger.warn("Availability stream for {} fell {} events behind, closing it", topic, maxPending);
+                close();
+                emitter.complete();
+                return;
+            }
+            pending.add(event == null ? new Event(null, null) : event);
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            lock.lock();
+            try {
+                Event event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    if (!closed.get()) {
+                        send(event);
+                    }
+                }
+            } finally {
+                draining.set(false);
+                lock.unlock();
+            }
+            // An event queued after the last poll but before the flag was cleared
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        void send(Event event) {
+            try {
+                if (event.name() == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client disconnected; the container completes the emitter
+                close();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                topics.computeIfPresent(topic, (key, subscribed) -> {
+                    subscribed.remove(this);
+                    return subscribed.isEmpty() ? null : subscribed;
+                });
+                subscribers.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.AvailableSlotDto;
+import com.MediSys.MediSys.dto.BookedSlot;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the earliest free slots across every active doctor of a specialization. Schedules and
+ * booked appointments are loaded in two bulk queries, each doctor's free slots are computed in
+ * parallel (already in time order), and the per-doctor lists are k-way merged up to the limit.
+ * Slots held by a booking in progress are left out, the same as in a doctor's available slots.
+ */
+@Service
+public class AvailabilitySearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilitySearchService.class);
+
+    private static final int MAX_DAYS = 31;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private static final Comparator<AvailableSlotDto> SLOT_ORDER = Comparator
+            .comparing(AvailableSlotDto::getStart)
+            .thenComparing(AvailableSlotDto::getDoctorId);
+
+    private final DoctorScheduleRepository doctorScheduleRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotHoldRegistry slotHoldRegistry;
+
+    public AvailabilitySearchService(DoctorScheduleRepository doctorScheduleRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     SlotHoldRegistry slotHoldRegistry) {
+        this.doctorScheduleRepository = doctorScheduleRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.slotHoldRegistry = slotHoldRegistry;
+    }
+
+    public List<AvailableSlotDto> search(String specialization, LocalDate from, LocalDate to,
+                                         LocalTime earliest, LocalTime latest, Integer limit) {
+        if (specialization == null || specialization.isBlank()) {
+            throw new IllegalArgumentException("Specialization is required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Search range cannot exceed " + MAX_DAYS + " days");
+        }
+        LocalTime windowStart = earliest != null ? earliest : LocalTime.MIN;
+        LocalTime windowEnd = latest != null ? latest : LocalTime.MAX;
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("Earliest time must be before latest time");
+        }
+        int maxResults = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        long started = System.nanoTime();
+        Map<Long, List<DoctorScheduleSummary>> schedulesByDoctor = doctorScheduleRepository
+                .findActiveSummariesBySpecialization(specialization.trim()).stream()
+                .collect(Collectors.groupingBy(DoctorScheduleSummary::getDoctorId, LinkedHashMap::new, Collectors.toList()));
+        if (schedulesByDoctor.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Map<LocalDate, List<LocalDateTime>>> bookedByDoctor = new HashMap<>();
+        for (BookedSlot booked : appointmentRepository.findBookedSlots(schedulesByDoctor.keySet(),
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay(), AppointmentService.ACTIVE_STATUSES)) {
+            bookedByDoctor.computeIfAbsent(booked.getDoctorId(), id -> new HashMap<>())
+                    .computeIfAbsent(booked.getAppointmentDateTime().toLocalDate(), date -> new ArrayList<>())
+                    .add(booked.getAppointmentDateTime());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<List<AvailableSlotDto>> perDoctor = schedulesByDoctor.values().parallelStream()
+                .map(week -> freeSlots(week, bookedByDoctor.getOrDefault(week.get(0).getDoctorId(), Map.of()),
+                        from, to, windowStart, windowEnd, now, maxResults))
+                .toList();
+
+        List<AvailableSlotDto> results = merge(perDoctor, maxResults);
+        logger.info("Availability search for {} over {} doctors returned {} slots in {} ms", specialization,
+                schedulesByDoctor.size(), results.size(), (System.nanoTime() - started) / 1_000_000);
+        return results;
+    }
+
+    private List<AvailableSlotDto> freeSlots(List<DoctorScheduleSummary> week,
+                                                    Map<LocalDate, List<LocalDateTime>> booked,
+                                                    LocalDate from, LocalDate to, LocalTime windowStart,
+                                                    LocalTime windowEnd, LocalDateTime now, int maxResults) {
+        Map<String, DoctorScheduleSummary> byDay = new HashMap<>();
+        week.forEach(day -> byDay.put(day.getDayOfWeek(), day));
+
+        List<AvailableSlotDto> slots = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DoctorScheduleSummary schedule = byDay.get(date.getDayOfWeek().toString());
+            if (schedule == null) {
+                continue;
+            }
+            DoctorSlotIndex.DaySlots day = new DoctorSlotIndex.DaySlots(date, schedule.getStartTime(),
+                    schedule.getEndTime(), schedule.getSlotDuration(), booked.getOrDefault(date, List.of()));
+            LocalDateTime dayWindowEnd = date.atTime(windowEnd);
+            for (LocalDateTime start : day.freeSlotsAfter(now)) {
+                LocalDateTime end = start.plusMinutes(schedule.getSlotDuration());
+                if (start.toLocalTime().isBefore(windowStart)
+                        || slotHoldRegistry.isDoctorSlotHeld(schedule.getDoctorId(), start)) {
+                    continue;
+                }
+                if (end.isAfter(dayWindowEnd)) {
+                    break;
+                }
+                slots.add(new AvailableSlotDto(schedule.getDoctorId(), schedule.getDoctorName(), start, end));
+                if (slots.size() == maxResults) {
+                    return slots;
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static List<AvailableSlotDto> merge(List<List<AvailableSlotDto>> sortedLists, int maxResults) {
+        PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> SLOT_ORDER.compare(a.current(), b.current()));
+        for (List<AvailableSlotDto> list : sortedLists) {
+            if (!list.isEmpty()) {
+                heads.add(new Head(list, 0));
+            }
+        }
+        List<AvailableSlotDto> merged = new ArrayList<>(maxResults);
+        while (!heads.isEmpty() && merged.size() < maxResults) {
+            Head head = heads.poll();
+            merged.add(head.current());
+            if (head.index() + 1 < head.slots().size()) {
+                heads.add(new Head(head.slots(), head.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Head(List<AvailableSlotDto> slots, int index) {
+        AvailableSlotDto current() {
+            return slots.get(index);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.BookingEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every booking event to the medisys.audit logger, one line per event.
+ */
+@Component
+public class BookingAuditLog implements BookingEventSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger("medisys.audit");
+
+    @Override
+    public void onEvent(BookingEvent event) {
+        logger.info("event={} id={} booking={} target={} start={} end={} at={}", event.getType(), event.getId(),
+                event.getAggregateId(), event.getTargetId(), event.getStartDateTime(), event.getEndDateTime(),
+                event.getOccurredAt());
+    }
+}
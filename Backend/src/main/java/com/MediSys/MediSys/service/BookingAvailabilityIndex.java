@@ -0,0 +1,152 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.TimeSlotDto;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.exception.ResourceNotFoundException;
+import com.MediSys.MediSys.model.HospitalRoom;
+import com.MediSys.MediSys.model.RoomBooking;
+import com.MediSys.MediSys.repository.HospitalRoomRepository;
+import com.MediSys.MediSys.repository.RoomBookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class BookingAvailabilityIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingAvailabilityIndex.class);
+
+    private final HospitalRoomRepository hospitalRoomRepository;
+    private final RoomBookingRepository roomBookingRepository;
+
+    private final Map<Long, IntervalTree> rooms = new ConcurrentHashMap<>();
+
+    public BookingAvailabilityIndex(HospitalRoomRepository hospitalRoomRepository,
+                                    RoomBookingRepository roomBookingRepository) {
+        this.hospitalRoomRepository = hospitalRoomRepository;
+        this.roomBookingRepository = roomBookingRepository;
+    }
+
+    // Runs before the web server and the schedulers start, so no booking can commit
+    // between the warm-up queries and the index becoming authoritative.
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDateTime now = LocalDateTime.now();
+        for (HospitalRoom room : hospitalRoomRepository.findAll()) {
+            rooms.put(room.getId(), new IntervalTree());
+        }
+        List<RoomBooking> roomBookings = roomBookingRepository.findByStatusAndEndDateTimeAfter(BookingStatus.BOOKED, now);
+        roomBookings.forEach(this::insertRoomBooking);
+        logger.info("Availability index warmed with {} rooms and {} room bookings", rooms.size(), roomBookings.size());
+    }
+
+    public boolean isRoomFree(Long roomId, LocalDateTime start, LocalDateTime end) {
+        return !roomTimeline(roomId).overlaps(toKey(start), toKey(end));
+    }
+
+    /**
+     * Whether the only bookings overlapping the window are the given hold's own.
+     */
+    public boolean isRoomFreeForHold(Long roomId, LocalDateTime start, LocalDateTime end, long holdKey) {
+        return roomTimeline(roomId).overlapping(toKey(start), toKey(end)).stream()
+                .allMatch(busy -> busy.id() == holdId(holdKey));
+    }
+
+    public List<TimeSlotDto> freeRoomSlots(Long roomId, LocalDateTime start, LocalDateTime end) {
+        return freeGaps(roomTimeline(roomId), start, end);
+    }
+
+    public void registerRoom(Long roomId) {
+        TransactionHooks.afterCommit(() -> rooms.putIfAbsent(roomId, new IntervalTree()));
+    }
+
+    public void removeRoom(Long roomId) {
+        TransactionHooks.afterCommit(() -> rooms.remove(roomId));
+    }
+
+    public void addRoomBooking(RoomBooking booking) {
+        TransactionHooks.afterCommit(() -> insertRoomBooking(booking));
+    }
+
+    public void removeRoomBooking(RoomBooking booking) {
+        TransactionHooks.afterCommit(() -> {
+            IntervalTree timeline = rooms.get(booking.getRoom().getId());
+            if (timeline != null) {
+                timeline.remove(booking.getId(), toKey(booking.getStartDateTime()));
+            }
+        });
+    }
+
+    // Holds are not transactional, so they take effect at once. They share the booking
+    // timeline under negative ids, which booking ids never use.
+    public void addRoomHold(long holdKey, Long roomId, LocalDateTime start, LocalDateTime end) {
+        roomTimeline(roomId).insert(holdId(holdKey), toKey(start), toKey(end));
+    }
+
+    public void removeRoomHold(long holdKey, Long roomId, LocalDateTime start) {
+        IntervalTree timeline = rooms.get(roomId);
+        if (timeline != null) {
+            timeline.remove(holdId(holdKey), toKey(start));
+        }
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void pruneEndedBookings() {
+        long now = toKey(LocalDateTime.now());
+        int pruned = 0;
+        for (IntervalTree timeline : rooms.values()) {
+            pruned += timeline.removeEndingBefore(now);
+        }
+        logger.info("Pruned {} ended room bookings from availability index", pruned);
+    }
+
+    private void insertRoomBooking(RoomBooking booking) {
+        roomTimeline(booking.getRoom().getId())
+                .insert(booking.getId(), toKey(booking.getStartDateTime()), toKey(booking.getEndDateTime()));
+    }
+
+    private IntervalTree roomTimeline(Long roomId) {
+        IntervalTree timeline = rooms.get(roomId);
+        if (timeline == null) {
+            throw new ResourceNotFoundException("Room not found with ID: " + roomId);
+        }
+        return timeline;
+    }
+
+    private static List<TimeSlotDto> freeGaps(IntervalTree timeline, LocalDateTime start, LocalDateTime end) {
+        long windowEnd = toKey(end);
+        long cursor = toKey(start);
+        List<TimeSlotDto> gaps = new ArrayList<>();
+        for (IntervalTree.Interval busy : timeline.overlapping(cursor, windowEnd)) {
+            if (busy.start() > cursor) {
+                gaps.add(new TimeSlotDto(fromKey(cursor), fromKey(busy.start())));
+            }
+            cursor = Math.max(cursor, busy.end());
+        }
+        if (cursor < windowEnd) {
+            gaps.add(new TimeSlotDto(fromKey(cursor), end));
+        }
+        return gaps;
+    }
+
+    private static long holdId(long holdKey) {
+        return -holdKey;
+    }
+
+    private static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromKey(long key) {
+        return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,14 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.BookingEvent;
+
+/**
+ * Receives booking events from the outbox relay, off the booking's transaction and
+ * thread. Events of one booking arrive in the order they were committed, but delivery is
+ * at least once: an event is redelivered to every subscriber when any of them throws, so
+ * handlers must be idempotent.
+ */
+public interface BookingEventSubscriber {
+
+    void onEvent(BookingEvent event);
+}
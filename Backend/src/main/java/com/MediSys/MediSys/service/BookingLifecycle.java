@@ -0,0 +1,230 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.BookingEnd;
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.ResourceBookingRepository;
+import com.MediSys.MediSys.repository.RoomBookingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Completes appointments, room bookings and resource bookings as they end. Everything
+ * ending within the horizon sits on a timing wheel and is completed within a tick of its
+ * end time; bookings made in between are added as they commit. The database is read
+ * only when the horizon is extended, which also completes whatever ended while the
+ * application was down, so no transition is lost across a restart.
+ */
+@Component
+public class BookingLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingLifecycle.class);
+    private static final int WHEEL_SIZE = 1024;
+
+    public enum Kind {
+        APPOINTMENT,
+        ROOM,
+        RESOURCE
+    }
+
+    private record Due(Kind kind, Long id, LocalDateTime end) {
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final RoomBookingRepository roomBookingRepository;
+    private final ResourceBookingRepository resourceBookingRepository;
+    private final DoctorScheduleCache doctorScheduleCache;
+    private final AppointmentCalendar appointmentCalendar;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration horizon;
+    private final int batchSize;
+
+    private final HashedTimingWheel<Due> wheel;
+    private final Set<Due> scheduled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private volatile LocalDateTime horizonEnd = LocalDateTime.MIN;
+
+    public BookingLifecycle(AppointmentRepository appointmentRepository,
+                            RoomBookingRepository roomBookingRepository,
+                            ResourceBookingRepository resourceBookingRepository,
+                            DoctorScheduleCache doctorScheduleCache,
+                            AppointmentCalendar appointmentCalendar,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${booking.lifecycle.horizon:1h}") Duration horizon,
+                            @Value("${booking.lifecycle.batch-size:500}") int batchSize,
+                            @Value("${booking.lifecycle.tick-ms:1000}") long tickMillis) {
+        this.appointmentRepository = appointmentRepository;
+        this.roomBookingRepository = roomBookingRepository;
+        this.resourceBookingRepository = resourceBookingRepository;
+        this.doctorScheduleCache = doctorScheduleCache;
+        this.appointmentCalendar = appointmentCalendar;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimingWheel<>(tickMillis, WHEEL_SIZE, System.currentTimeMillis());
+        Gauge.builder("medisys.booking.lifecycle.scheduled", scheduled, Set::size)
+                .description("Bookings waiting on the wheel for their end time")
+                .register(meterRegistry);
+        Gauge.builder("medisys.booking.lifecycle.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("How long after its end time the latest completed booking was completed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a booking's end time once the transaction that made it commits. Bookings
+     * ending beyond the horizon are left to the next horizon extension.
+     */
+    public void scheduled(Kind kind, Long id, LocalDateTime end) {
+        TransactionHooks.afterCommit(() -> {
+            if (end.isBefore(horizonEnd)) {
+                schedule(new Due(kind, id, end));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${booking.lifecycle.tick-ms:1000}")
+    public void completeDue() {
+        List<Due> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        due.forEach(scheduled::remove);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Kind, List<Long>> ids = due.stream().collect(Collectors.groupingBy(Due::kind,
+                () -> new EnumMap<>(Kind.class), Collectors.mapping(Due::id, Collectors.toList())));
+        try {
+            ids.forEach((kind, kindIds) -> {
+                for (int from = 0; from < kindIds.size(); from += batchSize) {
+                    List<Long> batch = kindIds.subList(from, Math.min(from + batchSize, kindIds.size()));
+                    transactionTemplate.executeWithoutResult(status -> complete(kind, batch, now));
+                }
+            });
+        } catch (DataAccessException e) {
+            // Still BOOKED in the database, so the next horizon extension completes them
+            logger.warn("Completing {} ended bookings failed, retrying on the next horizon extension", due.size(), e);
+            return;
+        }
+        lagSeconds.set(due.stream().mapToLong(item -> Duration.between(item.end(), now).toSeconds()).max().orElse(0));
+    }
+
+    /**
+     * Moves the horizon forward and loads every active booking ending before it. Ones that
+     * have already ended, including any left over from before a restart, are completed
+     * straight away in batches.
+     */
+    @Scheduled(fixedDelayString = "${booking.lifecycle.refill-ms:300000}")
+    public void extendHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = now.plus(horizon);
+        // Raised first so bookings committed during the load register themselves
+        horizonEnd = before;
+        for (Kind kind : Kind.values()) {
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long from = afterId;
+                afterId = transactionTemplate.execute(status -> loadPage(kind, from, before, now));
+            }
+        }
+        logger.info("Booking lifecycle horizon extended to {}, {} bookings scheduled", before, scheduled.size());
+    }
+
+    // Returns the id to continue after, or null once the last page is done
+    private Long loadPage(Kind kind, Long afterId, LocalDateTime before, LocalDateTime now) {
+        List<Due> page = switch (kind) {
+            case APPOINTMENT -> appointmentRepository.findStartingBefore(AppointmentService.ACTIVE_STATUSES, before,
+                    afterId, Limit.of(batchSize)).stream()
+                    .map(appointment -> new Due(kind, appointment.getId(), endOf(appointment)))
+                    .toList();
+            case ROOM -> toDue(kind, roomBookingRepository.findEndingBefore(BookingStatus.BOOKED, before, afterId,
+                    Limit.of(batchSize)));
+            case RESOURCE -> toDue(kind, resourceBookingRepository.findEndingBefore(BookingStatus.BOOKED, before, afterId,
+                    Limit.of(batchSize)));
+        };
+        List<Long> ended = new ArrayList<>();
+        for (Due due : page) {
+            if (due.end().isAfter(now)) {
+                schedule(due);
+            } else {
+                ended.add(due.id());
+            }
+        }
+        if (!ended.isEmpty()) {
+            complete(kind, ended, now);
+        }
+        return page.size() < batchSize ? null : page.get(page.size() - 1).id();
+    }
+
+    private static List<Due> toDue(Kind kind, List<BookingEnd> ends) {
+        return ends.stream().map(end -> new Due(kind, end.getId(), end.getEndDateTime())).toList();
+    }
+
+    // Runs inside a transaction. Rows cancelled or moved since they were scheduled are skipped.
+    private void complete(Kind kind, Collection<Long> ids, LocalDateTime now) {
+        int completed = switch (kind) {
+            case APPOINTMENT -> completeAppointments(ids, now);
+            case ROOM -> roomBookingRepository.updateStatusIfEnded(ids, BookingStatus.BOOKED, BookingStatus.COMPLETED, now);
+            case RESOURCE -> resourceBookingRepository.updateStatusIfEnded(ids, BookingStatus.BOOKED,
+                    BookingStatus.COMPLETED, now);
+        };
+        if (completed > 0) {
+            meterRegistry.counter("medisys.booking.completed", "type", kind.name().toLowerCase(Locale.ROOT))
+                    .increment(completed);
+            logger.info("Completed {} ended {} bookings", completed, kind.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private int completeAppointments(Collection<Long> ids, LocalDateTime now) {
+        List<Appointment> ended = appointmentRepository.lockByIdInAndStatusIn(ids, AppointmentService.ACTIVE_STATUSES)
+                .stream()
+                .filter(appointment -> !endOf(appointment).isAfter(now))
+                .toList();
+        if (ended.isEmpty()) {
+            return 0;
+        }
+        List<AppointmentCalendar.Entry> previous = ended.stream().map(AppointmentCalendar.Entry::of).toList();
+        int completed = appointmentRepository.updateStatus(ended.stream().map(Appointment::getId).toList(),
+                AppointmentService.ACTIVE_STATUSES, AppointmentStatus.COMPLETED, now);
+        appointmentCalendar.statusChanged(previous, AppointmentStatus.COMPLETED);
+        return completed;
+    }
+
+    private LocalDateTime endOf(Appointment appointment) {
+        LocalDateTime start = appointment.getAppointmentDateTime();
+        return doctorScheduleCache.getDay(appointment.getDoctor().getId(), start.getDayOfWeek().toString())
+                .map(schedule -> start.plusMinutes(schedule.getSlotDuration()))
+                .orElse(start);
+    }
+
+    private void schedule(Due due) {
+        if (scheduled.add(due)) {
+            wheel.schedule(due, due.end().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
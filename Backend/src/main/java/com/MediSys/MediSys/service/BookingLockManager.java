@@ -0,0 +1,111 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.exception.BookingConflictException.Reason;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class BookingLockManager {
+
+    private static final int STRIPES = 1024;
+    private static final long LOCK_TIMEOUT_SECONDS = 5;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public BookingLockManager() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public static Object doctorSlot(Long doctorId, LocalDateTime slotStart) {
+        return new DoctorSlotKey(doctorId, slotStart);
+    }
+
+    public static Object room(Long roomId) {
+        return new RoomKey(roomId);
+    }
+
+    /**
+     * Runs the action while holding the stripe for the given key. Inside a transaction the
+     * stripe stays held until the transaction completes, so a competing booking can only
+     * check availability once the winner's row is committed or rolled back. That check only
+     * sees the winner's row if the caller takes the lock before its transaction's first
+     * read: under InnoDB's REPEATABLE READ the first read fixes the snapshot every later
+     * plain read sees.
+     */
+    public <T> T executeLocked(Object key, Supplier<T> action) {
+        return executeLocked(List.of(key), action);
+    }
+
+    /**
+     * Holds the stripes of every key for the action. Stripes are taken in index order so
+     * two multi-key bookings cannot deadlock on each other.
+     */
+    public <T> T executeLocked(Collection<?> keys, Supplier<T> action) {
+        int[] indexes = keys.stream().mapToInt(BookingLockManager::stripeIndex).distinct().sorted().toArray();
+        List<ReentrantLock> held = new ArrayList<>(indexes.length);
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index], keys.size() == 1 ? keys.iterator().next() : keys.size() + " slots");
+                held.add(stripes[index]);
+            }
+        } catch (RuntimeException e) {
+            unlockAll(held);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlockAll(held);
+                }
+            });
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            unlockAll(held);
+        }
+    }
+
+    private void acquire(ReentrantLock lock, Object key) {
+        try {
+            if (!lock.tryLock(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new BookingConflictException(Reason.LOCK_TIMEOUT, "Booking is busy for " + key + ", please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingConflictException(Reason.LOCK_TIMEOUT, "Interrupted while waiting for booking lock");
+        }
+    }
+
+    private static void unlockAll(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+
+    private static int stripeIndex(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (STRIPES - 1);
+    }
+
+    private record DoctorSlotKey(Long doctorId, LocalDateTime slotStart) {
+    }
+
+    private record RoomKey(Long roomId) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.exception.BookingConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+@Component
+public class BookingMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer slotLookup;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.slotLookup = meterRegistry.timer("medisys.slots.lookup");
+    }
+
+    /**
+     * Times a booking of the given type. A booking that succeeds inside a transaction is
+     * timed up to commit or rollback, so the histogram includes the flush and commit cost.
+     */
+    public <T> T recordBooking(String type, Supplier<T> booking) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result;
+        try {
+            result = booking.get();
+        } catch (BookingConflictException e) {
+            meterRegistry.counter("medisys.booking.conflicts",
+                    "type", type, "reason", e.getReason().name().toLowerCase(Locale.ROOT)).increment();
+            sample.stop(bookingTimer(type, "conflict"));
+            throw e;
+        } catch (RuntimeException e) {
+            sample.stop(bookingTimer(type, "error"));
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    sample.stop(bookingTimer(type, status == STATUS_COMMITTED ? "success" : "rolled_back"));
+                }
+            });
+        } else {
+            sample.stop(bookingTimer(type, "success"));
+        }
+        return result;
+    }
+
+    public <T> T recordSlotLookup(Supplier<T> lookup) {
+        return slotLookup.record(lookup);
+    }
+
+    private Timer bookingTimer(String type, String outcome) {
+        return meterRegistry.timer("medisys.booking", "type", type, "outcome", outcome);
+    }
+}
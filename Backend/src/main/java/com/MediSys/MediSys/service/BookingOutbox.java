@@ -0,0 +1,247 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.BookingEvent;
+import com.MediSys.MediSys.enums.BookingEventType;
+import com.MediSys.MediSys.model.BookingOutboxEvent;
+import com.MediSys.MediSys.repository.BookingOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transactional outbox for booking events. Services append events in the transaction
+ * that changes the booking; after it commits the relay is woken on the application task
+ * executor and hands unpublished events, oldest first and in batches, to every
+ * {@link BookingEventSubscriber}. An event is marked published only once all subscribers
+ * took it, so a crash in between means redelivery rather than loss. While an event keeps
+ * failing, later events of the same booking wait behind it and the relay pages past them
+ * to other bookings. After max-attempts the event is marked abandoned and kept, and its
+ * booking stays held until it is dealt with by hand. The scheduled pass picks up whatever
+ * a wake-up missed, including events left from before a restart.
+ */
+@Component
+public class BookingOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingOutbox.class);
+
+    private record Aggregate(String kind, Long id) {
+    }
+
+    private final BookingOutboxRepository outboxRepository;
+    private final List<BookingEventSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Timer deliveryLag;
+    private final Counter published;
+    private final Counter abandoned;
+
+    public BookingOutbox(BookingOutboxRepository outboxRepository,
+                         List<BookingEventSubscriber> subscribers,
+                         TransactionTemplate transactionTemplate,
+                         @Qualifier("applicationTaskExecutor") Executor executor,
+                         MeterRegistry meterRegistry,
+                         @Value("${booking.outbox.batch-size:200}") int batchSize,
+                         @Value("${booking.outbox.max-attempts:10}") int maxAttempts,
+                         @Value("${booking.outbox.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        Gauge.builder("medisys.outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished booking event at the last relay pass")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("medisys.outbox.delivery")
+                .description("Time from a booking event being written to all subscribers having it")
+                .register(meterRegistry);
+        this.published = meterRegistry.counter("medisys.outbox.published");
+        this.abandoned = meterRegistry.counter("medisys.outbox.abandoned");
+    }
+
+    /**
+     * Records the event in the caller's transaction. endDateTime may be null.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(BookingEventType type, Long aggregateId, Long targetId, LocalDateTime startDateTime,
+                       LocalDateTime endDateTime) {
+        BookingOutboxEvent event = new BookingOutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        event.setTargetId(targetId);
+        event.setStartDateTime(startDateTime);
+        event.setEndDateTime(endDateTime);
+        event.setCreatedAt(LocalDateTime.now());
+        outboxRepository.save(event);
+        TransactionHooks.afterCommit(this::wake);
+    }
+
+    private void wake() {
+        if (wakeRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::relay);
+            } catch (RejectedExecutionException e) {
+                // The scheduled pass relays it instead
+                wakeRequested.set(false);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-ms:1000}")
+    public void relay() {
+        if (!relayLock.tryLock()) {
+            // The running pass sees the wake-up flag and goes round again
+            return;
+        }
+        try {
+            int delivered;
+            do {
+                wakeRequested.set(false);
+                delivered = relayBatch();
+            } while (delivered >= batchSize || wakeRequested.get());
+        } catch (DataAccessException e) {
+            logger.warn("Relaying booking events failed, retrying on the next pass", e);
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    // Returns how many events were published, so a full batch means there may be more
+    int relayBatch() {
+        Set<Aggregate> blocked = new HashSet<>();
+        for (BookingOutboxEvent event : outboxRepository.findByPublishedAtIsNullAndAbandonedAtIsNotNull()) {
+            blocked.add(aggregateOf(event));
+        }
+
+        List<Long> settled = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        List<Long> givenUp = new ArrayList<>();
+        long afterId = 0;
+        List<BookingOutboxEvent> page;
+        do {
+            page = outboxRepository.findByPublishedAtIsNullAndAbandonedAtIsNullAndIdGreaterThanOrderById(afterId,
+                    Limit.of(batchSize));
+            if (afterId == 0) {
+                lagSeconds.set(page.isEmpty() ? 0
+                        : Duration.between(page.get(0).getCreatedAt(), LocalDateTime.now()).toSeconds());
+            }
+            for (BookingOutboxEvent event : page) {
+                afterId = event.getId();
+                Aggregate aggregate = aggregateOf(event);
+                if (blocked.contains(aggregate)) {
+                    continue;
+                }
+                if (deliver(event)) {
+                    settled.add(event.getId());
+                    deliveryLag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+                } else if (event.getAttempts() + 1 >= maxAttempts) {
+                    logger.error("Abandoning booking event {} ({} of {} {}) after {} attempts, later events of "
+                            + "that booking are held", event.getId(), event.getEventType(), aggregate.kind(),
+                            aggregate.id(), maxAttempts);
+                    givenUp.add(event.getId());
+                    blocked.add(aggregate);
+                } else {
+                    failed.add(event.getId());
+                    blocked.add(aggregate);
+                }
+            }
+            // A page of nothing but held bookings must not keep the rest waiting
+        } while (page.size() == batchSize && settled.size() < batchSize);
+
+        if (settled.isEmpty() && failed.isEmpty() && givenUp.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!settled.isEmpty()) {
+                outboxRepository.markPublished(settled, LocalDateTime.now());
+            }
+            if (!failed.isEmpty()) {
+                outboxRepository.recordFailedAttempt(failed);
+            }
+            if (!givenUp.isEmpty()) {
+                outboxRepository.markAbandoned(givenUp, LocalDateTime.now());
+            }
+        });
+        published.increment(settled.size());
+        abandoned.increment(givenUp.size());
+        return settled.size();
+    }
+
+    private boolean deliver(BookingOutboxEvent row) {
+        BookingEvent event = new BookingEvent(row.getId(), row.getEventType(), row.getAggregateId(), row.getTargetId(),
+                row.getStartDateTime(), row.getEndDateTime(), row.getCreatedAt());
+        for (BookingEventSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvent(event);
+            } catch (RuntimeException e) {
+                meterRegistry.counter("medisys.outbox.failures", "subscriber", subscriber.getClass().getSimpleName())
+                        .increment();
+                logger.warn("Subscriber {} failed on booking event {}, attempt {}", subscriber.getClass().getSimpleName(),
+                        row.getId(), row.getAttempts() + 1, e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Aggregate aggregateOf(BookingOutboxEvent event) {
+        return new Aggregate(kindOf(event.getEventType()), event.getAggregateId());
+    }
+
+    private static String kindOf(BookingEventType type) {
+        return switch (type) {
+            case APPOINTMENT_BOOKED, APPOINTMENT_UPDATED, APPOINTMENT_CANCELLED -> "appointment";
+            case ROOM_BOOKED, ROOM_CANCELLED -> "room booking";
+            case RESOURCE_BOOKED, RESOURCE_RELEASED -> "resource booking";
+        };
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = outboxRepository.findPublishedBefore(before, Limit.of(batchSize));
+            if (!ids.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(ids);
+                purged += ids.size();
+            }
+        } while (ids.size() == batchSize);
+        logger.info("Purged {} booking events published before {}", purged, before);
+    }
+}
@@ -0,0 +1,292 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.AppointmentRequest;
+import com.MediSys.MediSys.dto.BookedSlot;
+import com.MediSys.MediSys.dto.BulkAppointmentRequest;
+import com.MediSys.MediSys.dto.BulkBookingItemResult;
+import com.MediSys.MediSys.dto.BulkBookingResult;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.dto.RecurrenceRequest;
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.enums.BookingEventType;
+import com.MediSys.MediSys.enums.BulkBookingMode;
+import com.MediSys.MediSys.enums.BulkItemStatus;
+import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.exception.BookingConflictException.Reason;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.model.Patient;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Books many appointments in one transaction: explicit items, a recurring series, or
+ * both. Doctors and patients are loaded once, slots are validated against the cached
+ * schedules, conflicts come from a single range query and the rows are inserted as one
+ * JDBC batch.
+ */
+@Service
+public class BulkAppointmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkAppointmentService.class);
+    static final int MAX_ITEMS = 100;
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorScheduleCache doctorScheduleCache;
+    private final DoctorSlotIndex doctorSlotIndex;
+    private final BookingLockManager bookingLockManager;
+    private final BookingMetrics bookingMetrics;
+    private final AppointmentCalendar appointmentCalendar;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final BookingLifecycle bookingLifecycle;
+    private final BookingOutbox bookingOutbox;
+
+    public BulkAppointmentService(DoctorRepository doctorRepository,
+                                  PatientRepository patientRepository,
+                                  AppointmentRepository appointmentRepository,
+                                  DoctorScheduleCache doctorScheduleCache,
+                                  DoctorSlotIndex doctorSlotIndex,
+                                  BookingLockManager bookingLockManager,
+                                  BookingMetrics bookingMetrics,
+                                  AppointmentCalendar appointmentCalendar,
+                                  AvailabilityBroadcaster availabilityBroadcaster,
+                                  SlotHoldRegistry slotHoldRegistry,
+                                  BookingLifecycle bookingLifecycle,
+                                  BookingOutbox bookingOutbox) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorScheduleCache = doctorScheduleCache;
+        this.doctorSlotIndex = doctorSlotIndex;
+        this.bookingLockManager = bookingLockManager;
+        this.bookingMetrics = bookingMetrics;
+        this.appointmentCalendar = appointmentCalendar;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.bookingLifecycle = bookingLifecycle;
+        this.bookingOutbox = bookingOutbox;
+    }
+
+    @Transactional
+    public BulkBookingResult book(BulkAppointmentRequest request, AuthenticatedUser principal) {
+        List<AppointmentRequest> requested = expand(request);
+        if (!requested.stream().allMatch(item -> principal.mayActForPatient(item.getPatientId()))) {
+            throw new AccessDeniedException("Patients can only book appointments for themselves");
+        }
+        // Every requested slot is locked before the first read, see BookingLockManager
+        List<Object> slotKeys = requested.stream()
+                .map(item -> BookingLockManager.doctorSlot(item.getDoctorId(), item.getAppointmentDateTime()))
+                .toList();
+        return bookingMetrics.recordBooking("bulk", () ->
+                bookingLockManager.executeLocked(slotKeys, () -> bookAll(requested, request.getMode())));
+    }
+
+    private BulkBookingResult bookAll(List<AppointmentRequest> requested, BulkBookingMode mode) {
+        Map<Long, Doctor> doctors = doctorRepository.findAllById(requested.stream()
+                        .map(AppointmentRequest::getDoctorId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        Map<Long, Patient> patients = patientRepository.findAllById(requested.stream()
+                        .map(AppointmentRequest::getPatientId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        List<Item> items = new ArrayList<>(requested.size());
+        Set<Object> slotKeys = new HashSet<>();
+        for (int i = 0; i < requested.size(); i++) {
+            Item item = new Item(i, requested.get(i));
+            validate(item, doctors, patients);
+            if (item.rejection == null && !slotKeys.add(item.slotKey())) {
+                item.reject("DUPLICATE", "The same doctor and time appear more than once in this request");
+            }
+            items.add(item);
+        }
+
+        List<Item> candidates = items.stream().filter(item -> item.rejection == null).toList();
+        if (candidates.isEmpty()) {
+            return result(mode, items);
+        }
+        rejectConflicts(candidates);
+        boolean failed = items.stream().anyMatch(item -> item.rejection != null);
+        if (mode == BulkBookingMode.ALL_OR_NOTHING && failed) {
+            logger.warn("Bulk booking of {} appointments rejected, nothing was booked", items.size());
+            return result(mode, items);
+        }
+        insert(items.stream().filter(item -> item.rejection == null).toList());
+        return result(mode, items);
+    }
+
+    private List<AppointmentRequest> expand(BulkAppointmentRequest request) {
+        List<AppointmentRequest> requested = new ArrayList<>(request.getAppointments());
+        RecurrenceRequest recurrence = request.getRecurrence();
+        if (recurrence != null) {
+            for (int i = 0; i < recurrence.getOccurrences(); i++) {
+                AppointmentRequest occurrence = new AppointmentRequest();
+                occurrence.setDoctorId(recurrence.getDoctorId());
+                occurrence.setPatientId(recurrence.getPatientId());
+                occurrence.setAppointmentDateTime(recurrence.getFirstAppointment()
+                        .plusDays((long) i * recurrence.getIntervalDays()));
+                requested.add(occurrence);
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one appointment or a recurrence is required");
+        }
+        if (requested.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("A bulk booking can contain at most " + MAX_ITEMS + " appointments");
+        }
+        return requested;
+    }
+
+    private void validate(Item item, Map<Long, Doctor> doctors, Map<Long, Patient> patients) {
+        AppointmentRequest request = item.request;
+        Doctor doctor = doctors.get(request.getDoctorId());
+        Patient patient = patients.get(request.getPatientId());
+        LocalDateTime start = request.getAppointmentDateTime();
+        if (doctor == null) {
+            item.reject("DOCTOR_NOT_FOUND", "Doctor not found with ID: " + request.getDoctorId());
+        } else if (!doctor.isActive()) {
+            item.reject(Reason.DOCTOR_INACTIVE.name(), "Doctor is not active");
+        } else if (patient == null) {
+            item.reject("PATIENT_NOT_FOUND", "Patient not found with ID: " + request.getPatientId());
+        } else if (!patient.isActive()) {
+            item.reject(Reason.PATIENT_INACTIVE.name(), "Patient is not active");
+        } else if (start == null) {
+            item.reject("INVALID", "Appointment date and time are required");
+        } else {
+            Optional<DoctorScheduleSummary> schedule =
+                    doctorScheduleCache.getDay(doctor.getId(), start.getDayOfWeek().toString());
+            if (schedule.isEmpty()) {
+                item.reject("NO_SCHEDULE", "No schedule found for doctor on " + start.getDayOfWeek());
+            } else if (!alignsWith(schedule.get(), start)) {
+                item.reject(Reason.OFF_SCHEDULE.name(), "Appointment time does not align with doctor's schedule slots");
+            } else {
+                item.doctor = doctor;
+                item.patient = patient;
+                item.end = start.plusMinutes(schedule.get().getSlotDuration());
+            }
+        }
+    }
+
+    private static boolean alignsWith(DoctorScheduleSummary schedule, LocalDateTime start) {
+        LocalDateTime scheduleStart = start.toLocalDate().atTime(schedule.getStartTime());
+        LocalDateTime scheduleEnd = start.toLocalDate().atTime(schedule.getEndTime());
+        long minutesFromStart = ChronoUnit.MINUTES.between(scheduleStart, start);
+        // Whole minutes only: a start with seconds would take a slot key of its own
+        return start.equals(start.truncatedTo(ChronoUnit.MINUTES)) && minutesFromStart >= 0 && minutesFromStart % schedule.getSlotDuration() == 0
+                && !start.plusMinutes(schedule.getSlotDuration()).isAfter(scheduleEnd);
+    }
+
+    private void rejectConflicts(List<Item> candidates) {
+        LocalDateTime from = candidates.stream().map(item -> item.request.getAppointmentDateTime())
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = candidates.stream().map(item -> item.end).max(Comparator.naturalOrder()).orElseThrow();
+        Set<Long> doctorIds = candidates.stream().map(item -> item.doctor.getId()).collect(Collectors.toSet());
+
+        Map<Long, NavigableSet<LocalDateTime>> booked = new HashMap<>();
+        for (BookedSlot slot : appointmentRepository.findBookedSlots(doctorIds, from, to, AppointmentService.ACTIVE_STATUSES)) {
+            booked.computeIfAbsent(slot.getDoctorId(), id -> new TreeSet<>()).add(slot.getAppointmentDateTime());
+        }
+        for (Item item : candidates) {
+            NavigableSet<LocalDateTime> taken = booked.get(item.doctor.getId());
+            LocalDateTime next = taken == null ? null : taken.ceiling(item.request.getAppointmentDateTime());
+            if (next != null && next.isBefore(item.end)) {
+                item.reject(Reason.SLOT_TAKEN.name(), "Doctor is already booked for the selected time");
+            } else if (slotHoldRegistry.isDoctorSlotHeld(item.doctor.getId(), item.request.getAppointmentDateTime())) {
+                item.reject(Reason.SLOT_HELD.name(), "The selected time is held by another booking in progress");
+            }
+        }
+    }
+
+    private void insert(List<Item> accepted) {
+        List<Appointment> appointments = new ArrayList<>(accepted.size());
+        for (Item item : accepted) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(item.doctor);
+            appointment.setPatient(item.patient);
+            appointment.setAppointmentDateTime(item.request.getAppointmentDateTime());
+            appointment.setStatus(AppointmentStatus.SCHEDULED);
+            appointments.add(appointment);
+        }
+        try {
+            appointmentRepository.saveAllAndFlush(appointments);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Bulk booking of {} appointments lost a slot to a concurrent booking", appointments.size());
+            throw new BookingConflictException(Reason.SLOT_TAKEN, "One of the requested slots was taken concurrently");
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            Item item = accepted.get(i);
+            item.appointmentId = appointments.get(i).getId();
+            doctorSlotIndex.markBooked(item.doctor.getId(), item.request.getAppointmentDateTime());
+            availabilityBroadcaster.doctorSlotTaken(item.doctor.getId(), item.request.getAppointmentDateTime());
+            bookingLifecycle.scheduled(BookingLifecycle.Kind.APPOINTMENT, item.appointmentId, item.end);
+            bookingOutbox.append(BookingEventType.APPOINTMENT_BOOKED, item.appointmentId, item.doctor.getId(),
+                    item.request.getAppointmentDateTime(), null);
+        }
+        appointmentCalendar.bookedAll(appointments);
+        logger.info("Bulk booked {} appointments", appointments.size());
+    }
+
+    private static BulkBookingResult result(BulkBookingMode mode, List<Item> items) {
+        List<BulkBookingItemResult> results = items.stream().map(Item::toResult).toList();
+        int booked = (int) results.stream().filter(item -> item.getStatus() == BulkItemStatus.BOOKED).count();
+        int rejected = (int) results.stream().filter(item -> item.getStatus() == BulkItemStatus.REJECTED).count();
+        return new BulkBookingResult(mode, booked, rejected, results);
+    }
+
+    private static final class Item {
+        private final int index;
+        private final AppointmentRequest request;
+        private Doctor doctor;
+        private Patient patient;
+        private LocalDateTime end;
+        private String rejection;
+        private String message;
+        private Long appointmentId;
+
+        Item(int index, AppointmentRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        Object slotKey() {
+            return BookingLockManager.doctorSlot(request.getDoctorId(), request.getAppointmentDateTime());
+        }
+
+        void reject(String reason, String message) {
+            this.rejection = reason;
+            this.message = message;
+        }
+
+        BulkBookingItemResult toResult() {
+            BulkItemStatus status = rejection != null ? BulkItemStatus.REJECTED
+                    : appointmentId != null ? BulkItemStatus.BOOKED : BulkItemStatus.NOT_BOOKED;
+            return new BulkBookingItemResult(index, request.getDoctorId(), request.getPatientId(),
+                    request.getAppointmentDateTime(), status, appointmentId, rejection, message);
+        }
+    }
+}
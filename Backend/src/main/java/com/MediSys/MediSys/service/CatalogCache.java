@@ -0,0 +1,98 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.enums.Catalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON for the public catalog listings, so a hit is a byte copy with no query
+ * and no Jackson work. Entries expire after a TTL and are dropped when the services
+ * change a catalog. A load that overlaps an invalidation is returned but not cached,
+ * so a commit can never be hidden behind a page read just before it.
+ */
+@Component
+public class CatalogCache {
+
+    private record Key(Catalog catalog, String variant) {
+    }
+
+    private final Cache<Key, byte[]> cache;
+    private final ObjectMapper objectMapper;
+    private final Map<Catalog, AtomicLong> generations = new EnumMap<>(Catalog.class);
+    private final Map<Catalog, Counter> hits = new EnumMap<>(Catalog.class);
+    private final Map<Catalog, Counter> misses = new EnumMap<>(Catalog.class);
+
+    public CatalogCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                        @Value("${catalog.cache.max-entries:1000}") long maxEntries,
+                        @Value("${catalog.cache.ttl:5m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        for (Catalog catalog : Catalog.values()) {
+            String name = catalog.name().toLowerCase(Locale.ROOT);
+            generations.put(catalog, new AtomicLong());
+            hits.put(catalog, meterRegistry.counter("medisys.catalog.cache", "catalog", name, "result", "hit"));
+            misses.put(catalog, meterRegistry.counter("medisys.catalog.cache", "catalog", name, "result", "miss"));
+        }
+    }
+
+    /**
+     * Returns the cached JSON for the variant, loading it on a miss. A null variant is
+     * loaded and serialized every time and never cached.
+     */
+    public byte[] get(Catalog catalog, String variant, Supplier<?> loader) {
+        if (variant == null) {
+            return serialize(catalog, loader);
+        }
+        Key key = new Key(catalog, variant);
+        byte[] json = cache.getIfPresent(key);
+        if (json != null) {
+            hits.get(catalog).increment();
+            return json;
+        }
+        misses.get(catalog).increment();
+        long generation = generations.get(catalog).get();
+        json = serialize(catalog, loader);
+        if (generations.get(catalog).get() == generation) {
+            cache.put(key, json);
+            // An invalidation may have slipped in between the check and the put
+            if (generations.get(catalog).get() != generation) {
+                cache.invalidate(key);
+            }
+        }
+        return json;
+    }
+
+    private byte[] serialize(Catalog catalog, Supplier<?> loader) {
+        try {
+            return objectMapper.writeValueAsBytes(loader.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + catalog + " catalog", e);
+        }
+    }
+
+    /**
+     * Drops every cached page of the catalog once the current transaction commits.
+     */
+    public void invalidate(Catalog catalog) {
+        TransactionHooks.afterCommit(() -> {
+            generations.get(catalog).incrementAndGet();
+            cache.asMap().keySet().removeIf(key -> key.catalog() == catalog);
+        });
+    }
+}
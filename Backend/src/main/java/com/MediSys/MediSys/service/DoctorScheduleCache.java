@@ -0,0 +1,53 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.exception.ResourceNotFoundException;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class DoctorScheduleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorScheduleCache.class);
+
+    private final DoctorScheduleRepository doctorScheduleRepository;
+    private final DoctorRepository doctorRepository;
+
+    private final LoadingMap<Long, List<DoctorScheduleSummary>> weeks = new LoadingMap<>();
+
+    public DoctorScheduleCache(DoctorScheduleRepository doctorScheduleRepository, DoctorRepository doctorRepository) {
+        this.doctorScheduleRepository = doctorScheduleRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    public List<DoctorScheduleSummary> getWeek(Long doctorId) {
+        return weeks.get(doctorId, this::load);
+    }
+
+    public Optional<DoctorScheduleSummary> getDay(Long doctorId, String dayOfWeek) {
+        return getWeek(doctorId).stream()
+                .filter(day -> day.getDayOfWeek().equals(dayOfWeek))
+                .findFirst();
+    }
+
+    // Removing also drops an in-flight load of the same doctor, so a load that read the
+    // schedule before the commit cannot survive the eviction.
+    public void evict(Long doctorId) {
+        TransactionHooks.afterCommit(() -> weeks.remove(doctorId));
+    }
+
+    private List<DoctorScheduleSummary> load(Long doctorId) {
+        List<DoctorScheduleSummary> week = doctorScheduleRepository.findSummariesByDoctorId(doctorId);
+        if (week.isEmpty() && !doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
+        }
+        logger.info("Cached {} schedule days for doctor {}", week.size(), doctorId);
+        return List.copyOf(week);
+    }
+}
@@ -1,11 +1,16 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.dto.CursorPage;
 import com.MediSys.MediSys.dto.DoctorScheduleDto;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.dto.PageQuery;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.Doctor;
 import com.MediSys.MediSys.model.DoctorSchedule;
 import com.MediSys.MediSys.repository.DoctorRepository;
 import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -20,10 +25,18 @@ public class DoctorScheduleService {
 
     private final DoctorScheduleRepository doctorScheduleRepository;
     private final DoctorRepository doctorRepository;
+    private final DoctorSlotIndex doctorSlotIndex;
+    private final DoctorScheduleCache doctorScheduleCache;
+    private final KeysetPager keysetPager;
 
-    public DoctorScheduleService(DoctorScheduleRepository doctorScheduleRepository, DoctorRepository doctorRepository) {
+    public DoctorScheduleService(DoctorScheduleRepository doctorScheduleRepository, DoctorRepository doctorRepository,
+                                 DoctorSlotIndex doctorSlotIndex, DoctorScheduleCache doctorScheduleCache,
+                                 KeysetPager keysetPager) {
         this.doctorScheduleRepository = doctorScheduleRepository;
         this.doctorRepository = doctorRepository;
+        this.doctorSlotIndex = doctorSlotIndex;
+        this.doctorScheduleCache = doctorScheduleCache;
+        this.keysetPager = keysetPager;
     }
 
     @Transactional
@@ -48,6 +61,8 @@ public class DoctorScheduleService {
         schedule.setSlotDuration(dto.getSlotDuration());
 
         DoctorSchedule savedSchedule = doctorScheduleRepository.save(schedule);
+        doctorSlotIndex.evictDoctor(doctor.getId());
+        doctorScheduleCache.evict(doctor.getId());
         logger.info("Schedule created successfully: {}", savedSchedule.getId());
         return savedSchedule;
     }
@@ -59,12 +74,8 @@ public class DoctorScheduleService {
         return schedule;
     }
 
-    public List<DoctorSchedule> getSchedulesByDoctorId(Long doctorId) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
-        List<DoctorSchedule> schedules = doctorScheduleRepository.findAll().stream()
-                .filter(schedule -> schedule.getDoctor().getId().equals(doctorId))
-                .toList();
+    public List<DoctorScheduleSummary> getSchedulesByDoctorId(Long doctorId) {
+        List<DoctorScheduleSummary> schedules = doctorScheduleCache.getWeek(doctorId);
         logger.info("Retrieved {} schedules for doctor {}", schedules.size(), doctorId);
         return schedules;
     }
@@ -87,6 +98,8 @@ public class DoctorScheduleService {
             throw new IllegalArgumentException("Start time must be before end time");
         }
 
+        doctorSlotIndex.evictDoctor(schedule.getDoctor().getId());
+        doctorScheduleCache.evict(schedule.getDoctor().getId());
         schedule.setDoctor(doctor);
         schedule.setDayOfWeek(dto.getDayOfWeek());
         schedule.setStartTime(dto.getStartTime());
@@ -94,21 +107,26 @@ public class DoctorScheduleService {
         schedule.setSlotDuration(dto.getSlotDuration());
 
         DoctorSchedule updatedSchedule = doctorScheduleRepository.save(schedule);
+        doctorSlotIndex.evictDoctor(doctor.getId());
+        doctorScheduleCache.evict(doctor.getId());
         logger.info("Schedule updated successfully: {}", id);
         return updatedSchedule;
     }
 
     @Transactional
     public void deleteSchedule(Long id) {
-        if (!doctorScheduleRepository.existsById(id)) {
+        DoctorSchedule schedule = doctorScheduleRepository.findById(id).orElse(null);
+        if (schedule == null) {
             logger.warn("Attempt to delete non-existent schedule: {}", id);
             throw new ResourceNotFoundException("Schedule not found with ID: " + id);
         }
         doctorScheduleRepository.deleteById(id);
+        doctorSlotIndex.evictDoctor(schedule.getDoctor().getId());
+        doctorScheduleCache.evict(schedule.getDoctor().getId());
         logger.info("Schedule deleted successfully: {}", id);
     }
 
-    public List<DoctorSchedule> getAllSchedules() {
-        return doctorScheduleRepository.findAll();
+    public CursorPage<DoctorScheduleSummary> getAllSchedules(PageQuery pageQuery) {
+        return keysetPager.fetch(Listings.DOCTOR_SCHEDULES, pageQuery);
     }
 }
\ No newline at end of file
@@ -1,18 +1,21 @@
 package com.MediSys.MediSys.service;
 
 import com.MediSys.MediSys.auth.dto.RegisterDoctorDto;
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.DoctorSummary;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.enums.Catalog;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.Doctor;
 import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -23,9 +26,17 @@ public class DoctorService {
     private DoctorRepository doctorRepository;
     @Autowired
     private final FileStorageService fileStorageService;
+    private final DoctorSlotIndex doctorSlotIndex;
+    private final DoctorScheduleCache doctorScheduleCache;
+    private final CatalogCache catalogCache;
+    private final KeysetPager keysetPager;
 
-    public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+    public CursorPage<DoctorSummary> getAllDoctors(PageQuery pageQuery) {
+        return keysetPager.fetch(Listings.DOCTORS, pageQuery);
+    }
+
+    public String pageCacheKey(PageQuery pageQuery) {
+        return keysetPager.cacheKey(Listings.DOCTORS, pageQuery);
     }
 
     public Optional<Doctor> getDoctorById(Long id) {
@@ -46,18 +57,14 @@ public class DoctorService {
         doctor.setGender(dto.getGender());
 
         if (image != null && !image.isEmpty()) {
-            if (doctor.getImageUrl() != null) {
-                try {
-                    Files.deleteIfExists(Paths.get("uploads/" + doctor.getImageUrl().substring("/uploads/".length())));
-                } catch (Exception e) {
-                    throw new RuntimeException("Error deleting image " + doctor.getImageUrl());
-                }
-            }
+            fileStorageService.deleteFile(doctor.getImageUrl());
             String imageUrl = fileStorageService.storeFile(image);
             doctor.setImageUrl(imageUrl);
         }
 
         Doctor updatedDoctor = doctorRepository.save(doctor);
+        doctorScheduleCache.evict(id);
+        catalogCache.invalidate(Catalog.DOCTORS);
         return updatedDoctor;
     }
 
@@ -66,14 +73,11 @@ public class DoctorService {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + id));
 
-        if (doctor.getImageUrl() != null) {
-            try {
-                Files.deleteIfExists(Paths.get("uploads/" + doctor.getImageUrl().substring("/uploads/".length())));
-            } catch (Exception e) {
-            }
-        }
-
         doctorRepository.deleteById(id);
+        fileStorageService.deleteFile(doctor.getImageUrl());
+        doctorSlotIndex.evictDoctor(id);
+        doctorScheduleCache.evict(id);
+        catalogCache.invalidate(Catalog.DOCTORS);
     }
 }
 
@@ -0,0 +1,102 @@
+package com.MediSys.MediSys.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Component
+public class DoctorSlotIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorSlotIndex.class);
+
+    private final LoadingMap<SlotKey, DaySlots> days = new LoadingMap<>();
+
+    public DaySlots getOrLoad(Long doctorId, LocalDate date, Supplier<DaySlots> loader) {
+        return days.get(new SlotKey(doctorId, date), key -> loader.get());
+    }
+
+    public void markBooked(Long doctorId, LocalDateTime slot) {
+        TransactionHooks.afterCommit(() -> update(doctorId, slot, true));
+    }
+
+    public void markFree(Long doctorId, LocalDateTime slot) {
+        TransactionHooks.afterCommit(() -> update(doctorId, slot, false));
+    }
+
+    public void evictDoctor(Long doctorId) {
+        TransactionHooks.afterCommit(() -> days.removeIf(key -> key.doctorId().equals(doctorId)));
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.removeIf(key -> key.date().isBefore(today));
+        logger.info("Slot index holds {} doctor days after eviction", days.size());
+    }
+
+    private void update(Long doctorId, LocalDateTime slot, boolean booked) {
+        days.ifPresent(new SlotKey(doctorId, slot.toLocalDate()), day -> day.mark(slot.toLocalTime(), booked));
+    }
+
+    private record SlotKey(Long doctorId, LocalDate date) {
+    }
+
+    public static final class DaySlots {
+        private final LocalDate date;
+        private final LocalTime startTime;
+        private final int slotDuration;
+        private final int slotCount;
+        private final BitSet booked;
+
+        public DaySlots(LocalDate date, LocalTime startTime, LocalTime endTime, int slotDuration,
+                        Collection<LocalDateTime> bookedSlots) {
+            this.date = date;
+            this.startTime = startTime;
+            this.slotDuration = slotDuration;
+            long minutes = ChronoUnit.MINUTES.between(startTime, endTime);
+            this.slotCount = (int) ((minutes + slotDuration - 1) / slotDuration);
+            this.booked = new BitSet(slotCount);
+            for (LocalDateTime slot : bookedSlots) {
+                mark(slot.toLocalTime(), true);
+            }
+        }
+
+        public synchronized List<LocalDateTime> freeSlotsAfter(LocalDateTime now) {
+            List<LocalDateTime> slots = new ArrayList<>();
+            for (int i = booked.nextClearBit(0); i < slotCount; i = booked.nextClearBit(i + 1)) {
+                LocalDateTime slot = date.atTime(startTime).plusMinutes((long) i * slotDuration);
+                if (slot.isAfter(now)) {
+                    slots.add(slot);
+                }
+            }
+            return slots;
+        }
+
+        synchronized void mark(LocalTime time, boolean value) {
+            int position = position(time);
+            if (position >= 0) {
+                booked.set(position, value);
+            }
+        }
+
+        private int position(LocalTime time) {
+            long minutesFromStart = ChronoUnit.MINUTES.between(startTime, time);
+            if (minutesFromStart < 0 || minutesFromStart % slotDuration != 0) {
+                return -1;
+            }
+            long position = minutesFromStart / slotDuration;
+            return position < slotCount ? (int) position : -1;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.ExportQuery;
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.enums.ExportFormat;
+import com.MediSys.MediSys.repository.ExportRepository;
+import com.MediSys.MediSys.repository.ExportRepository.Export;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(ExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Export appointments(ExportQuery query) {
+        validateRange(query);
+        String status = query.getStatus() == null ? null : parse(AppointmentStatus.class, query.getStatus()).name();
+        return exportRepository.appointments(query, status);
+    }
+
+    public Export roomBookings(ExportQuery query) {
+        validateRange(query);
+        String status = query.getStatus() == null ? null : parse(BookingStatus.class, query.getStatus()).name();
+        return exportRepository.roomBookings(query, status);
+    }
+
+    public Export resourceBookings(ExportQuery query) {
+        validateRange(query);
+        String status = query.getStatus() == null ? null : parse(BookingStatus.class, query.getStatus()).name();
+        return exportRepository.resourceBookings(query, status);
+    }
+
+    public long write(Export export, ExportFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long rows;
+        if (format == ExportFormat.NDJSON) {
+            rows = writeNdjson(export, out);
+        } else {
+            rows = writeCsv(export, out);
+        }
+        logger.info("Exported {} {} rows as {} in {} ms", rows, export.name(), format,
+                (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    private long writeCsv(Export export, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", export.columns()));
+        writer.write('\n');
+        long[] written = {0};
+        long rows = exportRepository.stream(export, values -> {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values[i]));
+            }
+            writer.write('\n');
+            if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        });
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(Export export, OutputStream out) throws IOException {
+        List<String> columns = export.columns();
+        // The mapper flushes after every value by default, which would defeat buffering and gzip.
+        ObjectWriter valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            long[] written = {0};
+            long rows = exportRepository.stream(export, values -> {
+                generator.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    generator.writeFieldName(columns.get(i));
+                    valueWriter.writeValue(generator, values[i]);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            });
+            generator.flush();
+            return rows;
+        }
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static void validateRange(ExportQuery query) {
+        if (query.getFrom() != null && query.getTo() != null && !query.getFrom().isBefore(query.getTo())) {
+            throw new IllegalArgumentException("Export range start must be before its end");
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status: " + value);
+        }
+    }
+}
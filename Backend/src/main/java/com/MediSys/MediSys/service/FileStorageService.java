@@ -1,35 +1,180 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.enums.ImageVariant;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.HospitalRoomRepository;
+import com.MediSys.MediSys.storage.StorageBackend;
+import com.MediSys.MediSys.storage.StorageBackend.StoredObject;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.regex.Pattern;
 
+/**
+ * Stores doctor, room and resource images. Uploads are streamed to the storage backend
+ * under their content hash, so re-uploading the same picture costs no extra disk; the
+ * thumbnail and medium variants are generated on the storage executor once the owning
+ * transaction commits.
+ *
+ * <p>Files are never deleted straight away. Every stored or released file becomes a
+ * release candidate, and a sweep deletes candidates that nobody has stored or released
+ * for the grace period and that no doctor, room or resource refers to. An upload that
+ * shares content with a just-released picture, or whose transaction rolled back, is
+ * settled by the same check.
+ */
 @Service
 public class FileStorageService {
 
-    private static final String UPLOAD_DIR = "uploads/";
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+    private static final String URL_PREFIX = "/uploads/";
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    private final StorageBackend storageBackend;
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final ThreadPoolTaskExecutor storageTaskExecutor;
+    private final DoctorRepository doctorRepository;
+    private final HospitalRoomRepository hospitalRoomRepository;
+    private final HospitalResourceRepository hospitalResourceRepository;
+    private final Duration releaseGrace;
+    // Storage key -> when it was last stored or released, in epoch millis
+    private final Map<String, Long> releaseCandidates = new ConcurrentHashMap<>();
+
+    public FileStorageService(StorageBackend storageBackend,
+                              ImageVariantGenerator imageVariantGenerator,
+                              DoctorRepository doctorRepository,
+                              HospitalRoomRepository hospitalRoomRepository,
+                              HospitalResourceRepository hospitalResourceRepository,
+                              @Value("${storage.workers:2}") int workers,
+                              @Value("${storage.queue-capacity:200}") int queueCapacity,
+                              @Value("${storage.release-grace:10m}") Duration releaseGrace) {
+        this.storageBackend = storageBackend;
+        this.imageVariantGenerator = imageVariantGenerator;
+        this.doctorRepository = doctorRepository;
+        this.hospitalRoomRepository = hospitalRoomRepository;
+        this.hospitalResourceRepository = hospitalResourceRepository;
+        this.releaseGrace = releaseGrace;
+        this.storageTaskExecutor = storageExecutor(workers, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        storageTaskExecutor.shutdown();
+    }
 
     public String storeFile(MultipartFile file) {
-        try {
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path filePath = Paths.get(UPLOAD_DIR + fileName);
-            Files.write(filePath, file.getBytes());
-            return "/uploads/" + fileName;
-        } catch (Exception e) {
+        StoredObject first = store(file);
+        // A sweep that deleted shared content before this touch is caught by the exists check
+        touch(first.key());
+        StoredObject stored = storageBackend.exists(first.key()) ? first : store(file);
+        logger.info("Stored upload {} ({} bytes{})", stored.key(), stored.size(),
+                stored.deduplicated() ? ", deduplicated" : "");
+        TransactionHooks.afterCommit(() -> storageTaskExecutor.execute(() -> generateVariants(stored.key())));
+        return URL_PREFIX + stored.key();
+    }
+
+    /**
+     * Releases a stored file. Content is shared between identical uploads, so the file and
+     * its variants are only deleted by the sweep, once no doctor, room or resource refers
+     * to it any more.
+     */
+    public void deleteFile(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(URL_PREFIX)) {
+            return;
+        }
+        touch(fileUrl.substring(URL_PREFIX.length()));
+    }
+
+    @Scheduled(fixedDelayString = "${storage.release-sweep-ms:60000}")
+    public void sweepReleased() {
+        long cutoff = System.currentTimeMillis() - releaseGrace.toMillis();
+        for (Map.Entry<String, Long> candidate : releaseCandidates.entrySet()) {
+            if (candidate.getValue() > cutoff) {
+                continue;
+            }
+            // Runs under the map's lock for the key, so a concurrent touch either lands
+            // first and keeps the file or waits until the delete is done
+            releaseCandidates.computeIfPresent(candidate.getKey(),
+                    (key, touched) -> touched > cutoff ? touched : deleteIfUnreferenced(key));
+        }
+    }
+
+    private StoredObject store(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            return storageBackend.store(content, extension(file.getOriginalFilename()));
+        } catch (IOException e) {
             throw new RuntimeException("Failed to store file", e);
         }
     }
-    public void deleteFile(String filePath) {
-        if (filePath != null && !filePath.isEmpty()) {
-            try {
-                Files.deleteIfExists(Paths.get(filePath.replace("/uploads/", UPLOAD_DIR)));
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to delete file: " + filePath, e);
+
+    private void touch(String key) {
+        releaseCandidates.put(key, System.currentTimeMillis());
+    }
+
+    private void generateVariants(String key) {
+        try {
+            imageVariantGenerator.generate(key);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to generate image variants for {}", key, e);
+        }
+    }
+
+    // Settles the candidate once its references are known; a failed file delete is logged, not retried
+    private Long deleteIfUnreferenced(String key) {
+        String fileUrl = URL_PREFIX + key;
+        if (doctorRepository.existsByImageUrl(fileUrl) || hospitalRoomRepository.existsByRoomPicture(fileUrl)
+                || hospitalResourceRepository.existsByImage(fileUrl)) {
+            logger.debug("Keeping {}, still referenced", fileUrl);
+            return null;
+        }
+        try {
+            storageBackend.delete(key);
+            storageBackend.delete(ImageVariantGenerator.gzipKey(key));
+            for (ImageVariant variant : ImageVariant.values()) {
+                storageBackend.delete(ImageVariantGenerator.variantKey(key, variant));
             }
+            logger.info("Deleted stored file {}", key);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to delete stored file {}", key, e);
+        }
+        return null;
+    }
+
+    /**
+     * Image resizing is CPU bound, so it gets a small pool of its own rather than an
+     * Executor bean, which would make Boot back off from the shared application executor.
+     * When the queue is full the committing request thread does the work.
+     */
+    private static ThreadPoolTaskExecutor storageExecutor(int workers, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("storage-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    private static String extension(String fileName) {
+        if (fileName == null || fileName.lastIndexOf('.') < 0) {
+            return "";
         }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "";
     }
-}
\ No newline at end of file
+}
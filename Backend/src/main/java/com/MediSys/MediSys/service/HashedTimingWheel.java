@@ -0,0 +1,71 @@
+package com.MediSys.MediSys.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a timeout goes into the bucket its deadline tick hashes to and
+ * each advance only visits the buckets for the ticks that passed, so scheduling is O(1)
+ * and expiry cost is proportional to the timeouts due, not to all pending ones.
+ * Deadlines more than one turn away share a bucket with nearer ones and are skipped
+ * until their tick comes round. Timeouts never fire early and at most one tick late.
+ */
+final class HashedTimingWheel<T> {
+
+    private record Timeout<T>(T item, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final List<List<Timeout<T>>> buckets;
+    private final int mask;
+    private long nextTick;
+    private int size;
+
+    HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.nextTick = Math.floorDiv(startMillis, tickMillis) + 1;
+    }
+
+    synchronized void schedule(T item, long deadlineMillis) {
+        long tick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), nextTick);
+        buckets.get((int) (tick & mask)).add(new Timeout<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel up to the given time and returns the items whose deadline has
+     * passed. After a long pause every bucket is visited once rather than once per
+     * missed tick.
+     */
+    synchronized List<T> advance(long nowMillis) {
+        long currentTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> due = new ArrayList<>();
+        long lastTick = Math.min(currentTick, nextTick + mask);
+        for (long tick = nextTick; tick <= lastTick; tick++) {
+            Iterator<Timeout<T>> bucket = buckets.get((int) (tick & mask)).iterator();
+            while (bucket.hasNext()) {
+                Timeout<T> timeout = bucket.next();
+                if (timeout.deadlineTick() <= currentTick) {
+                    bucket.remove();
+                    size--;
+                    due.add(timeout.item());
+                }
+            }
+        }
+        nextTick = Math.max(nextTick, currentTick + 1);
+        return due;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -1,27 +1,39 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.dto.CursorPage;
 import com.MediSys.MediSys.dto.HospitalResourceDto;
+import com.MediSys.MediSys.dto.HospitalResourceSummary;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.enums.Catalog;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.HospitalResource;
 import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-
 @Service
 public class HospitalResourceService {
     private static final Logger logger = LoggerFactory.getLogger(HospitalResourceService.class);
 
     private final HospitalResourceRepository hospitalResourceRepository;
     private final FileStorageService fileStorageService;
+    private final ResourceCapacityLedger resourceCapacityLedger;
+    private final CatalogCache catalogCache;
+    private final KeysetPager keysetPager;
 
-    public HospitalResourceService(HospitalResourceRepository hospitalResourceRepository, FileStorageService fileStorageService) {
+    public HospitalResourceService(HospitalResourceRepository hospitalResourceRepository, FileStorageService fileStorageService,
+                                   ResourceCapacityLedger resourceCapacityLedger, CatalogCache catalogCache,
+                                   KeysetPager keysetPager) {
         this.hospitalResourceRepository = hospitalResourceRepository;
         this.fileStorageService = fileStorageService;
+        this.resourceCapacityLedger = resourceCapacityLedger;
+        this.catalogCache = catalogCache;
+        this.keysetPager = keysetPager;
     }
 
     @Transactional
@@ -43,6 +55,8 @@ public class HospitalResourceService {
         }
 
         HospitalResource savedResource = hospitalResourceRepository.save(resource);
+        resourceCapacityLedger.setCapacity(savedResource.getId(), savedResource.getQuantity());
+        catalogCache.invalidate(Catalog.RESOURCES);
         logger.info("Resource created successfully: {}", savedResource.getId());
         return savedResource;
     }
@@ -54,10 +68,12 @@ public class HospitalResourceService {
         return resource;
     }
 
-    public List<HospitalResource> getAllResources() {
-        List<HospitalResource> resources = hospitalResourceRepository.findAll();
-        logger.info("Retrieved {} resources", resources.size());
-        return resources;
+    public CursorPage<HospitalResourceSummary> getAllResources(PageQuery pageQuery) {
+        return keysetPager.fetch(Listings.RESOURCES, pageQuery);
+    }
+
+    public String pageCacheKey(PageQuery pageQuery) {
+        return keysetPager.cacheKey(Listings.RESOURCES, pageQuery);
     }
 
     @Transactional
@@ -83,17 +99,22 @@ public class HospitalResourceService {
         }
 
         HospitalResource updatedResource = hospitalResourceRepository.save(existingResource);
+        resourceCapacityLedger.setCapacity(id, updatedResource.getQuantity());
+        catalogCache.invalidate(Catalog.RESOURCES);
         logger.info("Resource updated successfully: {}", id);
         return updatedResource;
     }
 
     @Transactional
     public void deleteResource(Long id) {
-        if (!hospitalResourceRepository.existsById(id)) {
+        HospitalResource resource = hospitalResourceRepository.findById(id).orElseThrow(() -> {
             logger.warn("Attempt to delete non-existent resource: {}", id);
-            throw new ResourceNotFoundException("Resource not found with ID: " + id);
-        }
-        hospitalResourceRepository.deleteById(id);
+            return new ResourceNotFoundException("Resource not found with ID: " + id);
+        });
+        hospitalResourceRepository.delete(resource);
+        fileStorageService.deleteFile(resource.getImage());
+        resourceCapacityLedger.removeResource(id);
+        catalogCache.invalidate(Catalog.RESOURCES);
         logger.info("Resource deleted successfully: {}", id);
     }
 }
\ No newline at end of file
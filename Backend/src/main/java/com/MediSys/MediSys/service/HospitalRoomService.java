@@ -1,29 +1,39 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.dto.CursorPage;
 import com.MediSys.MediSys.dto.HospitalRoomDto;
+import com.MediSys.MediSys.dto.HospitalRoomSummary;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.enums.Catalog;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.HospitalRoom;
 import com.MediSys.MediSys.repository.HospitalRoomRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.List;
-
 @Service
 public class HospitalRoomService {
     private static final Logger logger = LoggerFactory.getLogger(HospitalRoomService.class);
 
     private final HospitalRoomRepository hospitalRoomRepository;
     private final FileStorageService fileStorageService;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final CatalogCache catalogCache;
+    private final KeysetPager keysetPager;
 
-    public HospitalRoomService(HospitalRoomRepository hospitalRoomRepository, FileStorageService fileStorageService, FileStorageService fileStorageService1) {
+    public HospitalRoomService(HospitalRoomRepository hospitalRoomRepository, FileStorageService fileStorageService,
+                               BookingAvailabilityIndex bookingAvailabilityIndex, CatalogCache catalogCache,
+                               KeysetPager keysetPager) {
         this.hospitalRoomRepository = hospitalRoomRepository;
-        this.fileStorageService = fileStorageService1;
+        this.fileStorageService = fileStorageService;
+        this.bookingAvailabilityIndex = bookingAvailabilityIndex;
+        this.catalogCache = catalogCache;
+        this.keysetPager = keysetPager;
     }
 
     @Transactional
@@ -44,6 +54,8 @@ public class HospitalRoomService {
             room.setRoomPicture(imagePath);
         }
         HospitalRoom savedRoom = hospitalRoomRepository.save(room);
+        bookingAvailabilityIndex.registerRoom(savedRoom.getId());
+        catalogCache.invalidate(Catalog.ROOMS);
         logger.info("Room created successfully: {}", savedRoom.getId());
         return savedRoom;
     }
@@ -55,10 +67,12 @@ public class HospitalRoomService {
         return room;
     }
 
-    public List<HospitalRoom> getAllRooms() {
-        List<HospitalRoom> rooms = hospitalRoomRepository.findAll();
-        logger.info("Retrieved {} rooms", rooms.size());
-        return rooms;
+    public CursorPage<HospitalRoomSummary> getAllRooms(PageQuery pageQuery) {
+        return keysetPager.fetch(Listings.ROOMS, pageQuery);
+    }
+
+    public String pageCacheKey(PageQuery pageQuery) {
+        return keysetPager.cacheKey(Listings.ROOMS, pageQuery);
     }
 
     @Transactional
@@ -77,29 +91,27 @@ public class HospitalRoomService {
         room.setPrice(dto.getPrice());
 
         if (image != null && !image.isEmpty()) {
-            if (room.getRoomPicture() != null) {
-                try {
-                    Files.deleteIfExists(Paths.get("uploads/" + room.getRoomPicture().substring("/uploads/".length())));
-                } catch (Exception e) {
-                    throw new RuntimeException("Error deleting image " + room.getRoomPicture());
-                }
-            }
+            fileStorageService.deleteFile(room.getRoomPicture());
             String imageUrl = fileStorageService.storeFile(image);
             room.setRoomPicture(imageUrl);
         }
 
         HospitalRoom updatedRoom = hospitalRoomRepository.save(room);
+        catalogCache.invalidate(Catalog.ROOMS);
         logger.info("Room updated successfully: {}", id);
         return updatedRoom;
     }
 
     @Transactional
     public void deleteRoom(Long id) {
-        if (!hospitalRoomRepository.existsById(id)) {
+        HospitalRoom room = hospitalRoomRepository.findById(id).orElseThrow(() -> {
             logger.warn("Attempt to delete non-existent room: {}", id);
-            throw new ResourceNotFoundException("Room not found with ID: " + id);
-        }
-        hospitalRoomRepository.deleteById(id);
+            return new ResourceNotFoundException("Room not found with ID: " + id);
+        });
+        hospitalRoomRepository.delete(room);
+        fileStorageService.deleteFile(room.getRoomPicture());
+        bookingAvailabilityIndex.removeRoom(id);
+        catalogCache.invalidate(Catalog.ROOMS);
         logger.info("Room deleted successfully: {}", id);
     }
 }
\ No newline at end of file
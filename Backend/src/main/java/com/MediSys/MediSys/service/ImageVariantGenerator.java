@@ -0,0 +1,130 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.enums.ImageVariant;
+import com.MediSys.MediSys.storage.StorageBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ImageVariantGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantGenerator.class);
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final Set<String> COMPRESSIBLE = Set.of("svg", "bmp");
+
+    private final StorageBackend storageBackend;
+
+    public ImageVariantGenerator(StorageBackend storageBackend) {
+        this.storageBackend = storageBackend;
+    }
+
+    public static String variantKey(String key, ImageVariant variant) {
+        int dot = key.lastIndexOf('.');
+        String base = dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+        return base + "_" + variant.getSuffix() + ".jpg";
+    }
+
+    public static String gzipKey(String key) {
+        return key + ".gz";
+    }
+
+    /**
+     * Writes every missing variant of the stored image. Content that is not a readable
+     * image, or whose dimensions would take too much memory to decode, is skipped.
+     * Uncompressed formats also get a gzip copy that the uploads handler serves to clients
+     * accepting it.
+     */
+    public void generate(String key) throws IOException {
+        if (isCompressible(key) && !storageBackend.exists(gzipKey(key))) {
+            storageBackend.put(gzipKey(key), out -> {
+                try (InputStream in = storageBackend.open(key); GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    in.transferTo(gzip);
+                }
+            });
+        }
+        if (allVariantsExist(key)) {
+            return;
+        }
+        BufferedImage source = read(key);
+        if (source == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        for (ImageVariant variant : ImageVariant.values()) {
+            String variantKey = variantKey(key, variant);
+            if (storageBackend.exists(variantKey)) {
+                continue;
+            }
+            BufferedImage scaled = scale(source, variant.getMaxSize());
+            storageBackend.put(variantKey, out -> ImageIO.write(scaled, "jpg", out));
+        }
+        logger.info("Generated image variants for {} in {} ms", key, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static boolean isCompressible(String key) {
+        return COMPRESSIBLE.contains(key.substring(key.lastIndexOf('.') + 1));
+    }
+
+    private boolean allVariantsExist(String key) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!storageBackend.exists(variantKey(key, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private BufferedImage read(String key) throws IOException {
+        try (InputStream in = storageBackend.open(key);
+             ImageInputStream images = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = images == null ? null : ImageIO.getImageReaders(images);
+            if (readers == null || !readers.hasNext()) {
+                logger.debug("Skipping variants for {}, not a supported image", key);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(images, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    logger.warn("Skipping variants for {}, image has {} pixels", key, pixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG has no alpha channel, so transparent areas are flattened onto white
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+}
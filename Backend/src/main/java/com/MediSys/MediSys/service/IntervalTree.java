@@ -0,0 +1,237 @@
+package com.MediSys.MediSys.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * AVL tree of half-open [start, end) intervals ordered by (start, id), each node
+ * augmented with the maximum end in its subtree. Overlap tests are O(log n) and
+ * overlap listings O(log n + k).
+ */
+final class IntervalTree {
+
+    record Interval(long id, long start, long end) {
+    }
+
+    private static final class Node {
+        final Interval interval;
+        Node left;
+        Node right;
+        int height = 1;
+        long maxEnd;
+
+        Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    private int size;
+    private boolean removed;
+
+    void insert(long id, long start, long end) {
+        lock.writeLock().lock();
+        try {
+            root = insert(root, new Node(new Interval(id, start, end)));
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long id, long start) {
+        lock.writeLock().lock();
+        try {
+            removed = false;
+            root = remove(root, id, start);
+            if (removed) {
+                size--;
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int removeEndingBefore(long time) {
+        List<Interval> expired = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            collectEndingBefore(root, time, expired);
+        } finally {
+            lock.readLock().unlock();
+        }
+        expired.forEach(interval -> remove(interval.id(), interval.start()));
+        return expired.size();
+    }
+
+    boolean overlaps(long from, long to) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            while (node != null) {
+                if (node.interval.start() < to && node.interval.end() > from) {
+                    return true;
+                }
+                node = node.left != null && node.left.maxEnd > from ? node.left : node.right;
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Interval> overlapping(long from, long to) {
+        List<Interval> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            collectOverlapping(root, from, to, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectOverlapping(Node node, long from, long to, List<Interval> result) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, result);
+        if (node.interval.start() >= to) {
+            return;
+        }
+        if (node.interval.end() > from) {
+            result.add(node.interval);
+        }
+        collectOverlapping(node.right, from, to, result);
+    }
+
+    private void collectEndingBefore(Node node, long time, List<Interval> result) {
+        if (node == null) {
+            return;
+        }
+        collectEndingBefore(node.left, time, result);
+        if (node.interval.end() < time) {
+            result.add(node.interval);
+        }
+        collectEndingBefore(node.right, time, result);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.interval.start(), added.interval.id(), node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, long id, long start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            removed = true;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int cmp = Long.compare(start, node.interval.start());
+        return cmp != 0 ? cmp : Long.compare(id, node.interval.id());
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.interval.end();
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,85 @@
+package com.MediSys.MediSys.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent map that loads each missing key once. Unlike computeIfAbsent, the loader
+ * runs outside the map's bin lock: concurrent callers for the same key park on the
+ * pending future instead of holding a monitor across the database round trip, which
+ * would pin the carrier thread when requests run on virtual threads.
+ */
+final class LoadingMap<K, V> {
+
+    private final Map<K, CompletableFuture<V>> entries = new ConcurrentHashMap<>();
+
+    V get(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> entry = entries.get(key);
+        if (entry == null) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                try {
+                    V value = loader.apply(key);
+                    created.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    entries.remove(key, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return await(entry);
+    }
+
+    /**
+     * Applies the action to the cached value, waiting for an in-flight load of the key
+     * first so an update racing with the initial load is never lost. Keys that are absent
+     * or whose load failed are skipped.
+     */
+    void ifPresent(K key, Consumer<? super V> action) {
+        CompletableFuture<V> entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        V value;
+        try {
+            value = entry.join();
+        } catch (CompletionException e) {
+            return;
+        }
+        action.accept(value);
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    void removeIf(Predicate<? super K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.dto.PatientSummary;
 import com.MediSys.MediSys.model.Patient;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import com.MediSys.MediSys.repository.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -13,9 +17,11 @@ public class PatientService {
 
     @Autowired
     private PatientRepository patientRepository;
+    @Autowired
+    private KeysetPager keysetPager;
 
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    public CursorPage<PatientSummary> getAllPatients(PageQuery pageQuery) {
+        return keysetPager.fetch(Listings.PATIENTS, pageQuery);
     }
 
     public Optional<Patient> getPatientById(Long id) {
@@ -1,122 +1,233 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
 import com.MediSys.MediSys.dto.ResourceBookingRequest;
+import com.MediSys.MediSys.dto.ResourceBookingSummary;
+import com.MediSys.MediSys.dto.SlotHoldDto;
+import com.MediSys.MediSys.dto.TimeSlotDto;
+import com.MediSys.MediSys.enums.BookingEventType;
 import com.MediSys.MediSys.enums.BookingStatus;
 import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.exception.BookingConflictException.Reason;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.Appointment;
 import com.MediSys.MediSys.model.HospitalResource;
-import com.MediSys.MediSys.model.Patient;
 import com.MediSys.MediSys.model.ResourceBooking;
-import com.MediSys.MediSys.auth.model.User;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
 import com.MediSys.MediSys.repository.AppointmentRepository;
 import com.MediSys.MediSys.repository.HospitalResourceRepository;
-import com.MediSys.MediSys.repository.PatientRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import com.MediSys.MediSys.repository.ResourceBookingRepository;
-import com.MediSys.MediSys.auth.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
 
 @Service
 public class ResourceBookingService {
     private static final Logger logger = LoggerFactory.getLogger(ResourceBookingService.class);
+    // The ledger keeps a counter per slice, so a window's cost grows with its length
+    private static final int MAX_WINDOW_DAYS = 366;
 
     private final ResourceBookingRepository resourceBookingRepository;
     private final HospitalResourceRepository hospitalResourceRepository;
     private final AppointmentRepository appointmentRepository;
-    private final UserRepository userRepository;
-    private final PatientRepository patientRepository;
+    private final ResourceCapacityLedger resourceCapacityLedger;
+    private final KeysetPager keysetPager;
+    private final BookingMetrics bookingMetrics;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final BookingLifecycle bookingLifecycle;
+    private final BookingOutbox bookingOutbox;
 
     public ResourceBookingService(ResourceBookingRepository resourceBookingRepository,
                                   HospitalResourceRepository hospitalResourceRepository,
                                   AppointmentRepository appointmentRepository,
-                                  UserRepository userRepository,
-                                  PatientRepository patientRepository) {
+                                  ResourceCapacityLedger resourceCapacityLedger,
+                                  KeysetPager keysetPager,
+                                  BookingMetrics bookingMetrics,
+                                  SlotHoldRegistry slotHoldRegistry,
+                                  BookingLifecycle bookingLifecycle,
+                                  BookingOutbox bookingOutbox) {
         this.resourceBookingRepository = resourceBookingRepository;
         this.hospitalResourceRepository = hospitalResourceRepository;
         this.appointmentRepository = appointmentRepository;
-        this.userRepository = userRepository;
-        this.patientRepository = patientRepository;
+        this.resourceCapacityLedger = resourceCapacityLedger;
+        this.keysetPager = keysetPager;
+        this.bookingMetrics = bookingMetrics;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.bookingLifecycle = bookingLifecycle;
+        this.bookingOutbox = bookingOutbox;
     }
 
     @Transactional
-    public ResourceBooking bookResource(ResourceBookingRequest request) {
-        if (request.getStartDateTime() == null || request.getEndDateTime() == null) {
-            throw new IllegalArgumentException("Start and end date times are required");
+    public ResourceBooking bookResource(ResourceBookingRequest request, AuthenticatedUser principal) {
+        return bookingMetrics.recordBooking("resource", () -> {
+            lockResource(request.getResourceId());
+            ResourceBooking booking = newBooking(request, principal);
+            Long resourceId = booking.getResource().getId();
+            if (!resourceCapacityLedger.reserve(resourceId, request.getStartDateTime(), request.getEndDateTime())) {
+                logger.warn("Resource {} has no free units from {} to {}", resourceId, request.getStartDateTime(), request.getEndDateTime());
+                throw new BookingConflictException(Reason.RESOURCE_EXHAUSTED, "No units of this resource are available for the selected time");
+            }
+            requireFreeUnit(booking);
+
+            ResourceBooking savedBooking = resourceBookingRepository.save(booking);
+            bookingLifecycle.scheduled(BookingLifecycle.Kind.RESOURCE, savedBooking.getId(), savedBooking.getEndDateTime());
+            bookingOutbox.append(BookingEventType.RESOURCE_BOOKED, savedBooking.getId(), savedBooking.getResource().getId(),
+                    savedBooking.getStartDateTime(), savedBooking.getEndDateTime());
+            logger.info("Resource booking created successfully: {} by user: {}", savedBooking.getId(), principal.userId());
+            return savedBooking;
+        });
+    }
+
+    /**
+     * Takes a unit of the resource for the caller while they finish booking. The hold is
+     * confirmed with {@link #confirmResourceHold} or lapses after the hold TTL.
+     */
+    public SlotHoldDto holdResource(ResourceBookingRequest request, AuthenticatedUser principal) {
+        return bookingMetrics.recordBooking("resource_hold", () -> {
+            ResourceBooking booking = newBooking(request, principal);
+            return slotHoldRegistry.holdResource(booking.getResource().getId(), request.getStartDateTime(),
+                    request.getEndDateTime(), principal.userId(), request).toDto();
+        });
+    }
+
+    // The unit reserved by the hold passes to the booking, so the ledger is not charged again
+    @Transactional
+    public ResourceBooking confirmResourceHold(UUID holdId, AuthenticatedUser principal) {
+        return bookingMetrics.recordBooking("resource", () -> {
+            SlotHoldRegistry.Hold hold = slotHoldRegistry.find(holdId, SlotHoldRegistry.Kind.RESOURCE, principal.userId());
+            lockResource(hold.targetId());
+            ResourceBooking booking = newBooking((ResourceBookingRequest) hold.request(), principal);
+            if (!slotHoldRegistry.claim(hold)) {
+                throw new ResourceNotFoundException("Hold not found or expired: " + holdId);
+            }
+            requireFreeUnit(booking);
+
+            ResourceBooking savedBooking = resourceBookingRepository.save(booking);
+            bookingLifecycle.scheduled(BookingLifecycle.Kind.RESOURCE, savedBooking.getId(), savedBooking.getEndDateTime());
+            bookingOutbox.append(BookingEventType.RESOURCE_BOOKED, savedBooking.getId(), savedBooking.getResource().getId(),
+                    savedBooking.getStartDateTime(), savedBooking.getEndDateTime());
+            logger.info("Resource booking {} created from hold {} by user: {}", savedBooking.getId(), holdId, principal.userId());
+            return savedBooking;
+        });
+    }
+
+    public void releaseResourceHold(UUID holdId, AuthenticatedUser principal) {
+        slotHoldRegistry.release(holdId, SlotHoldRegistry.Kind.RESOURCE, principal.userId());
+    }
+
+    /**
+     * Locks the resource row for the rest of the booking transaction. It must be the
+     * transaction's first read: under REPEATABLE READ the snapshot is taken at the first
+     * plain read, so taking the lock first lets {@link #requireFreeUnit} see every booking
+     * committed by whoever held the lock before.
+     */
+    private void lockResource(Long resourceId) {
+        hospitalResourceRepository.lockById(resourceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Resource not found with ID: " + resourceId));
+    }
+
+    // The ledger is the fast check; this one counts the committed bookings, so a ledger that
+    // missed a change, or another instance's ledger, cannot oversell the resource
+    private void requireFreeUnit(ResourceBooking booking) {
+        List<TimeSlotDto> overlapping = resourceBookingRepository.findOverlapping(booking.getResource().getId(),
+                BookingStatus.BOOKED, booking.getStartDateTime(), booking.getEndDateTime());
+        if (peakUsage(overlapping) >= booking.getResource().getQuantity()) {
+            logger.warn("Resource {} is fully booked from {} to {} although the ledger had room",
+                    booking.getResource().getId(), booking.getStartDateTime(), booking.getEndDateTime());
+            throw new BookingConflictException(Reason.RESOURCE_EXHAUSTED, "No units of this resource are available for the selected time");
         }
-        if (request.getStartDateTime().isAfter(request.getEndDateTime())) {
-            throw new IllegalArgumentException("Start time must be before end time");
+    }
+
+    // Every booking passed in overlaps the requested window, so their peak lies inside it
+    static int peakUsage(List<TimeSlotDto> bookings) {
+        TreeMap<LocalDateTime, Integer> changes = new TreeMap<>();
+        for (TimeSlotDto booking : bookings) {
+            changes.merge(booking.getStart(), 1, Integer::sum);
+            changes.merge(booking.getEnd(), -1, Integer::sum);
+        }
+        int inUse = 0;
+        int peak = 0;
+        for (int change : changes.values()) {
+            inUse += change;
+            peak = Math.max(peak, inUse);
         }
+        return peak;
+    }
 
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + username));
+    private ResourceBooking newBooking(ResourceBookingRequest request, AuthenticatedUser principal) {
+        if (request.getStartDateTime() == null || request.getEndDateTime() == null) {
+            throw new IllegalArgumentException("Start and end date times are required");
+        }
+        validateWindow(request.getStartDateTime(), request.getEndDateTime());
 
         HospitalResource resource = hospitalResourceRepository.findById(request.getResourceId())
                 .orElseThrow(() -> new ResourceNotFoundException("Resource not found with ID: " + request.getResourceId()));
 
-        if (resource.getQuantity() <= 0) {
-            throw new RuntimeException("Resource is out of stock");
-        }
-        if (!checkResourceAvailability(resource.getId(), request.getStartDateTime(), request.getEndDateTime())) {
-            logger.warn("Resource {} is not available from {} to {}", resource.getId(), request.getStartDateTime(), request.getEndDateTime());
-            throw new RuntimeException("Resource is already booked for the selected time");
+        Appointment appointment = null;
+        if (request.getAppointmentId() != null) {
+            appointment = appointmentRepository.findDetailedById(request.getAppointmentId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + request.getAppointmentId()));
+            if (!principal.mayActForPatient(appointment.getPatient().getId())) {
+                throw new AccessDeniedException("Patients can only book for their own appointments");
+            }
         }
 
-        resource.setQuantity(resource.getQuantity() - 1);
-        hospitalResourceRepository.save(resource);
-
         ResourceBooking booking = new ResourceBooking();
         booking.setResource(resource);
-        booking.setUser(user);
+        booking.setUser(principal.asUser());
         booking.setStartDateTime(request.getStartDateTime());
         booking.setEndDateTime(request.getEndDateTime());
         booking.setStatus(BookingStatus.BOOKED);
-
-        if (request.getAppointmentId() != null) {
-            Appointment appointment = appointmentRepository.findById(request.getAppointmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + request.getAppointmentId()));
-            booking.setAppointment(appointment);
-        }
-
-        ResourceBooking savedBooking = resourceBookingRepository.save(booking);
-        logger.info("Resource booking created successfully: {} by user: {}", savedBooking.getId(), user.getId());
-        return savedBooking;
+        booking.setAppointment(appointment);
+        return booking;
     }
 
-    public List<LocalDateTime> getAvailableResourceSlots(Long resourceId, LocalDateTime start, LocalDateTime end) {
-        HospitalResource resource = hospitalResourceRepository.findById(resourceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Resource not found with ID: " + resourceId));
-
-        List<ResourceBooking> bookings = resourceBookingRepository.findByResourceAndStartDateTimeBetweenAndStatus(resource, start, end, BookingStatus.BOOKED);
-        return bookings.stream().map(ResourceBooking::getStartDateTime).toList();
+    public List<TimeSlotDto> getAvailableResourceSlots(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        validateWindow(start, end);
+        return resourceCapacityLedger.freeSlots(resourceId, start, end);
     }
 
     public boolean checkResourceAvailability(Long resourceId, LocalDateTime start, LocalDateTime end) {
-        HospitalResource resource = hospitalResourceRepository.findById(resourceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Resource not found with ID: " + resourceId));
-        if (resource.getQuantity() <= 0) return false;
-        return resourceBookingRepository.findByResourceAndStartDateTimeBetweenAndStatus(resource, start, end, BookingStatus.BOOKED).isEmpty();
+        validateWindow(start, end);
+        return resourceCapacityLedger.hasCapacity(resourceId, start, end);
+    }
+
+    private static void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (start.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Start time must not be in the past");
+        }
+        if (end.isAfter(start.plusDays(MAX_WINDOW_DAYS))) {
+            throw new IllegalArgumentException("Booking window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
     }
 
-    public List<ResourceBooking> getAllResourceBookings() {
-        return resourceBookingRepository.findAll();
+    public CursorPage<ResourceBookingSummary> getAllResourceBookings(PageQuery pageQuery) {
+        return keysetPager.fetch(Listings.RESOURCE_BOOKINGS, pageQuery);
     }
 
+    @Transactional
     public void cancelResourceBooking(Long id) {
         ResourceBooking booking = resourceBookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Resource booking not found"));
+        if (booking.getStatus() == BookingStatus.BOOKED) {
+            resourceCapacityLedger.release(booking.getResource().getId(), booking.getStartDateTime(), booking.getEndDateTime());
+            bookingOutbox.append(BookingEventType.RESOURCE_RELEASED, id, booking.getResource().getId(),
+                    booking.getStartDateTime(), booking.getEndDateTime());
+        }
         booking.setStatus(BookingStatus.CANCELLED);
-        HospitalResource resource = booking.getResource();
-        resource.setQuantity(resource.getQuantity() + 1);
-        hospitalResourceRepository.save(resource);
         resourceBookingRepository.save(booking);
     }
 }
\ No newline at end of file
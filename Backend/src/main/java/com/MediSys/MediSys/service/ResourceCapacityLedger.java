@@ -0,0 +1,255 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.TimeSlotDto;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.exception.ResourceNotFoundException;
+import com.MediSys.MediSys.model.HospitalResource;
+import com.MediSys.MediSys.model.ResourceBooking;
+import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.ResourceBookingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks how many units of each resource are in use per time slice. A reservation
+ * increments every slice it covers with compare-and-set against the resource's
+ * quantity, so concurrent bookings never oversell and never block each other.
+ * Bookings are rounded out to whole slices, which errs on the side of refusing.
+ */
+@Component
+public class ResourceCapacityLedger implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCapacityLedger.class);
+
+    private final HospitalResourceRepository hospitalResourceRepository;
+    private final ResourceBookingRepository resourceBookingRepository;
+    private final MeterRegistry meterRegistry;
+    private final long sliceSeconds;
+
+    private final Map<Long, Inventory> inventories = new ConcurrentHashMap<>();
+
+    public ResourceCapacityLedger(HospitalResourceRepository hospitalResourceRepository,
+                                  ResourceBookingRepository resourceBookingRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${resource.capacity.slice-minutes:15}") long sliceMinutes) {
+        this.hospitalResourceRepository = hospitalResourceRepository;
+        this.resourceBookingRepository = resourceBookingRepository;
+        this.meterRegistry = meterRegistry;
+        this.sliceSeconds = sliceMinutes * 60;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (HospitalResource resource : hospitalResourceRepository.findAll()) {
+            inventories.put(resource.getId(), newInventory(resource.getId(), resource.getQuantity()));
+        }
+        List<ResourceBooking> bookings = resourceBookingRepository.findByStatusAndEndDateTimeAfter(
+                BookingStatus.BOOKED, LocalDateTime.now());
+        for (ResourceBooking booking : bookings) {
+            Inventory inventory = inventories.get(booking.getResource().getId());
+            if (inventory != null) {
+                inventory.occupy(firstSlice(booking.getStartDateTime()), lastSlice(booking.getEndDateTime()));
+            }
+        }
+        logger.info("Capacity ledger warmed with {} resources and {} active bookings", inventories.size(), bookings.size());
+    }
+
+    public boolean reserve(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        Inventory inventory = inventory(resourceId);
+        long first = firstSlice(start);
+        long last = lastSlice(end);
+        if (!inventory.tryReserve(first, last)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        inventory.release(first, last);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    public void release(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        TransactionHooks.afterCommit(() -> {
+            Inventory inventory = inventories.get(resourceId);
+            if (inventory != null) {
+                inventory.release(firstSlice(start), lastSlice(end));
+            }
+        });
+    }
+
+    public boolean hasCapacity(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        Inventory inventory = inventory(resourceId);
+        return inventory.peakUsage(firstSlice(start), lastSlice(end)) < inventory.capacity.get();
+    }
+
+    public int inUseAt(Long resourceId, LocalDateTime time) {
+        long slice = firstSlice(time);
+        return inventory(resourceId).peakUsage(slice, slice);
+    }
+
+    public List<TimeSlotDto> freeSlots(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        Inventory inventory = inventory(resourceId);
+        int capacity = inventory.capacity.get();
+        List<TimeSlotDto> gaps = new ArrayList<>();
+        LocalDateTime gapStart = null;
+        for (long slice = firstSlice(start); slice <= lastSlice(end); slice++) {
+            LocalDateTime sliceStart = max(start, fromSlice(slice));
+            if (inventory.used(slice) < capacity) {
+                if (gapStart == null) {
+                    gapStart = sliceStart;
+                }
+            } else if (gapStart != null) {
+                gaps.add(new TimeSlotDto(gapStart, sliceStart));
+                gapStart = null;
+            }
+        }
+        if (gapStart != null) {
+            gaps.add(new TimeSlotDto(gapStart, end));
+        }
+        return gaps;
+    }
+
+    public void setCapacity(Long resourceId, int quantity) {
+        TransactionHooks.afterCommit(() -> inventories.computeIfAbsent(resourceId, id -> newInventory(id, quantity))
+                .capacity.set(quantity));
+    }
+
+    public void removeResource(Long resourceId) {
+        TransactionHooks.afterCommit(() -> {
+            Inventory inventory = inventories.remove(resourceId);
+            if (inventory != null) {
+                inventory.meters.forEach(meterRegistry::remove);
+            }
+        });
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void prunePastSlices() {
+        long current = firstSlice(LocalDateTime.now());
+        inventories.values().forEach(inventory -> inventory.slices.keySet().removeIf(slice -> slice < current));
+    }
+
+    private Inventory newInventory(Long resourceId, int quantity) {
+        Inventory inventory = new Inventory(quantity);
+        String tag = String.valueOf(resourceId);
+        inventory.meters = List.of(
+                Gauge.builder("medisys.resource.capacity", inventory, units -> units.capacity.get())
+                        .tag("resource", tag)
+                        .register(meterRegistry),
+                Gauge.builder("medisys.resource.in.use", inventory, units -> units.used(firstSlice(LocalDateTime.now())))
+                        .tag("resource", tag)
+                        .register(meterRegistry));
+        return inventory;
+    }
+
+    private Inventory inventory(Long resourceId) {
+        Inventory inventory = inventories.get(resourceId);
+        if (inventory == null) {
+            throw new ResourceNotFoundException("Resource not found with ID: " + resourceId);
+        }
+        return inventory;
+    }
+
+    private long firstSlice(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), sliceSeconds);
+    }
+
+    private long lastSlice(LocalDateTime end) {
+        return Math.floorDiv(end.toEpochSecond(ZoneOffset.UTC) - 1, sliceSeconds);
+    }
+
+    private LocalDateTime fromSlice(long slice) {
+        return LocalDateTime.ofEpochSecond(slice * sliceSeconds, 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static final class Inventory {
+        private final AtomicInteger capacity;
+        private final Map<Long, AtomicInteger> slices = new ConcurrentHashMap<>();
+        private List<Meter> meters = List.of();
+
+        Inventory(int capacity) {
+            this.capacity = new AtomicInteger(capacity);
+        }
+
+        boolean tryReserve(long first, long last) {
+            for (long slice = first; slice <= last; slice++) {
+                if (!tryIncrement(counter(slice))) {
+                    release(first, slice - 1);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean tryIncrement(AtomicInteger counter) {
+            while (true) {
+                int used = counter.get();
+                if (used >= capacity.get()) {
+                    return false;
+                }
+                if (counter.compareAndSet(used, used + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void occupy(long first, long last) {
+            for (long slice = first; slice <= last; slice++) {
+                counter(slice).incrementAndGet();
+            }
+        }
+
+        void release(long first, long last) {
+            for (long slice = first; slice <= last; slice++) {
+                AtomicInteger counter = slices.get(slice);
+                if (counter != null) {
+                    counter.updateAndGet(used -> Math.max(0, used - 1));
+                }
+            }
+        }
+
+        int used(long slice) {
+            AtomicInteger counter = slices.get(slice);
+            return counter == null ? 0 : counter.get();
+        }
+
+        int peakUsage(long first, long last) {
+            int peak = 0;
+            for (long slice = first; slice <= last; slice++) {
+                peak = Math.max(peak, used(slice));
+            }
+            return peak;
+        }
+
+        private AtomicInteger counter(long slice) {
+            return slices.computeIfAbsent(slice, key -> new AtomicInteger());
+        }
+    }
+}
@@ -1,28 +1,34 @@
 package com.MediSys.MediSys.service;
 
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
 import com.MediSys.MediSys.dto.RoomBookingRequest;
+import com.MediSys.MediSys.dto.RoomBookingSummary;
+import com.MediSys.MediSys.dto.SlotHoldDto;
+import com.MediSys.MediSys.dto.TimeSlotDto;
+import com.MediSys.MediSys.enums.BookingEventType;
 import com.MediSys.MediSys.enums.BookingStatus;
 import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.exception.BookingConflictException.Reason;
 import com.MediSys.MediSys.exception.ResourceNotFoundException;
 import com.MediSys.MediSys.model.Appointment;
 import com.MediSys.MediSys.model.HospitalRoom;
-import com.MediSys.MediSys.model.Patient;
 import com.MediSys.MediSys.model.RoomBooking;
-import com.MediSys.MediSys.auth.model.User;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
 import com.MediSys.MediSys.repository.AppointmentRepository;
 import com.MediSys.MediSys.repository.HospitalRoomRepository;
-import com.MediSys.MediSys.repository.PatientRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.Listings;
 import com.MediSys.MediSys.repository.RoomBookingRepository;
-import com.MediSys.MediSys.auth.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class RoomBookingService {
@@ -31,87 +37,168 @@ public class RoomBookingService {
     private final RoomBookingRepository roomBookingRepository;
     private final HospitalRoomRepository hospitalRoomRepository;
     private final AppointmentRepository appointmentRepository;
-    private final UserRepository userRepository;
-    private final PatientRepository patientRepository;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final BookingLockManager bookingLockManager;
+    private final KeysetPager keysetPager;
+    private final BookingMetrics bookingMetrics;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final BookingLifecycle bookingLifecycle;
+    private final BookingOutbox bookingOutbox;
 
     public RoomBookingService(RoomBookingRepository roomBookingRepository,
                               HospitalRoomRepository hospitalRoomRepository,
                               AppointmentRepository appointmentRepository,
-                              UserRepository userRepository,
-                              PatientRepository patientRepository) {
+                              BookingAvailabilityIndex bookingAvailabilityIndex,
+                              BookingLockManager bookingLockManager,
+                              KeysetPager keysetPager,
+                              BookingMetrics bookingMetrics,
+                              AvailabilityBroadcaster availabilityBroadcaster,
+                              SlotHoldRegistry slotHoldRegistry,
+                              BookingLifecycle bookingLifecycle,
+                              BookingOutbox bookingOutbox) {
         this.roomBookingRepository = roomBookingRepository;
         this.hospitalRoomRepository = hospitalRoomRepository;
         this.appointmentRepository = appointmentRepository;
-        this.userRepository = userRepository;
-        this.patientRepository = patientRepository;
+        this.bookingAvailabilityIndex = bookingAvailabilityIndex;
+        this.bookingLockManager = bookingLockManager;
+        this.keysetPager = keysetPager;
+        this.bookingMetrics = bookingMetrics;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.bookingLifecycle = bookingLifecycle;
+        this.bookingOutbox = bookingOutbox;
     }
 
     @Transactional
-    public RoomBooking bookRoom(RoomBookingRequest request) {
+    public RoomBooking bookRoom(RoomBookingRequest request, AuthenticatedUser principal) {
+        return bookingMetrics.recordBooking("room", () -> {
+            RoomBooking booking = newBooking(request, principal);
+            Long roomId = booking.getRoom().getId();
+            return bookingLockManager.executeLocked(BookingLockManager.room(roomId), () -> {
+                if (!bookingAvailabilityIndex.isRoomFree(roomId, request.getStartDateTime(), request.getEndDateTime())) {
+                    logger.warn("Room {} is not available from {} to {}", roomId, request.getStartDateTime(), request.getEndDateTime());
+                    throw new BookingConflictException(Reason.ROOM_TAKEN, "Room is already booked for the selected time");
+                }
+
+                RoomBooking savedBooking = roomBookingRepository.save(booking);
+                bookingLifecycle.scheduled(BookingLifecycle.Kind.ROOM, savedBooking.getId(), savedBooking.getEndDateTime());
+                bookingOutbox.append(BookingEventType.ROOM_BOOKED, savedBooking.getId(), savedBooking.getRoom().getId(),
+                        savedBooking.getStartDateTime(), savedBooking.getEndDateTime());
+                bookingAvailabilityIndex.addRoomBooking(savedBooking);
+                availabilityBroadcaster.roomSlotTaken(roomId, savedBooking.getStartDateTime(), savedBooking.getEndDateTime());
+                logger.info("Room booking created successfully: {} by user: {}", savedBooking.getId(), principal.userId());
+                return savedBooking;
+            });
+        });
+    }
+
+    /**
+     * Holds the room window for the caller while they finish booking. The hold is
+     * confirmed with {@link #confirmRoomHold} or lapses after the hold TTL.
+     */
+    public SlotHoldDto holdRoom(RoomBookingRequest request, AuthenticatedUser principal) {
+        return bookingMetrics.recordBooking("room_hold", () -> {
+            RoomBooking booking = newBooking(request, principal);
+            Long roomId = booking.getRoom().getId();
+            return bookingLockManager.executeLocked(BookingLockManager.room(roomId), () -> {
+                if (!bookingAvailabilityIndex.isRoomFree(roomId, request.getStartDateTime(), request.getEndDateTime())) {
+                    logger.warn("Room {} is not available from {} to {}", roomId, request.getStartDateTime(), request.getEndDateTime());
+                    throw new BookingConflictException(Reason.ROOM_TAKEN, "Room is already booked for the selected time");
+                }
+                return slotHoldRegistry.holdRoom(roomId, request.getStartDateTime(), request.getEndDateTime(),
+                        principal.userId(), request).toDto();
+            });
+        });
+    }
+
+    @Transactional
+    public RoomBooking confirmRoomHold(UUID holdId, AuthenticatedUser principal) {
+        return bookingMetrics.recordBooking("room", () -> {
+            SlotHoldRegistry.Hold hold = slotHoldRegistry.find(holdId, SlotHoldRegistry.Kind.ROOM, principal.userId());
+            RoomBooking booking = newBooking((RoomBookingRequest) hold.request(), principal);
+            Long roomId = booking.getRoom().getId();
+            return bookingLockManager.executeLocked(BookingLockManager.room(roomId), () -> {
+                if (!slotHoldRegistry.claim(hold)) {
+                    throw new ResourceNotFoundException("Hold not found or expired: " + holdId);
+                }
+                if (!bookingAvailabilityIndex.isRoomFreeForHold(roomId, hold.start(), hold.end(), hold.key())) {
+                    throw new BookingConflictException(Reason.ROOM_TAKEN, "Room is already booked for the selected time");
+                }
+
+                RoomBooking savedBooking = roomBookingRepository.save(booking);
+                bookingLifecycle.scheduled(BookingLifecycle.Kind.ROOM, savedBooking.getId(), savedBooking.getEndDateTime());
+                bookingOutbox.append(BookingEventType.ROOM_BOOKED, savedBooking.getId(), savedBooking.getRoom().getId(),
+                        savedBooking.getStartDateTime(), savedBooking.getEndDateTime());
+                bookingAvailabilityIndex.addRoomBooking(savedBooking);
+                logger.info("Room booking {} created from hold {} by user: {}", savedBooking.getId(), holdId, principal.userId());
+                return savedBooking;
+            });
+        });
+    }
+
+    public void releaseRoomHold(UUID holdId, AuthenticatedUser principal) {
+        slotHoldRegistry.release(holdId, SlotHoldRegistry.Kind.ROOM, principal.userId());
+    }
+
+    private RoomBooking newBooking(RoomBookingRequest request, AuthenticatedUser principal) {
         if (request.getStartDateTime() == null || request.getEndDateTime() == null) {
             throw new IllegalArgumentException("Start and end date times are required");
         }
-        if (request.getStartDateTime().isAfter(request.getEndDateTime())) {
+        if (!request.getStartDateTime().isBefore(request.getEndDateTime())) {
             throw new IllegalArgumentException("Start time must be before end time");
         }
 
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + username));
-
         HospitalRoom room = hospitalRoomRepository.findById(request.getRoomId())
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + request.getRoomId()));
 
-        if (!checkRoomAvailability(room, request.getStartDateTime(), request.getEndDateTime())) {
-            logger.warn("Room {} is not available from {} to {}", room.getId(), request.getStartDateTime(), request.getEndDateTime());
-            throw new RuntimeException("Room is already booked for the selected time");
+        Appointment appointment = null;
+        if (request.getAppointmentId() != null) {
+            appointment = appointmentRepository.findDetailedById(request.getAppointmentId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + request.getAppointmentId()));
+            if (!principal.mayActForPatient(appointment.getPatient().getId())) {
+                throw new AccessDeniedException("Patients can only book for their own appointments");
+            }
         }
 
         RoomBooking booking = new RoomBooking();
         booking.setRoom(room);
-        booking.setUser(user);
+        booking.setUser(principal.asUser());
         booking.setStartDateTime(request.getStartDateTime());
         booking.setEndDateTime(request.getEndDateTime());
         booking.setStatus(BookingStatus.BOOKED);
-
-        if (request.getAppointmentId() != null) {
-            Appointment appointment = appointmentRepository.findById(request.getAppointmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + request.getAppointmentId()));
-            booking.setAppointment(appointment);
-        }
-
-        RoomBooking savedBooking = roomBookingRepository.save(booking);
-        logger.info("Room booking created successfully: {} by user: {}", savedBooking.getId(), user.getId());
-        return savedBooking;
-    }
-
-    public List<LocalDateTime> getAvailableRoomSlots(Long roomId, LocalDateTime start, LocalDateTime end) {
-        HospitalRoom room = hospitalRoomRepository.findById(roomId)
-                .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + roomId));
-
-        List<RoomBooking> bookings = roomBookingRepository.findByRoomAndStartDateTimeBetweenAndStatus(room, start, end, BookingStatus.BOOKED);
-        return bookings.stream().map(RoomBooking::getStartDateTime).toList();
+        booking.setAppointment(appointment);
+        return booking;
     }
 
-    private boolean checkRoomAvailability(HospitalRoom room, LocalDateTime start, LocalDateTime end) {
-        return roomBookingRepository.findByRoomAndStartDateTimeBetweenAndStatus(room, start, end, BookingStatus.BOOKED).isEmpty();
+    public List<TimeSlotDto> getAvailableRoomSlots(Long roomId, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        return bookingAvailabilityIndex.freeRoomSlots(roomId, start, end);
     }
 
-    public List<RoomBooking> getAllRoomBookings() {
-        return roomBookingRepository.findAll();
+    public CursorPage<RoomBookingSummary> getAllRoomBookings(PageQuery pageQuery) {
+        return keysetPager.fetch(Listings.ROOM_BOOKINGS, pageQuery);
     }
 
     public boolean checkRoomAvailability(Long roomId, LocalDateTime start, LocalDateTime end) {
-        HospitalRoom room = hospitalRoomRepository.findById(roomId)
-                .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + roomId));
-        return roomBookingRepository.findByRoomAndStartDateTimeBetweenAndStatus(
-                room, start, end, BookingStatus.BOOKED
-        ).isEmpty();
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        return bookingAvailabilityIndex.isRoomFree(roomId, start, end);
     }
 
+    @Transactional
     public void cancelRoomBooking(Long id) {
         RoomBooking booking = roomBookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Room booking not found"));
+        if (booking.getStatus() == BookingStatus.BOOKED) {
+            bookingAvailabilityIndex.removeRoomBooking(booking);
+            availabilityBroadcaster.roomSlotFreed(booking.getRoom().getId(), booking.getStartDateTime(), booking.getEndDateTime());
+            bookingOutbox.append(BookingEventType.ROOM_CANCELLED, id, booking.getRoom().getId(), booking.getStartDateTime(),
+                    booking.getEndDateTime());
+        }
         booking.setStatus(BookingStatus.CANCELLED);
         roomBookingRepository.save(booking);
     }
@@ -0,0 +1,259 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.SlotHoldDto;
+import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.exception.BookingConflictException.Reason;
+import com.MediSys.MediSys.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory reservations taken while a patient fills in the booking form. A held doctor
+ * slot, room window or resource unit counts as taken for everyone else until the hold is
+ * confirmed into a booking, released, or expires. Expiry is driven by a hashed timing
+ * wheel ticking in memory, so reclaiming holds never touches the database.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldRegistry.class);
+    private static final int WHEEL_SIZE = 512;
+
+    public enum Kind {
+        APPOINTMENT,
+        ROOM,
+        RESOURCE
+    }
+
+    /**
+     * A held slot. request is the booking request the hold was taken for, replayed on
+     * confirm; key identifies the hold inside the availability indexes.
+     */
+    public record Hold(UUID id, long key, Kind kind, Long targetId, LocalDateTime start, LocalDateTime end,
+                       Long userId, Object request, LocalDateTime expiresAt, long deadlineMillis) {
+
+        public SlotHoldDto toDto() {
+            return new SlotHoldDto(id, start, end, expiresAt);
+        }
+    }
+
+    private record DoctorSlot(Long doctorId, LocalDateTime start) {
+    }
+
+    private final Map<UUID, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<DoctorSlot, UUID> doctorSlots = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> holdsPerUser = new ConcurrentHashMap<>();
+    private final AtomicLong keys = new AtomicLong();
+    private final HashedTimingWheel<UUID> expiries;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final ResourceCapacityLedger resourceCapacityLedger;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final Duration ttl;
+    private final int maxPerUser;
+    private final Counter expired;
+
+    public SlotHoldRegistry(BookingAvailabilityIndex bookingAvailabilityIndex,
+                            ResourceCapacityLedger resourceCapacityLedger,
+                            AvailabilityBroadcaster availabilityBroadcaster,
+                            MeterRegistry meterRegistry,
+                            @Value("${booking.hold.ttl:10m}") Duration ttl,
+                            @Value("${booking.hold.max-per-user:5}") int maxPerUser,
+                            @Value("${booking.hold.tick-ms:1000}") long tickMillis) {
+        this.bookingAvailabilityIndex = bookingAvailabilityIndex;
+        this.resourceCapacityLedger = resourceCapacityLedger;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.ttl = ttl;
+        this.maxPerUser = maxPerUser;
+        this.expiries = new HashedTimingWheel<>(tickMillis, WHEEL_SIZE, System.currentTimeMillis());
+        Gauge.builder("medisys.booking.holds", holds, Map::size)
+                .description("Slots currently held awaiting confirmation")
+                .register(meterRegistry);
+        this.expired = meterRegistry.counter("medisys.booking.holds.expired");
+    }
+
+    /**
+     * Holds a doctor slot. The caller checks the slot against booked appointments under
+     * the slot's booking lock.
+     */
+    public Hold holdDoctorSlot(Long doctorId, LocalDateTime start, LocalDateTime end, Long userId, Object request) {
+        Hold hold = newHold(Kind.APPOINTMENT, doctorId, start, end, userId, request);
+        if (doctorSlots.putIfAbsent(new DoctorSlot(doctorId, start), hold.id()) != null) {
+            releaseQuota(userId);
+            throw new BookingConflictException(Reason.SLOT_HELD, "The selected time is held by another booking in progress");
+        }
+        availabilityBroadcaster.doctorSlotTaken(doctorId, start);
+        return register(hold);
+    }
+
+    /**
+     * Holds a room window. The caller checks the window is free under the room's booking lock.
+     */
+    public Hold holdRoom(Long roomId, LocalDateTime start, LocalDateTime end, Long userId, Object request) {
+        Hold hold = newHold(Kind.ROOM, roomId, start, end, userId, request);
+        try {
+            bookingAvailabilityIndex.addRoomHold(hold.key(), roomId, start, end);
+        } catch (RuntimeException e) {
+            releaseQuota(userId);
+            throw e;
+        }
+        availabilityBroadcaster.roomSlotTaken(roomId, start, end);
+        return register(hold);
+    }
+
+    public Hold holdResource(Long resourceId, LocalDateTime start, LocalDateTime end, Long userId, Object request) {
+        Hold hold = newHold(Kind.RESOURCE, resourceId, start, end, userId, request);
+        boolean reserved;
+        try {
+            reserved = resourceCapacityLedger.reserve(resourceId, start, end);
+        } catch (RuntimeException e) {
+            releaseQuota(userId);
+            throw e;
+        }
+        if (!reserved) {
+            releaseQuota(userId);
+            throw new BookingConflictException(Reason.RESOURCE_EXHAUSTED, "No units of this resource are available for the selected time");
+        }
+        return register(hold);
+    }
+
+    public boolean isDoctorSlotHeld(Long doctorId, LocalDateTime start) {
+        return doctorSlots.containsKey(new DoctorSlot(doctorId, start));
+    }
+
+    /**
+     * The caller's live hold of the given kind. Another user's hold is reported as
+     * missing, the same as an expired one.
+     */
+    public Hold find(UUID id, Kind kind, Long userId) {
+        Hold hold = holds.get(id);
+        if (hold == null || hold.kind() != kind || !Objects.equals(hold.userId(), userId)) {
+            throw new ResourceNotFoundException("Hold not found or expired: " + id);
+        }
+        return hold;
+    }
+
+    /**
+     * Takes the hold out of the table for conversion into a booking, so it can no longer
+     * expire or be released. Once the transaction commits the hold's placeholder is
+     * dropped and the booking owns the slot; on rollback the slot is freed as if the hold
+     * had expired. Returns false if the hold expired in the meantime.
+     */
+    public boolean claim(Hold hold) {
+        if (!holds.remove(hold.id(), hold)) {
+            return false;
+        }
+        releaseQuota(hold.userId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        consume(hold);
+                    } else {
+                        free(hold);
+                    }
+                }
+            });
+        } else {
+            consume(hold);
+        }
+        return true;
+    }
+
+    public void release(UUID id, Kind kind, Long userId) {
+        Hold hold = find(id, kind, userId);
+        if (holds.remove(id, hold)) {
+            releaseQuota(hold.userId());
+            free(hold);
+            logger.info("Hold {} on {} {} released", id, kind, hold.targetId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.hold.tick-ms:1000}")
+    public void expireHolds() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    int expireDue(long nowMillis) {
+        int count = 0;
+        for (UUID id : expiries.advance(nowMillis)) {
+            Hold hold = holds.get(id);
+            // Confirmed and released holds leave their timeout behind; it finds nothing
+            if (hold != null && holds.remove(id, hold)) {
+                releaseQuota(hold.userId());
+                free(hold);
+                count++;
+            }
+        }
+        if (count > 0) {
+            expired.increment(count);
+            logger.info("Expired {} slot holds, {} still held", count, holds.size());
+        }
+        return count;
+    }
+
+    int size() {
+        return holds.size();
+    }
+
+    private Hold newHold(Kind kind, Long targetId, LocalDateTime start, LocalDateTime end, Long userId, Object request) {
+        if (holdsPerUser.merge(userId, 1, Integer::sum) > maxPerUser) {
+            releaseQuota(userId);
+            throw new BookingConflictException(Reason.HOLD_LIMIT, "At most " + maxPerUser + " slots can be held at once");
+        }
+        long deadline = System.currentTimeMillis() + ttl.toMillis();
+        return new Hold(UUID.randomUUID(), keys.incrementAndGet(), kind, targetId, start, end, userId, request,
+                LocalDateTime.now().plus(ttl), deadline);
+    }
+
+    private Hold register(Hold hold) {
+        holds.put(hold.id(), hold);
+        expiries.schedule(hold.id(), hold.deadlineMillis());
+        logger.info("Hold {} on {} {} from {} to {}", hold.id(), hold.kind(), hold.targetId(), hold.start(), hold.end());
+        return hold;
+    }
+
+    private void releaseQuota(Long userId) {
+        holdsPerUser.computeIfPresent(userId, (id, held) -> held > 1 ? held - 1 : null);
+    }
+
+    // The booking now covers the slot, so only the hold's own marker goes
+    private void consume(Hold hold) {
+        switch (hold.kind()) {
+            case APPOINTMENT -> doctorSlots.remove(new DoctorSlot(hold.targetId(), hold.start()), hold.id());
+            case ROOM -> bookingAvailabilityIndex.removeRoomHold(hold.key(), hold.targetId(), hold.start());
+            case RESOURCE -> {
+            }
+        }
+    }
+
+    private void free(Hold hold) {
+        switch (hold.kind()) {
+            case APPOINTMENT -> {
+                doctorSlots.remove(new DoctorSlot(hold.targetId(), hold.start()), hold.id());
+                availabilityBroadcaster.doctorSlotFreed(hold.targetId(), hold.start());
+            }
+            case ROOM -> {
+                bookingAvailabilityIndex.removeRoomHold(hold.key(), hold.targetId(), hold.start());
+                availabilityBroadcaster.roomSlotFreed(hold.targetId(), hold.start(), hold.end());
+            }
+            case RESOURCE -> resourceCapacityLedger.release(hold.targetId(), hold.start(), hold.end());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.MediSys.MediSys.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stores objects under a directory on the local disk. Uploads are streamed through a
+ * channel into a temp file while being hashed, then renamed to {@code ab/<sha256>.ext};
+ * the rename is atomic, so the static resource handler never serves half a file.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalStorageBackend.class);
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+    private static final String INCOMING_DIR = ".incoming";
+
+    private final Path root;
+    private final Path incoming;
+
+    public LocalStorageBackend(@Value("${storage.local.root:uploads}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve(INCOMING_DIR);
+        Files.createDirectories(incoming);
+        logger.info("Storing uploads under {}", this.root);
+    }
+
+    @Override
+    public StoredObject store(InputStream content, String extension) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(incoming, "upload", ".tmp");
+        try {
+            long size;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(content, digest));
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                size = transfer(source, target);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = hash.substring(0, 2) + "/" + hash + (extension.isEmpty() ? "" : "." + extension);
+            Path path = resolve(key);
+            if (Files.exists(path)) {
+                return new StoredObject(key, size, true);
+            }
+            Files.createDirectories(path.getParent());
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredObject(key, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void put(String key, ContentWriter writer) throws IOException {
+        Path path = resolve(key);
+        Path temp = Files.createTempFile(incoming, "derived", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.createDirectories(path.getParent());
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root) || path.startsWith(incoming)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+
+    // The stream channel reports 0 bytes only at end of input since it is blocking
+    private static long transfer(ReadableByteChannel source, FileChannel target) throws IOException {
+        long position = 0;
+        long transferred;
+        while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+            position += transferred;
+        }
+        return position;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.MediSys.MediSys.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Where uploaded files live. Keys are relative, slash-separated paths; content stored
+ * through {@link #store} is keyed by its SHA-256 so identical uploads share one object.
+ */
+public interface StorageBackend {
+
+    record StoredObject(String key, long size, boolean deduplicated) {
+    }
+
+    @FunctionalInterface
+    interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    StoredObject store(InputStream content, String extension) throws IOException;
+
+    /**
+     * Writes a derived object under an explicit key. Readers never observe a partially
+     * written object.
+     */
+    void put(String key, ContentWriter writer) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    boolean exists(String key);
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,129 @@
+-- Schema as Hibernate generated it with ddl-auto=update, before any migration existed.
+-- Databases created that way are baselined at this version and only receive the
+-- migrations after it, so this file must not change.
+
+create table role (
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id),
+    constraint uk_role_name unique (name)
+) engine=InnoDB;
+
+create table `user` (
+    id bigint not null auto_increment,
+    role_id bigint,
+    email varchar(255),
+    password varchar(255),
+    primary key (id),
+    constraint fk_user_role foreign key (role_id) references role (id)
+) engine=InnoDB;
+
+create table doctors (
+    id bigint not null auto_increment,
+    user_id bigint,
+    active bit not null,
+    years_of_experience integer not null,
+    email varchar(255),
+    full_name varchar(255),
+    gender varchar(255),
+    image_url varchar(255),
+    phone varchar(255),
+    registration_number varchar(255),
+    specialization varchar(255),
+    primary key (id),
+    constraint uk_doctors_user unique (user_id),
+    constraint fk_doctors_user foreign key (user_id) references `user` (id)
+) engine=InnoDB;
+
+create table doctor_schedule (
+    id bigint not null auto_increment,
+    doctor_id bigint,
+    day_of_week varchar(255),
+    start_time time(6),
+    end_time time(6),
+    slot_duration integer not null,
+    primary key (id),
+    constraint fk_doctor_schedule_doctor foreign key (doctor_id) references doctors (id)
+) engine=InnoDB;
+
+create table patient (
+    id bigint not null auto_increment,
+    user_id bigint,
+    active bit not null,
+    date_of_birth date,
+    address varchar(255),
+    email varchar(255),
+    emergency_contact varchar(255),
+    full_name varchar(255),
+    gender varchar(255),
+    medical_history text,
+    medicare_number varchar(255),
+    phone varchar(255),
+    primary key (id),
+    constraint uk_patient_user unique (user_id),
+    constraint fk_patient_user foreign key (user_id) references `user` (id)
+) engine=InnoDB;
+
+create table appointment (
+    id bigint not null auto_increment,
+    doctor_id bigint not null,
+    patient_id bigint not null,
+    appointment_date_time datetime(6) not null,
+    status enum ('CANCELLED','COMPLETED','CONFIRMED','SCHEDULED') not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint fk_appointment_doctor foreign key (doctor_id) references doctors (id),
+    constraint fk_appointment_patient foreign key (patient_id) references patient (id)
+) engine=InnoDB;
+
+create table hospital_room (
+    id bigint not null auto_increment,
+    room_number varchar(255) not null,
+    type varchar(255) not null,
+    price float(53),
+    room_picture varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table hospital_resource (
+    id bigint not null auto_increment,
+    name varchar(255),
+    description varchar(255),
+    price float(53) not null,
+    quantity integer not null,
+    image varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table room_booking (
+    id bigint not null auto_increment,
+    room_id bigint not null,
+    user_id bigint,
+    appointment_id bigint,
+    start_date_time datetime(6) not null,
+    end_date_time datetime(6) not null,
+    status enum ('AVAILABLE','BOOKED','CANCELLED','COMPLETED'),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint fk_room_booking_room foreign key (room_id) references hospital_room (id),
+    constraint fk_room_booking_user foreign key (user_id) references `user` (id),
+    constraint fk_room_booking_appointment foreign key (appointment_id) references appointment (id)
+) engine=InnoDB;
+
+create table resource_booking (
+    id bigint not null auto_increment,
+    resource_id bigint not null,
+    user_id bigint,
+    appointment_id bigint,
+    start_date_time datetime(6) not null,
+    end_date_time datetime(6) not null,
+    status enum ('AVAILABLE','BOOKED','CANCELLED','COMPLETED'),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint fk_resource_booking_resource foreign key (resource_id) references hospital_resource (id),
+    constraint fk_resource_booking_user foreign key (user_id) references `user` (id),
+    constraint fk_resource_booking_appointment foreign key (appointment_id) references appointment (id)
+) engine=InnoDB;
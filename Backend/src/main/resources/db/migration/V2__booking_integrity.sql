@@ -0,0 +1,59 @@
+-- Constraints the booking paths rely on, added to databases that predate them.
+
+-- Appointment ids come from a pooled sequence, emulated on MySQL by this table. The pooled
+-- optimizer can hand out ids up to one allocation (50) below the value it reads, so the
+-- sequence starts a whole allocation past the highest id AUTO_INCREMENT gave out. The
+-- AUTO_INCREMENT on appointment.id stays: Hibernate always supplies the id, and the
+-- column is referenced by foreign keys.
+create table appointment_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into appointment_seq select coalesce(max(id), 0) + 51 from appointment;
+
+-- Slots booked twice before the unique key existed keep the earliest booking; the later
+-- ones are cancelled so the key can be built. The ids go through a scratch table because
+-- MySQL cannot update a table it reads in the same statement.
+create table appointment_double_booked as
+select later.id
+from appointment later
+join appointment earlier
+    on earlier.doctor_id = later.doctor_id
+    and earlier.appointment_date_time = later.appointment_date_time
+    and earlier.id < later.id
+where later.status in ('SCHEDULED', 'CONFIRMED')
+    and earlier.status in ('SCHEDULED', 'CONFIRMED');
+
+update appointment set status = 'CANCELLED'
+where id in (select id from appointment_double_booked);
+
+drop table appointment_double_booked;
+
+-- active_slot is NULL for inactive rows, which keeps them out of the unique key: MySQL
+-- has no partial unique index. A virtual column is enough, InnoDB indexes it.
+alter table appointment
+    add column active_slot tinyint generated always as (case when status in ('SCHEDULED', 'CONFIRMED') then 1 end);
+
+alter table appointment
+    add constraint uk_appointment_doctor_active_slot unique (doctor_id, appointment_date_time, active_slot);
+
+-- A doctor has one schedule per weekday; where an edit left several, the latest one wins.
+create table doctor_schedule_superseded as
+select older.id
+from doctor_schedule older
+join doctor_schedule newer
+    on newer.doctor_id = older.doctor_id
+    and newer.day_of_week = older.day_of_week
+    and newer.id > older.id;
+
+delete from doctor_schedule
+where id in (select id from doctor_schedule_superseded);
+
+drop table doctor_schedule_superseded;
+
+alter table doctor_schedule
+    add constraint uk_doctor_schedule_doctor_day unique (doctor_id, day_of_week);
+
+-- Optimistic lock version for resource stock changes.
+alter table hospital_resource
+    add column version bigint not null default 0;
@@ -0,0 +1,23 @@
+-- Per doctor, per day appointment counts behind the calendar view, filled from the
+-- appointments already booked. From here on the booking transactions keep them current.
+
+create table doctor_calendar_day (
+    id bigint not null auto_increment,
+    doctor_id bigint not null,
+    calendar_date date not null,
+    scheduled integer not null,
+    confirmed integer not null,
+    completed integer not null,
+    cancelled integer not null,
+    primary key (id),
+    constraint uk_calendar_doctor_date unique (doctor_id, calendar_date)
+) engine=InnoDB;
+
+insert into doctor_calendar_day (doctor_id, calendar_date, scheduled, confirmed, completed, cancelled)
+select doctor_id, cast(appointment_date_time as date),
+    sum(case when status = 'SCHEDULED' then 1 else 0 end),
+    sum(case when status = 'CONFIRMED' then 1 else 0 end),
+    sum(case when status = 'COMPLETED' then 1 else 0 end),
+    sum(case when status = 'CANCELLED' then 1 else 0 end)
+from appointment
+group by doctor_id, cast(appointment_date_time as date);
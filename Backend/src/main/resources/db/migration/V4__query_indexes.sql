@@ -0,0 +1,26 @@
+-- One index per repository finder that had only a primary or foreign key to go on.
+-- Status trails the range column so the availability checks are answered from the index.
+
+create index idx_appointment_doctor_time_status on appointment (doctor_id, appointment_date_time, status);
+create index idx_appointment_time on appointment (appointment_date_time);
+
+create index idx_room_booking_room_start_status on room_booking (room_id, start_date_time, status);
+create index idx_room_booking_end_status on room_booking (end_date_time, status);
+create index idx_room_booking_start on room_booking (start_date_time);
+
+create index idx_resource_booking_resource_start_status on resource_booking (resource_id, start_date_time, status);
+create index idx_resource_booking_end_status on resource_booking (end_date_time, status);
+create index idx_resource_booking_start on resource_booking (start_date_time);
+
+create index idx_user_email on `user` (email);
+create index idx_doctors_email on doctors (email);
+create index idx_doctors_image_url on doctors (image_url);
+create index idx_doctors_specialization_active on doctors (specialization, active);
+create index idx_doctors_full_name on doctors (full_name);
+create index idx_patient_email on patient (email);
+create index idx_patient_full_name on patient (full_name);
+
+create index idx_hospital_room_room_number on hospital_room (room_number);
+create index idx_hospital_room_picture on hospital_room (room_picture);
+create index idx_hospital_resource_name on hospital_resource (name);
+create index idx_hospital_resource_image on hospital_resource (image);
@@ -0,0 +1,18 @@
+-- Booking domain events, written in the booking's transaction and relayed afterwards.
+-- Unpublished rows are read in id order through the index; published ones are purged
+-- once past retention.
+
+create table booking_outbox (
+    id bigint not null auto_increment,
+    event_type enum ('APPOINTMENT_BOOKED','APPOINTMENT_CANCELLED','APPOINTMENT_UPDATED','RESOURCE_BOOKED','RESOURCE_RELEASED','ROOM_BOOKED','ROOM_CANCELLED') not null,
+    aggregate_id bigint not null,
+    target_id bigint not null,
+    start_date_time datetime(6) not null,
+    end_date_time datetime(6),
+    created_at datetime(6) not null,
+    published_at datetime(6),
+    attempts integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_booking_outbox_published on booking_outbox (published_at, id);
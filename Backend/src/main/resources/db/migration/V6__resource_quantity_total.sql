@@ -0,0 +1,11 @@
+-- hospital_resource.quantity used to count the units still free: booking took one off and
+-- cancelling or the hourly sweep gave it back. It now holds the units owned, with units in
+-- use derived from overlapping bookings, so every booking still holding a unit hands it
+-- back here. That includes ones already ended but not yet swept.
+
+update hospital_resource
+set quantity = quantity + (
+    select count(*)
+    from resource_booking
+    where resource_booking.resource_id = hospital_resource.id
+        and resource_booking.status = 'BOOKED');
@@ -0,0 +1,10 @@
+-- Events the relay gave up on used to be marked published, which let later events of the
+-- same booking through and purged the failed one with the rest. They now keep
+-- published_at null and get abandoned_at instead: they stay until someone looks at them,
+-- and their booking's later events wait behind them. The pending index takes the new
+-- column, so it serves both the relay paging by id and the lookup of abandoned events.
+
+alter table booking_outbox add column abandoned_at datetime(6);
+
+drop index idx_booking_outbox_published on booking_outbox;
+create index idx_booking_outbox_pending on booking_outbox (published_at, abandoned_at, id);
@@ -0,0 +1,110 @@
+package com.MediSys.MediSys.benchmark;
+
+import com.MediSys.MediSys.auth.model.Role;
+import com.MediSys.MediSys.auth.model.User;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.model.DoctorSchedule;
+import com.MediSys.MediSys.model.Patient;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+
+    static final String SPECIALIZATION = "Cardiology";
+    static final LocalTime DAY_START = LocalTime.of(8, 0);
+    static final LocalTime DAY_END = LocalTime.of(18, 0);
+    static final int SLOT_MINUTES = 30;
+
+    private Fixtures() {
+    }
+
+    static LocalDate nextMonday() {
+        return LocalDate.now().plusWeeks(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    }
+
+    static User user(long id, String email, String roleName) {
+        return new User(id, email, "{noop}password", new Role(id, roleName));
+    }
+
+    static Doctor doctor(long id, int schedules) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setUser(user(id, "doctor" + id + "@medisys.test", "DOCTOR"));
+        doctor.setFullName("Doctor " + id);
+        doctor.setEmail("doctor" + id + "@medisys.test");
+        doctor.setPhone("0400" + id);
+        doctor.setSpecialization(SPECIALIZATION);
+        doctor.setRegistrationNumber("REG-" + id);
+        doctor.setYearsOfExperience(10);
+        doctor.setGender("F");
+        doctor.setActive(true);
+        List<DoctorSchedule> weekly = new ArrayList<>();
+        for (int i = 0; i < schedules; i++) {
+            DayOfWeek day = DayOfWeek.of(i % 7 + 1);
+            weekly.add(new DoctorSchedule(id * 10 + i, doctor, day.toString(), DAY_START, DAY_END, SLOT_MINUTES));
+        }
+        doctor.setSchedules(weekly);
+        return doctor;
+    }
+
+    static Patient patient(long id) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setUser(user(100_000 + id, "patient" + id + "@medisys.test", "PATIENT"));
+        patient.setFullName("Patient " + id);
+        patient.setEmail("patient" + id + "@medisys.test");
+        patient.setPhone("0411" + id);
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(id));
+        patient.setGender("M");
+        patient.setAddress(id + " Example Street");
+        patient.setMedicareNumber("MC" + id);
+        patient.setMedicalHistory("None recorded");
+        patient.setActive(true);
+        return patient;
+    }
+
+    static Appointment appointment(long id, Doctor doctor, Patient patient, LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setAppointmentDateTime(time);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setCreatedAt(time.minusDays(3));
+        appointment.setUpdatedAt(time.minusDays(3));
+        return appointment;
+    }
+
+    static List<DoctorScheduleSummary> weeklySchedule(long doctorId) {
+        List<DoctorScheduleSummary> week = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            week.add(new DoctorScheduleSummary(doctorId * 10 + day.getValue(), doctorId, "Doctor " + doctorId,
+                    day.toString(), DAY_START, DAY_END, SLOT_MINUTES));
+        }
+        return week;
+    }
+
+    /**
+     * Spreads the booked slots evenly over the working day, so the free slots are
+     * interleaved with booked ones rather than clustered at one end.
+     */
+    static List<LocalDateTime> bookedSlots(LocalDate date, int appointmentsPerDay) {
+        int slotsPerDay = (int) (Duration.between(DAY_START, DAY_END).toMinutes() / SLOT_MINUTES);
+        int booked = Math.min(appointmentsPerDay, slotsPerDay);
+        List<LocalDateTime> slots = new ArrayList<>(booked);
+        for (int i = 0; i < booked; i++) {
+            slots.add(date.atTime(DAY_START).plusMinutes((long) (i * slotsPerDay / booked) * SLOT_MINUTES));
+        }
+        return slots;
+    }
+}
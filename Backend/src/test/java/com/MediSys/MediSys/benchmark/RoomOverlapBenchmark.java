@@ -0,0 +1,89 @@
+package com.MediSys.MediSys.benchmark;
+
+import com.MediSys.MediSys.dto.TimeSlotDto;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.model.HospitalRoom;
+import com.MediSys.MediSys.model.RoomBooking;
+import com.MediSys.MediSys.repository.HospitalRoomRepository;
+import com.MediSys.MediSys.repository.RoomBookingRepository;
+import com.MediSys.MediSys.service.BookingAvailabilityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The room overlap check and free-gap listing that RoomBookingService runs against
+ * the availability index, for a room with a long booked timeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomOverlapBenchmark {
+
+    private static final long ROOM_ID = 1L;
+    private static final int PROBES = 1024;
+
+    @Param({"100", "10000"})
+    int bookingsPerRoom;
+
+    private BookingAvailabilityIndex index;
+    private LocalDateTime firstStart;
+    private LocalDateTime[] probes;
+    private int nextProbe;
+
+    @Setup
+    public void setUp() {
+        index = new BookingAvailabilityIndex(mock(HospitalRoomRepository.class), mock(RoomBookingRepository.class));
+        index.registerRoom(ROOM_ID);
+
+        HospitalRoom room = new HospitalRoom();
+        room.setId(ROOM_ID);
+        firstStart = Fixtures.nextMonday().atTime(8, 0);
+        // Two-hour stays separated by one free hour.
+        for (int i = 0; i < bookingsPerRoom; i++) {
+            RoomBooking booking = new RoomBooking();
+            booking.setId((long) i + 1);
+            booking.setRoom(room);
+            booking.setStartDateTime(firstStart.plusHours(3L * i));
+            booking.setEndDateTime(firstStart.plusHours(3L * i + 2));
+            booking.setStatus(BookingStatus.BOOKED);
+            index.addRoomBooking(booking);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new LocalDateTime[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = firstStart.plusMinutes(random.nextLong(3L * 60 * bookingsPerRoom));
+        }
+    }
+
+    @Benchmark
+    public boolean isRoomFree() {
+        LocalDateTime start = probes[nextProbe++ & (PROBES - 1)];
+        return index.isRoomFree(ROOM_ID, start, start.plusMinutes(45));
+    }
+
+    @Benchmark
+    public List<TimeSlotDto> freeSlotsForOneDay() {
+        LocalDateTime start = probes[nextProbe++ & (PROBES - 1)];
+        return index.freeRoomSlots(ROOM_ID, start, start.plusDays(1));
+    }
+}
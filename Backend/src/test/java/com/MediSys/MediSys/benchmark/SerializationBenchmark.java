@@ -0,0 +1,70 @@
+package com.MediSys.MediSys.benchmark;
+
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.model.Patient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of the entity graphs the detail endpoints return: a doctor with its
+ * weekly schedule, and a page of appointments each carrying doctor and patient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "100"})
+    int appointments;
+
+    private ObjectMapper objectMapper;
+    private Doctor doctor;
+    private List<Appointment> appointmentList;
+
+    @Setup
+    public void setUp() {
+        // Same modules and date handling as the application's auto-configured mapper.
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        doctor = Fixtures.doctor(1L, 7);
+        appointmentList = new ArrayList<>(appointments);
+        LocalDateTime start = Fixtures.nextMonday().atTime(Fixtures.DAY_START);
+        for (int i = 0; i < appointments; i++) {
+            Patient patient = Fixtures.patient(i + 1);
+            appointmentList.add(Fixtures.appointment(i + 1, doctor, patient, start.plusMinutes(30L * i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] doctorWithSchedules() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(doctor);
+    }
+
+    @Benchmark
+    public byte[] appointmentGraphs() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointmentList);
+    }
+}
@@ -0,0 +1,137 @@
+package com.MediSys.MediSys.benchmark;
+
+import com.MediSys.MediSys.dto.AvailableSlotDto;
+import com.MediSys.MediSys.dto.BookedSlot;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.PatientRepository;
+import com.MediSys.MediSys.service.AppointmentCalendar;
+import com.MediSys.MediSys.service.AppointmentService;
+import com.MediSys.MediSys.service.AvailabilityBroadcaster;
+import com.MediSys.MediSys.service.AvailabilitySearchService;
+import com.MediSys.MediSys.service.BookingLifecycle;
+import com.MediSys.MediSys.service.BookingLockManager;
+import com.MediSys.MediSys.service.BookingOutbox;
+import com.MediSys.MediSys.service.BookingMetrics;
+import com.MediSys.MediSys.service.DoctorScheduleCache;
+import com.MediSys.MediSys.service.DoctorSlotIndex;
+import com.MediSys.MediSys.service.SlotHoldRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Slot generation and filtering for a single doctor day (warm index and cold build)
+ * and the earliest-slot search across every doctor of a specialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotBenchmark {
+
+    @Param({"10", "200"})
+    int doctors;
+
+    @Param({"0", "8", "16"})
+    int appointmentsPerDay;
+
+    private LocalDate date;
+    private List<LocalDateTime> bookedSlots;
+    private AppointmentService appointmentService;
+    private AvailabilitySearchService availabilitySearchService;
+    private long nextDoctor;
+
+    @Setup
+    public void setUp() {
+        date = Fixtures.nextMonday();
+        bookedSlots = Fixtures.bookedSlots(date, appointmentsPerDay);
+
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        DoctorScheduleRepository scheduleRepository = mock(DoctorScheduleRepository.class);
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+
+        List<DoctorScheduleSummary> allSchedules = new ArrayList<>();
+        List<BookedSlot> allBooked = new ArrayList<>();
+        for (long doctorId = 1; doctorId <= doctors; doctorId++) {
+            Doctor doctor = Fixtures.doctor(doctorId, 0);
+            List<DoctorScheduleSummary> week = Fixtures.weeklySchedule(doctorId);
+            List<Appointment> appointments = new ArrayList<>();
+            for (LocalDateTime slot : bookedSlots) {
+                appointments.add(Fixtures.appointment(appointments.size() + 1, doctor, null, slot));
+            }
+            for (int day = 0; day < 14; day++) {
+                for (LocalDateTime slot : bookedSlots) {
+                    allBooked.add(new BookedSlot(doctorId, slot.plusDays(day)));
+                }
+            }
+            allSchedules.addAll(week);
+            when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+            when(scheduleRepository.findSummariesByDoctorId(doctorId)).thenReturn(week);
+            when(appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
+                    eq(doctorId), any(), any(), anyList())).thenReturn(appointments);
+        }
+        when(scheduleRepository.findActiveSummariesBySpecialization(Fixtures.SPECIALIZATION)).thenReturn(allSchedules);
+        when(appointmentRepository.findBookedSlots(anyCollection(), any(), any(), anyList())).thenReturn(allBooked);
+
+        appointmentService = new AppointmentService(doctorRepository, mock(PatientRepository.class),
+                appointmentRepository, new DoctorScheduleCache(scheduleRepository, doctorRepository),
+                new DoctorSlotIndex(), new BookingLockManager(), mock(KeysetPager.class),
+                new BookingMetrics(new SimpleMeterRegistry()), mock(AppointmentCalendar.class),
+                mock(AvailabilityBroadcaster.class), mock(SlotHoldRegistry.class),
+                mock(BookingLifecycle.class), mock(BookingOutbox.class));
+        availabilitySearchService = new AvailabilitySearchService(scheduleRepository, appointmentRepository,
+                mock(SlotHoldRegistry.class));
+
+        for (long doctorId = 1; doctorId <= doctors; doctorId++) {
+            appointmentService.getAvailableSlots(doctorId, date);
+        }
+    }
+
+    @Benchmark
+    public List<LocalDateTime> availableSlotsFromIndex() {
+        long doctorId = nextDoctor++ % doctors + 1;
+        return appointmentService.getAvailableSlots(doctorId, date);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> buildDaySlots() {
+        return new DoctorSlotIndex.DaySlots(date, Fixtures.DAY_START, Fixtures.DAY_END, Fixtures.SLOT_MINUTES,
+                bookedSlots).freeSlotsAfter(date.atStartOfDay());
+    }
+
+    @Benchmark
+    public List<AvailableSlotDto> searchTwoWeeks() {
+        return availabilitySearchService.search(Fixtures.SPECIALIZATION, date, date.plusDays(13), null, null, 20);
+    }
+}
@@ -0,0 +1,80 @@
+package com.MediSys.MediSys.benchmark;
+
+import com.MediSys.MediSys.auth.config.JwtAuthenticationCache;
+import com.MediSys.MediSys.auth.config.TokenProvider;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full signature verification and claim parsing against the verified-token cache hit
+ * that the authentication filter takes for a token it has already seen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLW9ubHktMzItYnl0ZXMtbG9uZw==";
+
+    private TokenProvider tokenProvider;
+    private JwtAuthenticationCache cache;
+    private Authentication authentication;
+    private AuthenticatedUser principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "TOKEN_VALIDITY", 3600L);
+        ReflectionTestUtils.setField(tokenProvider, "AUTHORITIES_KEY", "roles");
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_PATIENT"));
+        principal = new AuthenticatedUser(42L, "patient42@medisys.test", "PATIENT", null, 7L);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        token = tokenProvider.generateToken(authentication, principal);
+
+        cache = new JwtAuthenticationCache(10_000);
+        Claims claims = tokenProvider.getAllClaimsFromToken(token);
+        cache.put(token, principal, authorities, claims.getExpiration());
+    }
+
+    @Benchmark
+    public String generate() {
+        return tokenProvider.generateToken(authentication, principal);
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseAndValidate() {
+        Claims claims = tokenProvider.getAllClaimsFromToken(token);
+        tokenProvider.getAuthorities(claims);
+        return tokenProvider.getPrincipal(claims);
+    }
+
+    @Benchmark
+    public JwtAuthenticationCache.VerifiedToken cachedLookup() {
+        return cache.get(token);
+    }
+}
@@ -0,0 +1,159 @@
+package com.MediSys.MediSys.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Serves files from a temporary upload root through the /uploads/** handler, with only
+ * Spring MVC and {@link FileStorageConfig} in the context.
+ */
+@SpringJUnitWebConfig(FileStorageConfigTest.Uploads.class)
+class FileStorageConfigTest {
+
+    private static final String HASHED = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08.txt";
+    private static final String CONTENT = "content-addressed upload, long enough to be worth compressing. ".repeat(4);
+
+    @TempDir
+    static Path root;
+
+    @Configuration
+    @EnableWebMvc
+    @Import(FileStorageConfig.class)
+    static class Uploads {
+        // Boot's converters, so "10m"-style durations bind as they do in the application
+        @Bean
+        static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void uploadRoot(DynamicPropertyRegistry registry) {
+        registry.add("storage.local.root", () -> root.toString());
+        registry.add("uploads.memory-cache.max-entry-bytes", () -> 1024);
+    }
+
+    @Autowired private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        Files.writeString(root.resolve(HASHED), CONTENT);
+        Files.write(root.resolve(HASHED + ".gz"), gzip(CONTENT));
+    }
+
+    @Test
+    void contentHashIsTheEtagAndAMatchIsNotModified() throws Exception {
+        mockMvc.perform(get("/uploads/" + HASHED))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASHED + "\""))
+                .andExpect(content().string(CONTENT));
+
+        mockMvc.perform(get("/uploads/" + HASHED).header(HttpHeaders.IF_NONE_MATCH, "\"" + HASHED + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void fileWithoutAContentHashHasNoEtag() throws Exception {
+        Files.writeString(root.resolve("legacy.txt"), "legacy");
+
+        mockMvc.perform(get("/uploads/legacy.txt"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void rangeRequestGetsPartialContent() throws Exception {
+        mockMvc.perform(get("/uploads/" + HASHED).header(HttpHeaders.RANGE, "bytes=0-16"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-16/" + CONTENT.length()))
+                .andExpect(content().string(CONTENT.substring(0, 17)));
+    }
+
+    @Test
+    void gzipSiblingIsServedOnlyToClientsThatAcceptIt() throws Exception {
+        // The compressed and plain bodies must not validate each other's cached copies
+        String gzipEtag = "\"" + HASHED + "-gzip\"";
+        mockMvc.perform(get("/uploads/" + HASHED).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, gzipEtag))
+                .andExpect(content().bytes(gzip(CONTENT)));
+        mockMvc.perform(get("/uploads/" + HASHED).header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/uploads/" + HASHED).header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void responsesAreCachedAsImmutable() throws Exception {
+        mockMvc.perform(get("/uploads/" + HASHED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void smallFilesAreKeptInMemoryAndLargeOnesAreNot() throws Exception {
+        Files.writeString(root.resolve("small.txt"), "small");
+        Files.writeString(root.resolve("large.txt"), "x".repeat(2048));
+        mockMvc.perform(get("/uploads/small.txt")).andExpect(status().isOk());
+        mockMvc.perform(get("/uploads/large.txt")).andExpect(status().isOk());
+
+        Files.delete(root.resolve("small.txt"));
+        Files.delete(root.resolve("large.txt"));
+
+        mockMvc.perform(get("/uploads/small.txt"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("small"));
+        mockMvc.perform(get("/uploads/large.txt")).andExpect(status().isNotFound());
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return buffer.toByteArray();
+    }
+}
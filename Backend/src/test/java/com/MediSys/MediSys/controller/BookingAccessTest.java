@@ -0,0 +1,223 @@
+package com.MediSys.MediSys.controller;
+
+import com.MediSys.MediSys.auth.config.JwtAuthenticationCache;
+import com.MediSys.MediSys.auth.config.SecurityConfig;
+import com.MediSys.MediSys.auth.config.TokenProvider;
+import com.MediSys.MediSys.auth.config.UnauthorizedEntryPoint;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.config.QueryCounter;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.HospitalResource;
+import com.MediSys.MediSys.model.HospitalRoom;
+import com.MediSys.MediSys.model.Patient;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.HospitalRoomRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.PatientRepository;
+import com.MediSys.MediSys.repository.ResourceBookingRepository;
+import com.MediSys.MediSys.repository.RoomBookingRepository;
+import com.MediSys.MediSys.service.AppointmentCalendar;
+import com.MediSys.MediSys.service.AppointmentService;
+import com.MediSys.MediSys.service.AvailabilityBroadcaster;
+import com.MediSys.MediSys.service.AvailabilitySearchService;
+import com.MediSys.MediSys.service.BookingAvailabilityIndex;
+import com.MediSys.MediSys.service.BookingLifecycle;
+import com.MediSys.MediSys.service.BookingLockManager;
+import com.MediSys.MediSys.service.BookingMetrics;
+import com.MediSys.MediSys.service.BookingOutbox;
+import com.MediSys.MediSys.service.BulkAppointmentService;
+import com.MediSys.MediSys.service.DoctorScheduleCache;
+import com.MediSys.MediSys.service.DoctorSlotIndex;
+import com.MediSys.MediSys.service.ResourceBookingService;
+import com.MediSys.MediSys.service.ResourceCapacityLedger;
+import com.MediSys.MediSys.service.RoomBookingService;
+import com.MediSys.MediSys.service.SlotHoldRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the booking endpoints behind the real security chain with signed tokens, so both
+ * the role annotations and the ownership checks in the services are exercised.
+ */
+@WebMvcTest({AppointmentController.class, RoomBookingController.class, ResourceBookingController.class})
+@Import({SecurityConfig.class, TokenProvider.class, JwtAuthenticationCache.class, UnauthorizedEntryPoint.class,
+        QueryCounter.class, BookingMetrics.class, AppointmentService.class, BulkAppointmentService.class,
+        RoomBookingService.class, ResourceBookingService.class, BookingAccessTest.Metrics.class})
+class BookingAccessTest {
+
+    private static final AuthenticatedUser PATIENT = new AuthenticatedUser(10L, "patient@medisys.test", "PATIENT", null, 2L);
+    private static final AuthenticatedUser DOCTOR = new AuthenticatedUser(20L, "doctor@medisys.test", "DOCTOR", 1L, null);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private TokenProvider tokenProvider;
+
+    @MockitoBean private UserDetailsService userDetailsService;
+    @MockitoBean private AvailabilitySearchService availabilitySearchService;
+    @MockitoBean private AvailabilityBroadcaster availabilityBroadcaster;
+    @MockitoBean private DoctorRepository doctorRepository;
+    @MockitoBean private PatientRepository patientRepository;
+    @MockitoBean private AppointmentRepository appointmentRepository;
+    @MockitoBean private HospitalRoomRepository hospitalRoomRepository;
+    @MockitoBean private HospitalResourceRepository hospitalResourceRepository;
+    @MockitoBean private RoomBookingRepository roomBookingRepository;
+    @MockitoBean private ResourceBookingRepository resourceBookingRepository;
+    @MockitoBean private KeysetPager keysetPager;
+    @MockitoBean private DoctorScheduleCache doctorScheduleCache;
+    @MockitoBean private DoctorSlotIndex doctorSlotIndex;
+    @MockitoBean private BookingAvailabilityIndex bookingAvailabilityIndex;
+    @MockitoBean private ResourceCapacityLedger resourceCapacityLedger;
+    @MockitoBean private BookingLockManager bookingLockManager;
+    @MockitoBean private AppointmentCalendar appointmentCalendar;
+    @MockitoBean private SlotHoldRegistry slotHoldRegistry;
+    @MockitoBean private BookingLifecycle bookingLifecycle;
+    @MockitoBean private BookingOutbox bookingOutbox;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void patientCannotBulkBookForAnotherPatient() throws Exception {
+        mockMvc.perform(as(PATIENT, post("/api/appointments/bulk")).content(bulkFor(3L)))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bookingLockManager, appointmentRepository);
+    }
+
+    @Test
+    void doctorCannotBulkBook() throws Exception {
+        mockMvc.perform(as(DOCTOR, post("/api/appointments/bulk")).content(bulkFor(2L)))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bookingLockManager, appointmentRepository);
+    }
+
+    @Test
+    void patientCannotHoldAnotherPatientsSlot() throws Exception {
+        mockMvc.perform(as(PATIENT, post("/api/appointments/holds")).content(appointmentFor(3L)))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bookingLockManager, slotHoldRegistry);
+    }
+
+    @Test
+    void patientHoldsTheirOwnSlot() throws Exception {
+        mockMvc.perform(as(PATIENT, post("/api/appointments/holds")).content(appointmentFor(2L)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void doctorCannotHoldOrConfirmSlots() throws Exception {
+        UUID holdId = UUID.randomUUID();
+        mockMvc.perform(as(DOCTOR, post("/api/appointments/holds")).content(appointmentFor(2L)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(DOCTOR, post("/api/appointments/holds/{holdId}/confirm", holdId)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(DOCTOR, post("/api/room-bookings/holds")).content(windowFor("roomId", null)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(DOCTOR, post("/api/room-bookings/holds/{holdId}/confirm", holdId)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(DOCTOR, post("/api/resource-bookings/holds")).content(windowFor("resourceId", null)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(DOCTOR, post("/api/resource-bookings/holds/{holdId}/confirm", holdId)))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(slotHoldRegistry);
+    }
+
+    @Test
+    void patientCannotHoldRoomsOrResourcesForAnotherPatientsAppointment() throws Exception {
+        HospitalRoom room = new HospitalRoom();
+        room.setId(1L);
+        HospitalResource resource = new HospitalResource();
+        resource.setId(1L);
+        when(hospitalRoomRepository.findById(1L)).thenReturn(Optional.of(room));
+        when(hospitalResourceRepository.findById(1L)).thenReturn(Optional.of(resource));
+        when(appointmentRepository.findDetailedById(7L)).thenReturn(Optional.of(appointmentOf(3L)));
+
+        mockMvc.perform(as(PATIENT, post("/api/room-bookings/holds")).content(windowFor("roomId", 7L)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(PATIENT, post("/api/resource-bookings/holds")).content(windowFor("resourceId", 7L)))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(slotHoldRegistry);
+    }
+
+    @Test
+    void doctorReadsOnlyTheirOwnCalendarAndAppointments() throws Exception {
+        mockMvc.perform(as(DOCTOR, get("/api/appointments/calendar/{doctorId}", 1L))
+                        .param("from", "2030-01-01").param("to", "2030-01-31"))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(DOCTOR, get("/api/appointments/calendar/{doctorId}", 2L))
+                        .param("from", "2030-01-01").param("to", "2030-01-31"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(DOCTOR, get("/api/appointments/get-by-doctor/{doctorId}", 2L))
+                        .param("from", "2030-01-01").param("to", "2030-01-31"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(PATIENT, get("/api/appointments/calendar/{doctorId}", 1L))
+                        .param("from", "2030-01-01").param("to", "2030-01-31"))
+                .andExpect(status().isForbidden());
+    }
+
+    private MockHttpServletRequestBuilder as(AuthenticatedUser user, MockHttpServletRequestBuilder request) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.role())));
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenProvider.generateToken(authentication, user))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private static Appointment appointmentOf(long patientId) {
+        Patient patient = new Patient();
+        patient.setId(patientId);
+        Appointment appointment = new Appointment();
+        appointment.setId(7L);
+        appointment.setPatient(patient);
+        return appointment;
+    }
+
+    private static String appointmentFor(long patientId) {
+        return """
+                {"doctorId": 1, "patientId": %d, "appointmentDateTime": "2030-01-07T09:00:00"}""".formatted(patientId);
+    }
+
+    private static String bulkFor(long patientId) {
+        return """
+                {"mode": "ALL_OR_NOTHING", "appointments": [%s]}""".formatted(appointmentFor(patientId));
+    }
+
+    private static String windowFor(String idField, Long appointmentId) {
+        return """
+                {"%s": 1, "appointmentId": %s, "startDateTime": "2030-01-07T09:00:00", "endDateTime": "2030-01-07T10:00:00"}"""
+                .formatted(idField, appointmentId);
+    }
+}
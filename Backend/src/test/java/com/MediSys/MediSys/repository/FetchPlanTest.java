@@ -0,0 +1,123 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.dto.AppointmentSummary;
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.dto.ResourceBookingSummary;
+import com.MediSys.MediSys.dto.RoomBookingSummary;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Loads each endpoint fetch plan over {@value #ROWS} rows whose associations are all
+ * distinct, touches everything the endpoint serializes and counts the statements issued.
+ * One statement per plan means no association is loaded row by row.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(KeysetPager.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetchplans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class FetchPlanTest {
+
+    private static final int ROWS = 10;
+
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private KeysetPager keysetPager;
+    @Autowired private EntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("insert into role (id, name) values (1, 'PATIENT'), (2, 'DOCTOR')");
+        jdbcTemplate.update("insert into `user` (id, role_id, email) values (1, 2, 'doctor@example.com')");
+        jdbcTemplate.update("insert into doctors (id, user_id, active, years_of_experience, full_name) "
+                + "values (1, 1, true, 5, 'Dr A')");
+        jdbcTemplate.update("insert into doctor_schedule (doctor_id, day_of_week, start_time, end_time, slot_duration) "
+                + "values (1, 'MONDAY', '09:00', '17:00', 30), (1, 'TUESDAY', '09:00', '17:00', 30)");
+        for (int i = 1; i <= ROWS; i++) {
+            long userId = i + 1;
+            jdbcTemplate.update("insert into `user` (id, role_id, email) values (?, 1, ?)", userId, "patient" + i + "@example.com");
+            jdbcTemplate.update("insert into patient (id, user_id, active, full_name) values (?, ?, true, ?)",
+                    i, userId, "Patient " + i);
+            jdbcTemplate.update("insert into appointment (id, doctor_id, patient_id, appointment_date_time, status) "
+                    + "values (?, 1, ?, ?, 'SCHEDULED')", i, i, LocalDateTime.of(2030, 1, 7, 9, 0).plusMinutes(30L * i));
+            jdbcTemplate.update("insert into hospital_room (id, room_number, type) values (?, ?, 'GENERAL')", i, "R" + i);
+            jdbcTemplate.update("insert into hospital_resource (id, name, price, quantity) values (?, ?, 10, 1)", i, "Res " + i);
+            jdbcTemplate.update("insert into room_booking (room_id, user_id, appointment_id, start_date_time, end_date_time, status) "
+                    + "values (?, ?, ?, '2030-01-07 09:00:00', '2030-01-07 10:00:00', 'BOOKED')", i, userId, i);
+            jdbcTemplate.update("insert into resource_booking (resource_id, user_id, appointment_id, start_date_time, "
+                    + "end_date_time, status) values (?, ?, ?, '2030-01-07 09:00:00', '2030-01-07 10:00:00', 'BOOKED')",
+                    i, userId, i);
+        }
+    }
+
+    @Test
+    void appointmentsByDoctorLoadInOneStatement() {
+        assertOneStatement(() -> {
+            LocalDateTime day = LocalDateTime.of(2030, 1, 7, 0, 0);
+            List<Appointment> appointments = appointmentRepository.findByDoctorBetween(
+                    entityManager.getReference(Doctor.class, 1L), day, day.plusDays(1));
+            appointments.forEach(appointment -> appointment.getPatient().getUser().getRole().getName());
+            return appointments.size();
+        });
+    }
+
+    @Test
+    void appointmentDetailsLoadInOneStatement() {
+        assertOneStatement(() -> {
+            Appointment appointment = appointmentRepository.findDetailedById(1L).orElseThrow();
+            appointment.getDoctor().getUser().getRole().getName();
+            appointment.getPatient().getUser().getRole().getName();
+            return appointment.getDoctor().getSchedules().size() == 2 ? ROWS : 0;
+        });
+    }
+
+    @Test
+    void bookingAndAppointmentListingsLoadInOneStatement() {
+        assertOneStatement(() -> {
+            CursorPage<RoomBookingSummary> page = keysetPager.fetch(Listings.ROOM_BOOKINGS, new PageQuery());
+            return page.getItems().size();
+        });
+        assertOneStatement(() -> {
+            CursorPage<ResourceBookingSummary> page = keysetPager.fetch(Listings.RESOURCE_BOOKINGS, new PageQuery());
+            return page.getItems().size();
+        });
+        assertOneStatement(() -> {
+            CursorPage<AppointmentSummary> page = keysetPager.fetch(Listings.APPOINTMENTS, new PageQuery());
+            return page.getItems().size();
+        });
+    }
+
+    private void assertOneStatement(Supplier<Integer> plan) {
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(ROWS, plan.get());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
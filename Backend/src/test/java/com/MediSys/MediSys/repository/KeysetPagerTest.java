@@ -0,0 +1,149 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.dto.CursorPage;
+import com.MediSys.MediSys.dto.DoctorSummary;
+import com.MediSys.MediSys.dto.HospitalResourceSummary;
+import com.MediSys.MediSys.dto.HospitalRoomSummary;
+import com.MediSys.MediSys.dto.PageQuery;
+import com.MediSys.MediSys.model.Doctor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(KeysetPager.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keysetpager;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false"
+})
+class KeysetPagerTest {
+
+    @Autowired private KeysetPager keysetPager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("insert into doctors (id, active, years_of_experience, full_name) "
+                + "values (1, true, 5, 'Dr A'), (2, true, 5, 'Dr B')");
+    }
+
+    @Test
+    void malformedCursorValueIsRejectedAsInvalid() {
+        PageQuery query = page("startDateTime", cursor("startDateTime,asc,1,yesterday"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> keysetPager.fetch(Listings.ROOM_BOOKINGS, query));
+        assertEquals("Invalid page cursor", e.getMessage());
+    }
+
+    @Test
+    void nullSortValueIsNeverEncodedIntoACursor() {
+        KeysetListing<Doctor, DoctorSummary> bySpecialization = KeysetListing.of(Doctor.class, DoctorSummary.class,
+                        (root, cb) -> cb.construct(DoctorSummary.class, root.get("id"), root.get("fullName"),
+                                root.get("email"), root.get("phone"), root.get("specialization"),
+                                root.get("registrationNumber"), root.get("yearsOfExperience"), root.get("gender"), root.get("active"), root.get("imageUrl")),
+                        DoctorSummary::getId)
+                .sortable("specialization", String.class, (root, cb) -> root.get("specialization"),
+                        DoctorSummary::getSpecialization);
+
+        assertThrows(IllegalStateException.class, () -> keysetPager.fetch(bySpecialization, page("specialization", null)));
+    }
+
+    @Test
+    void coalescedSortKeyPagesThroughEveryRow() {
+        jdbcTemplate.update("update doctors set full_name = null");
+        PageQuery query = page("fullName", null);
+
+        CursorPage<DoctorSummary> first = keysetPager.fetch(Listings.DOCTORS, query);
+        query.setCursor(first.getNextCursor());
+        CursorPage<DoctorSummary> second = keysetPager.fetch(Listings.DOCTORS, query);
+
+        assertEquals(List.of(1L, 2L), List.of(first.getItems().get(0).getId(), second.getItems().get(0).getId()));
+    }
+
+    @Test
+    void roomAndResourceCataloguesPageInSortOrder() {
+        jdbcTemplate.update("insert into hospital_room (id, room_number, type, price) "
+                + "values (1, '102', 'ICU', 10), (2, '101', 'Ward', 5), (3, '103', 'Ward', 5)");
+        jdbcTemplate.update("insert into hospital_resource (id, name, quantity, price, version) "
+                + "values (1, 'Wheelchair', 4, 1, 0), (2, null, 1, 1, 0), (3, 'Oxygen', 2, 1, 0)");
+
+        List<String> rooms = new ArrayList<>();
+        PageQuery byNumber = page("roomNumber", null);
+        do {
+            CursorPage<HospitalRoomSummary> page = keysetPager.fetch(Listings.ROOMS, byNumber);
+            page.getItems().forEach(room -> rooms.add(room.getRoomNumber()));
+            byNumber.setCursor(page.getNextCursor());
+        } while (byNumber.getCursor() != null);
+        List<Long> resources = new ArrayList<>();
+        PageQuery byName = page("name", null);
+        do {
+            CursorPage<HospitalResourceSummary> page = keysetPager.fetch(Listings.RESOURCES, byName);
+            page.getItems().forEach(resource -> resources.add(resource.getId()));
+            byName.setCursor(page.getNextCursor());
+        } while (byName.getCursor() != null);
+
+        assertEquals(List.of("101", "102", "103"), rooms);
+        assertEquals(List.of(2L, 3L, 1L), resources);
+    }
+
+    @Test
+    void cacheKeyIsTheSameForEquivalentQueries() {
+        PageQuery unset = new PageQuery();
+        unset.setSort(null);
+        unset.setDirection(null);
+        PageQuery explicit = new PageQuery();
+        explicit.setSize(20);
+        explicit.setDirection("ASC");
+        PageQuery oversized = page("fullName", null);
+        oversized.setSize(5_000);
+        PageQuery largest = page("fullName", null);
+        largest.setSize(100);
+
+        assertEquals(keysetPager.cacheKey(Listings.DOCTORS, explicit), keysetPager.cacheKey(Listings.DOCTORS, unset));
+        assertEquals(keysetPager.cacheKey(Listings.DOCTORS, largest), keysetPager.cacheKey(Listings.DOCTORS, oversized));
+    }
+
+    @Test
+    void cacheKeyRejectsWhatFetchRejectsAndSkipsCursorPages() {
+        PageQuery unknownSort = page("email", null);
+        PageQuery forgedCursor = page("fullName", "not-a-cursor");
+        PageQuery otherOrder = page("fullName", cursor("id,asc,1,1"));
+
+        assertThrows(IllegalArgumentException.class, () -> keysetPager.cacheKey(Listings.DOCTORS, unknownSort));
+        assertThrows(IllegalArgumentException.class, () -> keysetPager.cacheKey(Listings.DOCTORS, forgedCursor));
+        assertThrows(IllegalArgumentException.class, () -> keysetPager.cacheKey(Listings.DOCTORS, otherOrder));
+        assertNull(keysetPager.cacheKey(Listings.DOCTORS, page("fullName", cursor("fullName,asc,1,Dr A"))));
+    }
+
+    private static PageQuery page(String sort, String cursor) {
+        PageQuery query = new PageQuery();
+        query.setSort(sort);
+        query.setSize(1);
+        query.setCursor(cursor);
+        return query;
+    }
+
+    private static String cursor(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
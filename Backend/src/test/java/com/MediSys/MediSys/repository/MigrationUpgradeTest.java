@@ -0,0 +1,64 @@
+package com.MediSys.MediSys.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Upgrades a database the way production gets it: created by the old ddl-auto=update and
+ * holding data from that era, then baselined at V1 and migrated by Flyway.
+ */
+class MigrationUpgradeTest {
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:upgrade;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+            "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @Test
+    void baselineEraDatabaseMigratesWithItsData() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+        jdbcTemplate.update("insert into doctors (id, active, years_of_experience, full_name) values (1, true, 5, 'Dr A')");
+        jdbcTemplate.update("insert into patient (id, active, full_name) values (1, true, 'Pat')");
+        jdbcTemplate.update("insert into doctor_schedule (id, doctor_id, day_of_week, start_time, end_time, slot_duration) "
+                + "values (1, 1, 'MONDAY', '09:00', '12:00', 30), (2, 1, 'MONDAY', '10:00', '14:00', 30)");
+        // Appointment 2 double-books appointment 1's slot; 3 was cancelled, so it never counted
+        jdbcTemplate.update("insert into appointment (id, doctor_id, patient_id, appointment_date_time, status) values "
+                + "(1, 1, 1, '2030-01-07 09:00:00', 'SCHEDULED'), "
+                + "(2, 1, 1, '2030-01-07 09:00:00', 'CONFIRMED'), "
+                + "(3, 1, 1, '2030-01-07 09:00:00', 'CANCELLED'), "
+                + "(120, 1, 1, '2030-01-07 10:00:00', 'COMPLETED')");
+        jdbcTemplate.update("insert into hospital_resource (id, name, price, quantity) values (1, 'Wheelchair', 10, 4)");
+        // Two units still taken, one of them by a booking that ended but was not swept yet
+        jdbcTemplate.update("insert into resource_booking (resource_id, start_date_time, end_date_time, status) values "
+                + "(1, '2030-01-07 09:00:00', '2030-01-07 10:00:00', 'BOOKED'), "
+                + "(1, '2020-01-07 09:00:00', '2020-01-07 10:00:00', 'BOOKED'), "
+                + "(1, '2030-01-07 09:00:00', '2030-01-07 10:00:00', 'CANCELLED'), "
+                + "(1, '2020-01-06 09:00:00', '2020-01-06 10:00:00', 'COMPLETED')");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals(List.of("SCHEDULED", "CANCELLED", "CANCELLED", "COMPLETED"),
+                jdbcTemplate.queryForList("select status from appointment order by id", String.class));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("select id from doctor_schedule", Long.class));
+        assertEquals(171L, jdbcTemplate.queryForObject("select next_val from appointment_seq", Long.class));
+        Map<String, Object> day = jdbcTemplate.queryForMap("select scheduled, confirmed, completed, cancelled "
+                + "from doctor_calendar_day where doctor_id = 1 and calendar_date = '2030-01-07'");
+        assertEquals(List.of(1, 0, 1, 2), day.values().stream().map(count -> ((Number) count).intValue()).toList());
+        assertEquals(0L, jdbcTemplate.queryForObject("select version from hospital_resource", Long.class));
+        assertEquals(6, jdbcTemplate.queryForObject("select quantity from hospital_resource", Integer.class));
+    }
+}
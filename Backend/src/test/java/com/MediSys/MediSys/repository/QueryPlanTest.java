@@ -0,0 +1,179 @@
+package com.MediSys.MediSys.repository;
+
+import com.MediSys.MediSys.auth.repository.RoleRepository;
+import com.MediSys.MediSys.auth.repository.UserRepository;
+import com.MediSys.MediSys.dto.ExportQuery;
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.model.HospitalResource;
+import com.MediSys.MediSys.model.HospitalRoom;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository finder against the Flyway schema on H2 in MySQL mode and fails
+ * if the plan of any statement it issues scans a whole table.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ExportRepository.class, QueryPlanTest.SqlRecorder.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false"
+})
+class QueryPlanTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class SqlRecorder {
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorder() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                statements.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private BookingOutboxRepository outboxRepository;
+    @Autowired private DoctorCalendarDayRepository calendarDayRepository;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private DoctorScheduleRepository doctorScheduleRepository;
+    @Autowired private HospitalResourceRepository resourceRepository;
+    @Autowired private HospitalRoomRepository roomRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private ResourceBookingRepository resourceBookingRepository;
+    @Autowired private RoomBookingRepository roomBookingRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ExportRepository exportRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void noFinderScansAWholeTable() {
+        LocalDateTime now = LocalDateTime.now();
+        Doctor doctor = entityManager.getReference(Doctor.class, 1L);
+        HospitalRoom room = entityManager.getReference(HospitalRoom.class, 1L);
+        HospitalResource resource = entityManager.getReference(HospitalResource.class, 1L);
+        List<AppointmentStatus> active = List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("appointment by doctor and time", () ->
+                appointmentRepository.findByDoctorAndAppointmentDateTimeBetween(doctor, now, now.plusDays(1)));
+        finders.put("appointment by doctor, time and status", () ->
+                appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(1L, now, now.plusDays(1), active));
+        finders.put("booked slots", () ->
+                appointmentRepository.findBookedSlots(List.of(1L, 2L), now, now.plusDays(7), active));
+        finders.put("appointment by doctor", () -> appointmentRepository.findByDoctorBetween(doctor, now, now.plusDays(31)));
+        finders.put("appointment details", () -> appointmentRepository.findDetailedById(1L));
+        finders.put("appointments starting before", () ->
+                appointmentRepository.findStartingBefore(active, now, 0L, Limit.of(500)));
+        finders.put("appointments to complete", () -> appointmentRepository.lockByIdInAndStatusIn(List.of(1L, 2L), active));
+        finders.put("appointment completion", () -> appointmentRepository
+                .updateStatus(List.of(1L, 2L), active, AppointmentStatus.COMPLETED, now));
+        finders.put("unpublished booking events", () -> outboxRepository
+                .findByPublishedAtIsNullAndAbandonedAtIsNullAndIdGreaterThanOrderById(0L, Limit.of(200)));
+        finders.put("abandoned booking events", () -> outboxRepository.findByPublishedAtIsNullAndAbandonedAtIsNotNull());
+        finders.put("published booking events", () -> outboxRepository.findPublishedBefore(now, Limit.of(200)));
+        finders.put("booking events published", () -> outboxRepository.markPublished(List.of(1L, 2L), now));
+        finders.put("booking event attempts", () -> outboxRepository.recordFailedAttempt(List.of(1L, 2L)));
+        finders.put("booking events abandoned", () -> outboxRepository.markAbandoned(List.of(1L, 2L), now));
+        finders.put("calendar days", () -> calendarDayRepository
+                .findByDoctorIdAndCalendarDateBetweenOrderByCalendarDate(1L, LocalDate.now(), LocalDate.now().plusDays(30)));
+        finders.put("calendar upsert", () -> calendarDayRepository.addCounts(1L, LocalDate.now(), 1, 0, 0, 0));
+        finders.put("doctor email", () -> doctorRepository.existsByEmail("doctor@example.com"));
+        finders.put("doctor user", () -> doctorRepository.findByUserId(1L));
+        finders.put("doctor id by user", () -> doctorRepository.findIdByUserId(1L));
+        finders.put("doctor image", () -> doctorRepository.existsByImageUrl("a.png"));
+        finders.put("schedules by doctor", () -> doctorScheduleRepository.findSummariesByDoctorId(1L));
+        finders.put("schedules by specialization", () ->
+                doctorScheduleRepository.findActiveSummariesBySpecialization("Cardiology"));
+        finders.put("schedule day", () -> doctorScheduleRepository.existsByDoctorAndDayOfWeek(doctor, "MONDAY"));
+        finders.put("resource name", () -> resourceRepository.existsByName("MRI"));
+        finders.put("resource image", () -> resourceRepository.existsByImage("a.png"));
+        finders.put("room number", () -> roomRepository.existsByRoomNumber("101"));
+        finders.put("room picture", () -> roomRepository.existsByRoomPicture("a.png"));
+        finders.put("patient email", () -> patientRepository.existsByEmail("patient@example.com"));
+        finders.put("patient by email", () -> patientRepository.findByEmail("patient@example.com"));
+        finders.put("patient user", () -> patientRepository.findByUserId(1L));
+        finders.put("patient id by user", () -> patientRepository.findIdByUserId(1L));
+        finders.put("resource bookings by resource", () -> resourceBookingRepository
+                .findByResourceAndStartDateTimeBetweenAndStatus(resource, now, now.plusDays(1), BookingStatus.BOOKED));
+        finders.put("ended resource bookings", () ->
+                resourceBookingRepository.findByEndDateTimeBeforeAndStatus(now, BookingStatus.BOOKED));
+        finders.put("running resource bookings", () ->
+                resourceBookingRepository.findByStatusAndEndDateTimeAfter(BookingStatus.BOOKED, now));
+        finders.put("ending resource bookings", () ->
+                resourceBookingRepository.findEndingBefore(BookingStatus.BOOKED, now, 0L, Limit.of(500)));
+        finders.put("resource booking completion", () -> resourceBookingRepository
+                .updateStatusIfEnded(List.of(1L, 2L), BookingStatus.BOOKED, BookingStatus.COMPLETED, now));
+        finders.put("room bookings by room", () -> roomBookingRepository
+                .findByRoomAndStartDateTimeBetweenAndStatus(room, now, now.plusDays(1), BookingStatus.BOOKED));
+        finders.put("running room bookings", () ->
+                roomBookingRepository.findByStatusAndEndDateTimeAfter(BookingStatus.BOOKED, now));
+        finders.put("ending room bookings", () ->
+                roomBookingRepository.findEndingBefore(BookingStatus.BOOKED, now, 0L, Limit.of(500)));
+        finders.put("room booking completion", () -> roomBookingRepository
+                .updateStatusIfEnded(List.of(1L, 2L), BookingStatus.BOOKED, BookingStatus.COMPLETED, now));
+        finders.put("role name", () -> roleRepository.findByName("ADMIN"));
+        finders.put("user by email", () -> userRepository.findByEmail("user@example.com"));
+        finders.put("user email", () -> userRepository.existsByEmail("user@example.com"));
+
+        List<String> scans = new ArrayList<>();
+        finders.forEach((name, finder) -> {
+            statements.clear();
+            finder.run();
+            assertTrue(!statements.isEmpty(), name + " issued no statement");
+            statements.forEach(sql -> explain(name, sql, scans));
+        });
+
+        ExportQuery query = new ExportQuery();
+        query.setFrom(now.minusDays(30));
+        query.setTo(now);
+        for (ExportRepository.Export export : List.of(exportRepository.appointments(query, "SCHEDULED"),
+                exportRepository.roomBookings(query, "BOOKED"), exportRepository.resourceBookings(query, "BOOKED"))) {
+            explain("export " + export.name(), export.sql(), scans);
+        }
+
+        assertTrue(scans.isEmpty(), "Full table scans:\n" + String.join("\n\n", scans));
+    }
+
+    private void explain(String name, String sql, List<String> scans) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+        if (plan.toLowerCase(Locale.ROOT).contains("tablescan")) {
+            scans.add(name + ":\n" + sql + "\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.AppointmentRequest;
+import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Books one slot from two transactions against a real database running snapshot
+ * isolation, like InnoDB's REPEATABLE READ. The loser starts its transaction while the
+ * winner still holds the slot lock, and must be turned away by the availability check
+ * rather than by the unique key.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AppointmentBookingIsolationTest.SqlRecorder.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:isolation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.connection-init-sql=SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL SNAPSHOT",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false"
+})
+class AppointmentBookingIsolationTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class SqlRecorder {
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorder() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                statements.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private DoctorScheduleRepository doctorScheduleRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loserSeesTheWinnersCommittedBooking() throws Exception {
+        jdbcTemplate.update("insert into doctors (id, active, years_of_experience, full_name) values (1, true, 5, 'Dr A')");
+        jdbcTemplate.update("insert into patient (id, active, full_name) values (1, true, 'Pat'), (2, true, 'Sam')");
+        jdbcTemplate.update("insert into doctor_schedule (doctor_id, day_of_week, start_time, end_time, slot_duration) "
+                + "values (1, 'MONDAY', '09:00', '12:00', 30)");
+        LocalDateTime slot = LocalDate.now().plusWeeks(1)
+                .with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY)).atTime(9, 0);
+
+        AppointmentService service = new AppointmentService(doctorRepository, patientRepository, appointmentRepository,
+                new DoctorScheduleCache(doctorScheduleRepository, doctorRepository), new DoctorSlotIndex(),
+                new BookingLockManager(), mock(KeysetPager.class), new BookingMetrics(new SimpleMeterRegistry()),
+                mock(AppointmentCalendar.class), mock(AvailabilityBroadcaster.class), mock(SlotHoldRegistry.class),
+                mock(BookingLifecycle.class), mock(BookingOutbox.class));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        statements.clear();
+
+        CountDownLatch winnerBooked = new CountDownLatch(1);
+        CountDownLatch loserStarted = new CountDownLatch(1);
+        CompletableFuture<Void> winner = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            service.bookAppointment(request(1L, slot));
+            winnerBooked.countDown();
+            await(loserStarted);
+            // Commit only once the loser is inside its transaction and waiting for the lock
+            sleep();
+        }));
+        CompletableFuture<Void> loser = CompletableFuture.runAsync(() -> {
+            await(winnerBooked);
+            transaction.executeWithoutResult(status -> {
+                loserStarted.countDown();
+                service.bookAppointment(request(2L, slot));
+            });
+        });
+
+        winner.get(10, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> loser.get(10, TimeUnit.SECONDS));
+        BookingConflictException conflict = assertInstanceOf(BookingConflictException.class, failure.getCause());
+        assertEquals(BookingConflictException.Reason.SLOT_TAKEN, conflict.getReason());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from appointment", Integer.class));
+        assertEquals(1, statements.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("insert into appointment")).count());
+    }
+
+    private static AppointmentRequest request(Long patientId, LocalDateTime slot) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setDoctorId(1L);
+        request.setPatientId(patientId);
+        request.setAppointmentDateTime(slot);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.AppointmentRequest;
+import com.MediSys.MediSys.dto.BulkAppointmentRequest;
+import com.MediSys.MediSys.dto.CalendarDaySummary;
+import com.MediSys.MediSys.enums.AppointmentStatus;
+import com.MediSys.MediSys.enums.BulkBookingMode;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorCalendarDayRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Books, moves and cancels appointments through the services and checks that the
+ * calendar's incrementally kept counts, both the in-memory window and the
+ * doctor_calendar_day rows, match a fresh count of the appointment table.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:calendar;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false"
+})
+class AppointmentCalendarTest {
+
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(1L, "admin@medisys.test", "ADMIN", null, null);
+
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private DoctorScheduleRepository doctorScheduleRepository;
+    @Autowired private DoctorCalendarDayRepository calendarDayRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private AppointmentCalendar calendar;
+    private AppointmentService appointmentService;
+    private BulkAppointmentService bulkAppointmentService;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from doctor_calendar_day");
+        jdbcTemplate.update("delete from appointment");
+        jdbcTemplate.update("delete from doctor_schedule");
+        jdbcTemplate.update("delete from patient");
+        jdbcTemplate.update("delete from doctors");
+        jdbcTemplate.update("insert into doctors (id, active, years_of_experience, full_name) values (1, true, 5, 'Dr A')");
+        jdbcTemplate.update("insert into patient (id, active, full_name) values (1, true, 'Pat'), (2, true, 'Sam')");
+        for (DayOfWeek day : DayOfWeek.values()) {
+            jdbcTemplate.update("insert into doctor_schedule (doctor_id, day_of_week, start_time, end_time, slot_duration) "
+                    + "values (1, ?, '09:00', '12:00', 30)", day.name());
+        }
+
+        DoctorScheduleCache scheduleCache = new DoctorScheduleCache(doctorScheduleRepository, doctorRepository);
+        DoctorSlotIndex slotIndex = new DoctorSlotIndex();
+        BookingLockManager lockManager = new BookingLockManager();
+        BookingMetrics metrics = new BookingMetrics(new SimpleMeterRegistry());
+        calendar = new AppointmentCalendar(calendarDayRepository, appointmentRepository, doctorRepository, scheduleCache);
+        appointmentService = new AppointmentService(doctorRepository, patientRepository, appointmentRepository,
+                scheduleCache, slotIndex, lockManager, mock(KeysetPager.class), metrics, calendar,
+                mock(AvailabilityBroadcaster.class), mock(SlotHoldRegistry.class), mock(BookingLifecycle.class),
+                mock(BookingOutbox.class));
+        bulkAppointmentService = new BulkAppointmentService(doctorRepository, patientRepository, appointmentRepository,
+                scheduleCache, slotIndex, lockManager, metrics, calendar, mock(AvailabilityBroadcaster.class),
+                mock(SlotHoldRegistry.class), mock(BookingLifecycle.class), mock(BookingOutbox.class));
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void countsFollowBookingsMovesAndCancellations() {
+        // Load the in-memory window first, so every change below has to be applied to it
+        calendar.getCalendar(1L, today, today.plusDays(60));
+
+        Long first = inTransaction(() -> appointmentService.bookAppointment(request(1L, slot(1, 9, 0)))).getId();
+        Long second = inTransaction(() -> appointmentService.bookAppointment(request(2L, slot(1, 9, 30)))).getId();
+        Long later = inTransaction(() -> appointmentService.bookAppointment(request(1L, slot(40, 10, 0)))).getId();
+        inTransaction(() -> bulkAppointmentService.book(bulk(request(1L, slot(2, 9, 0)), request(2L, slot(2, 9, 30)),
+                request(2L, slot(45, 11, 0))), ADMIN));
+        assertCountsMatchAppointments();
+
+        // Within the window, from the window to the table, and back again
+        inTransaction(() -> appointmentService.updateAppointment(first, request(1L, slot(3, 10, 0))));
+        inTransaction(() -> appointmentService.updateAppointment(second, request(2L, slot(50, 9, 0))));
+        inTransaction(() -> appointmentService.updateAppointment(later, request(1L, slot(1, 11, 0))));
+        assertCountsMatchAppointments();
+
+        inTransaction(() -> {
+            appointmentService.cancelAppointment(first);
+            return null;
+        });
+        inTransaction(() -> {
+            appointmentService.cancelAppointment(second);
+            return null;
+        });
+        assertCountsMatchAppointments();
+    }
+
+    @Test
+    void rolledBackBookingLeavesTheCountsAlone() {
+        calendar.getCalendar(1L, today, today.plusDays(60));
+        inTransaction(() -> appointmentService.bookAppointment(request(1L, slot(1, 9, 0))));
+
+        transaction.executeWithoutResult(status -> {
+            appointmentService.bookAppointment(request(2L, slot(1, 10, 0)));
+            status.setRollbackOnly();
+        });
+
+        assertCountsMatchAppointments();
+    }
+
+    private void assertCountsMatchAppointments() {
+        Map<LocalDate, Map<AppointmentStatus, Integer>> expected = new HashMap<>();
+        jdbcTemplate.query("select cast(appointment_date_time as date) as slot_date, status, count(*) as n from appointment "
+                + "where doctor_id = 1 group by cast(appointment_date_time as date), status", rs -> {
+            expected.computeIfAbsent(rs.getDate("slot_date").toLocalDate(), day -> new HashMap<>())
+                    .put(AppointmentStatus.valueOf(rs.getString("status")), rs.getInt("n"));
+        });
+
+        // Today onwards comes from the in-memory window, the rest from doctor_calendar_day
+        for (CalendarDaySummary day : calendar.getCalendar(1L, today, today.plusDays(60))) {
+            assertEquals(counts(expected.get(day.getDate())),
+                    List.of(day.getScheduled(), day.getConfirmed(), day.getCompleted(), day.getCancelled()),
+                    "calendar counts for " + day.getDate());
+        }
+        calendarDayRepository.findByDoctorIdAndCalendarDateBetweenOrderByCalendarDate(1L, today, today.plusDays(60))
+                .forEach(row -> assertEquals(counts(expected.get(row.getCalendarDate())),
+                        List.of(row.getScheduled(), row.getConfirmed(), row.getCompleted(), row.getCancelled()),
+                        "doctor_calendar_day counts for " + row.getCalendarDate()));
+    }
+
+    private static List<Integer> counts(Map<AppointmentStatus, Integer> byStatus) {
+        Map<AppointmentStatus, Integer> counts = byStatus == null ? Map.of() : byStatus;
+        return List.of(counts.getOrDefault(AppointmentStatus.SCHEDULED, 0), counts.getOrDefault(AppointmentStatus.CONFIRMED, 0),
+                counts.getOrDefault(AppointmentStatus.COMPLETED, 0), counts.getOrDefault(AppointmentStatus.CANCELLED, 0));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transaction.execute(status -> work.get());
+    }
+
+    private LocalDateTime slot(int daysAhead, int hour, int minute) {
+        return today.plusDays(daysAhead).atTime(hour, minute);
+    }
+
+    private static AppointmentRequest request(Long patientId, LocalDateTime slot) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setDoctorId(1L);
+        request.setPatientId(patientId);
+        request.setAppointmentDateTime(slot);
+        return request;
+    }
+
+    private static BulkAppointmentRequest bulk(AppointmentRequest... requests) {
+        BulkAppointmentRequest request = new BulkAppointmentRequest();
+        request.setMode(BulkBookingMode.ALL_OR_NOTHING);
+        request.setAppointments(new ArrayList<>(List.of(requests)));
+        return request;
+    }
+}
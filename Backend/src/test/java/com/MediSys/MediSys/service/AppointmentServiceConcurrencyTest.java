@@ -0,0 +1,175 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.AppointmentRequest;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.model.Patient;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    private final LocalDateTime slot = LocalDate.now().plusWeeks(1)
+            .with(TemporalAdjusters.nextOrSame(java.time.DayOfWeek.MONDAY))
+            .atTime(9, 0);
+    private final List<Appointment> stored = new CopyOnWriteArrayList<>();
+    private final DoctorScheduleRepository scheduleRepository = mock(DoctorScheduleRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AppointmentService service;
+
+    @BeforeEach
+    void setUp() {
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        Patient patient = new Patient();
+        patient.setId(2L);
+        DoctorScheduleSummary schedule = new DoctorScheduleSummary(3L, 1L, "Doctor", "MONDAY",
+                LocalTime.of(9, 0), LocalTime.of(17, 0), 30);
+
+        AtomicLong ids = new AtomicLong();
+
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findById(anyLong())).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findSummariesByDoctorId(1L)).thenReturn(List.of(schedule));
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenAndStatusIn(
+                eq(1L), any(), any(), anyList()))
+                .thenAnswer(invocation -> new ArrayList<>(stored));
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            Thread.sleep(2);
+            appointment.setId(ids.incrementAndGet());
+            stored.add(appointment);
+            return appointment;
+        });
+
+        service = new AppointmentService(doctorRepository, patientRepository,
+                appointmentRepository, new DoctorScheduleCache(scheduleRepository, doctorRepository),
+                new DoctorSlotIndex(), new BookingLockManager(),
+                mock(KeysetPager.class), new BookingMetrics(meterRegistry), mock(AppointmentCalendar.class),
+                mock(AvailabilityBroadcaster.class), mock(SlotHoldRegistry.class),
+                mock(BookingLifecycle.class), mock(BookingOutbox.class));
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotHaveExactlyOneWinner() throws Exception {
+        AppointmentRequest request = request(slot);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    service.bookAppointment(request);
+                    winners.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, winners.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(1, stored.size());
+        assertEquals(THREADS - 1, meterRegistry.counter("medisys.booking.conflicts",
+                "type", "appointment", "reason", "slot_taken").count());
+        assertEquals(1, meterRegistry.timer("medisys.booking", "type", "appointment", "outcome", "success").count());
+        assertFalse(service.getAvailableSlots(1L, slot.toLocalDate()).contains(slot));
+        assertTrue(service.getAvailableSlots(1L, slot.toLocalDate()).contains(slot.plusMinutes(30)));
+        verify(scheduleRepository, times(1)).findSummariesByDoctorId(1L);
+        // Far-off and past days are never loaded into the index
+        assertThrows(IllegalArgumentException.class, () -> service.getAvailableSlots(1L, LocalDate.now().plusYears(2)));
+        assertTrue(service.getAvailableSlots(1L, LocalDate.now().minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void secondsPastTheSlotStartAreRejectedRatherThanBookedAlongside() throws Exception {
+        // Both pass a minute-based alignment check, but would lock and store under different keys
+        List<AppointmentRequest> requests = List.of(request(slot), request(slot.plusSeconds(30)),
+                request(slot.plusNanos(1)));
+        ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingConflictException.Reason>> outcomes = new ArrayList<>();
+        for (AppointmentRequest request : requests) {
+            outcomes.add(executor.submit(() -> {
+                start.await();
+                try {
+                    service.bookAppointment(request);
+                    return null;
+                } catch (BookingConflictException e) {
+                    return e.getReason();
+                }
+            }));
+        }
+        start.countDown();
+        List<BookingConflictException.Reason> reasons = new ArrayList<>();
+        for (Future<BookingConflictException.Reason> outcome : outcomes) {
+            reasons.add(outcome.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(Arrays.asList(null, BookingConflictException.Reason.OFF_SCHEDULE,
+                BookingConflictException.Reason.OFF_SCHEDULE), reasons);
+        assertEquals(List.of(slot), stored.stream().map(Appointment::getAppointmentDateTime).toList());
+    }
+
+    private static AppointmentRequest request(LocalDateTime slot) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setDoctorId(1L);
+        request.setPatientId(2L);
+        request.setAppointmentDateTime(slot);
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.MediSys.MediSys.service;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AvailabilityBroadcasterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    private final AvailabilityBroadcaster broadcaster = new AvailabilityBroadcaster(Runnable::run,
+            new SimpleMeterRegistry(), Duration.ofMinutes(5), 2, 16);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(broadcaster))
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build()))
+            .build();
+
+    @RestController
+    static class StreamController {
+        private final AvailabilityBroadcaster broadcaster;
+
+        StreamController(AvailabilityBroadcaster broadcaster) {
+            this.broadcaster = broadcaster;
+        }
+
+        @GetMapping(value = "/doctor", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        ResponseEntity<SseEmitter> doctor(@RequestParam Long doctorId) {
+            return broadcaster.subscribeDoctor(doctorId, DAY, () -> List.of(DAY.atTime(9, 0), DAY.atTime(9, 30)))
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(503).build());
+        }
+
+        @GetMapping(value = "/room", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        ResponseEntity<SseEmitter> room() {
+            return broadcaster.subscribeRoom(1L, DAY.atTime(8, 0), DAY.atTime(12, 0), List::of)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(503).build());
+        }
+    }
+
+    @Test
+    void streamsSnapshotThenDeltasForTheSubscribedDay() throws Exception {
+        MvcResult result = mockMvc.perform(get("/doctor").param("doctorId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        broadcaster.doctorSlotTaken(1L, DAY.atTime(9, 0));
+        broadcaster.doctorSlotTaken(2L, DAY.atTime(9, 0));
+        broadcaster.doctorSlotTaken(1L, DAY.plusDays(1).atTime(9, 0));
+        broadcaster.doctorSlotFreed(1L, DAY.atTime(9, 0));
+
+        String body = result.getResponse().getContentAsString();
+        assertEquals("event:snapshot\ndata:[\"2030-01-07T09:00:00\",\"2030-01-07T09:30:00\"]\n\n"
+                + "event:slot-taken\ndata:{\"doctorId\":1,\"start\":\"2030-01-07T09:00:00\"}\n\n"
+                + "event:slot-freed\ndata:{\"doctorId\":1,\"start\":\"2030-01-07T09:00:00\"}\n\n", body);
+    }
+
+    @Test
+    void roomSubscribersOnlySeeBookingsOverlappingTheirWindow() throws Exception {
+        MvcResult result = mockMvc.perform(get("/room")).andExpect(request().asyncStarted()).andReturn();
+
+        broadcaster.roomSlotTaken(1L, DAY.atTime(12, 0), DAY.atTime(13, 0));
+        broadcaster.roomSlotTaken(1L, DAY.atTime(11, 0), DAY.atTime(13, 0));
+
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.endsWith("event:slot-taken\ndata:{\"roomId\":1,\"start\":\"2030-01-07T11:00:00\","
+                + "\"end\":\"2030-01-07T13:00:00\"}\n\n"));
+        assertEquals(1, body.split("slot-taken", -1).length - 1);
+    }
+
+    @Test
+    void rejectsSubscribersOverTheLimit() throws Exception {
+        mockMvc.perform(get("/doctor").param("doctorId", "1")).andExpect(request().asyncStarted());
+        mockMvc.perform(get("/room")).andExpect(request().asyncStarted());
+        mockMvc.perform(get("/doctor").param("doctorId", "2")).andExpect(status().isServiceUnavailable());
+
+        assertEquals(2, broadcaster.subscriberCount());
+    }
+}
@@ -0,0 +1,113 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.AvailableSlotDto;
+import com.MediSys.MediSys.dto.BookedSlot;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilitySearchServiceTest {
+
+    private static final int DOCTORS = 200;
+
+    private final LocalDate monday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    private final DoctorScheduleRepository scheduleRepository = mock(DoctorScheduleRepository.class);
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final SlotHoldRegistry slotHoldRegistry = mock(SlotHoldRegistry.class);
+    private final AvailabilitySearchService service =
+            new AvailabilitySearchService(scheduleRepository, appointmentRepository, slotHoldRegistry);
+
+    @Test
+    void returnsEarliestSlotsAcrossDoctorsInTimeOrder() {
+        List<DoctorScheduleSummary> schedules = new ArrayList<>();
+        List<BookedSlot> booked = new ArrayList<>();
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            LocalTime start = LocalTime.of(8, 0).plusMinutes((doctorId % 8) * 15);
+            for (DayOfWeek day : DayOfWeek.values()) {
+                schedules.add(new DoctorScheduleSummary(doctorId * 10 + day.getValue(), doctorId, "Doctor " + doctorId,
+                        day.toString(), start, start.plusHours(8), 30));
+            }
+            booked.add(new BookedSlot(doctorId, monday.atTime(start)));
+        }
+        when(scheduleRepository.findActiveSummariesBySpecialization("Cardiology")).thenReturn(schedules);
+        when(appointmentRepository.findBookedSlots(anyCollection(), any(), any(), anyList())).thenReturn(booked);
+
+        List<AvailableSlotDto> results = service.search("Cardiology", monday, monday.plusDays(13),
+                LocalTime.of(8, 0), LocalTime.of(18, 0), 50);
+
+        assertEquals(50, results.size());
+        List<AvailableSlotDto> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparing(AvailableSlotDto::getStart).thenComparing(AvailableSlotDto::getDoctorId));
+        assertEquals(sorted, results);
+        // Every doctor's first Monday slot is booked, so the earliest result is the 08:00 starters' second slot.
+        assertEquals(monday.atTime(8, 30), results.get(0).getStart());
+        assertFalse(results.stream().anyMatch(slot ->
+                slot.getStart().equals(monday.atTime(LocalTime.of(8, 0).plusMinutes((slot.getDoctorId() % 8) * 15)))));
+    }
+
+    @Test
+    void respectsTheTimeWindow() {
+        when(scheduleRepository.findActiveSummariesBySpecialization("Cardiology")).thenReturn(List.of(
+                new DoctorScheduleSummary(1L, 1L, "Doctor", "MONDAY", LocalTime.of(9, 0), LocalTime.of(17, 0), 30)));
+        when(appointmentRepository.findBookedSlots(anyCollection(), any(), any(), anyList())).thenReturn(List.of());
+
+        List<AvailableSlotDto> results = service.search("Cardiology", monday, monday,
+                LocalTime.of(12, 0), LocalTime.of(13, 30), null);
+
+        assertEquals(List.of(monday.atTime(12, 0), monday.atTime(12, 30), monday.atTime(13, 0)),
+                results.stream().map(AvailableSlotDto::getStart).toList());
+        assertTrue(results.stream().allMatch(slot -> !slot.getEnd().isAfter(monday.atTime(13, 30))));
+    }
+
+    @Test
+    void leavesOutHeldSlots() {
+        when(scheduleRepository.findActiveSummariesBySpecialization("Cardiology")).thenReturn(List.of(
+                new DoctorScheduleSummary(1L, 1L, "Doctor", "MONDAY", LocalTime.of(9, 0), LocalTime.of(10, 30), 30)));
+        when(appointmentRepository.findBookedSlots(anyCollection(), any(), any(), anyList())).thenReturn(List.of());
+        when(slotHoldRegistry.isDoctorSlotHeld(1L, monday.atTime(9, 30))).thenReturn(true);
+
+        List<AvailableSlotDto> results = service.search("Cardiology", monday, monday, null, null, 2);
+
+        assertEquals(List.of(monday.atTime(9, 0), monday.atTime(10, 0)),
+                results.stream().map(AvailableSlotDto::getStart).toList());
+    }
+
+    @Test
+    void rejectsRangesLongerThanAMonth() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.search("Cardiology", monday, monday.plusDays(31), null, null, null));
+    }
+
+    @Test
+    void skipsSlotsInThePast() {
+        LocalDate today = LocalDateTime.now().toLocalDate();
+        when(scheduleRepository.findActiveSummariesBySpecialization("Cardiology")).thenReturn(List.of(
+                new DoctorScheduleSummary(1L, 1L, "Doctor", today.getDayOfWeek().toString(),
+                        LocalTime.MIN, LocalTime.of(23, 30), 30)));
+        when(appointmentRepository.findBookedSlots(anyCollection(), any(), any(), anyList())).thenReturn(List.of());
+
+        List<AvailableSlotDto> results = service.search("Cardiology", today, today, null, null, 100);
+
+        assertTrue(results.stream().allMatch(slot -> slot.getStart().isAfter(LocalDateTime.now().minusSeconds(1))));
+    }
+}
@@ -0,0 +1,64 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.dto.BookingEnd;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.ResourceBookingRepository;
+import com.MediSys.MediSys.repository.RoomBookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingLifecycleTest {
+
+    private final RoomBookingRepository roomBookingRepository = mock(RoomBookingRepository.class);
+    private final ResourceBookingRepository resourceBookingRepository = mock(ResourceBookingRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingLifecycle lifecycle = new BookingLifecycle(mock(AppointmentRepository.class),
+            roomBookingRepository, resourceBookingRepository, mock(DoctorScheduleCache.class),
+            mock(AppointmentCalendar.class), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            meterRegistry, Duration.ofHours(1), 500, 100);
+
+    @Test
+    void endedBookingsCompleteOnLoadAndUpcomingOnesOnTheirTick() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        when(roomBookingRepository.findEndingBefore(eq(BookingStatus.BOOKED), any(), eq(0L), any()))
+                .thenReturn(List.of(new BookingEnd(1L, now.minusHours(3)), new BookingEnd(2L, now.plusNanos(200_000_000))));
+        when(roomBookingRepository.updateStatusIfEnded(anyCollection(), any(), any(), any())).thenReturn(1);
+
+        lifecycle.extendHorizon();
+        // Left over from before a restart, so completed while loading
+        verify(roomBookingRepository).updateStatusIfEnded(eq(List.of(1L)), eq(BookingStatus.BOOKED),
+                eq(BookingStatus.COMPLETED), any());
+
+        lifecycle.scheduled(BookingLifecycle.Kind.RESOURCE, 3L, now.plusNanos(200_000_000));
+        // Beyond the horizon, so left for a later extension
+        lifecycle.scheduled(BookingLifecycle.Kind.RESOURCE, 4L, now.plusHours(2));
+        assertEquals(2, meterRegistry.get("medisys.booking.lifecycle.scheduled").gauge().value());
+
+        lifecycle.completeDue();
+        verify(resourceBookingRepository, never()).updateStatusIfEnded(anyCollection(), any(), any(), any());
+
+        Thread.sleep(400);
+        lifecycle.completeDue();
+        verify(roomBookingRepository).updateStatusIfEnded(eq(List.of(2L)), eq(BookingStatus.BOOKED),
+                eq(BookingStatus.COMPLETED), any());
+        verify(resourceBookingRepository).updateStatusIfEnded(eq(List.of(3L)), eq(BookingStatus.BOOKED),
+                eq(BookingStatus.COMPLETED), any());
+        assertEquals(0, meterRegistry.get("medisys.booking.lifecycle.scheduled").gauge().value());
+    }
+}
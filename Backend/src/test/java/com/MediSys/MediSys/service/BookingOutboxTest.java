@@ -0,0 +1,122 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.enums.BookingEventType;
+import com.MediSys.MediSys.model.BookingOutboxEvent;
+import com.MediSys.MediSys.repository.BookingOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingOutboxTest {
+
+    private final BookingOutboxRepository repository = mock(BookingOutboxRepository.class);
+    private final List<Long> received = new ArrayList<>();
+    private final List<Long> failing = new ArrayList<>();
+    private final BookingEventSubscriber subscriber = event -> {
+        if (failing.contains(event.getId())) {
+            throw new IllegalStateException("Subscriber down");
+        }
+        received.add(event.getId());
+    };
+    private final BookingOutbox outbox = new BookingOutbox(repository, List.of(subscriber),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), Runnable::run, new SimpleMeterRegistry(),
+            200, 3, Duration.ofDays(7));
+
+    @Test
+    void failedEventHoldsBackItsBookingButNotOthers() {
+        pendingAfter(0L,
+                event(1L, BookingEventType.APPOINTMENT_BOOKED, 10L, 0),
+                event(2L, BookingEventType.ROOM_BOOKED, 10L, 0),
+                event(3L, BookingEventType.APPOINTMENT_CANCELLED, 10L, 0),
+                event(4L, BookingEventType.APPOINTMENT_BOOKED, 11L, 0));
+        failing.add(1L);
+
+        assertEquals(2, outbox.relayBatch());
+        // Room booking 10 is a different booking from appointment 10
+        assertEquals(List.of(2L, 4L), received);
+        verify(repository).markPublished(eq(List.of(2L, 4L)), any());
+        verify(repository).recordFailedAttempt(List.of(1L));
+    }
+
+    @Test
+    void abandonedEventIsKeptAndHoldsBackItsBooking() {
+        pendingAfter(0L,
+                event(1L, BookingEventType.RESOURCE_RELEASED, 10L, 2),
+                event(2L, BookingEventType.RESOURCE_BOOKED, 10L, 0),
+                event(3L, BookingEventType.RESOURCE_BOOKED, 11L, 0));
+        failing.add(1L);
+
+        assertEquals(1, outbox.relayBatch());
+        assertEquals(List.of(3L), received);
+        verify(repository).markAbandoned(eq(List.of(1L)), any());
+        verify(repository).markPublished(eq(List.of(3L)), any());
+        verify(repository, never()).recordFailedAttempt(anyCollection());
+    }
+
+    @Test
+    void bookingWithAnAbandonedEventStaysHeldOnLaterPasses() {
+        BookingOutboxEvent dead = event(1L, BookingEventType.APPOINTMENT_BOOKED, 10L, 3);
+        dead.setAbandonedAt(LocalDateTime.now());
+        when(repository.findByPublishedAtIsNullAndAbandonedAtIsNotNull()).thenReturn(List.of(dead));
+        pendingAfter(0L,
+                event(2L, BookingEventType.APPOINTMENT_CANCELLED, 10L, 0),
+                event(3L, BookingEventType.ROOM_BOOKED, 10L, 0));
+
+        assertEquals(1, outbox.relayBatch());
+        assertEquals(List.of(3L), received);
+        verify(repository).markPublished(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void relayPagesPastHeldBookingsToFillTheBatch() {
+        BookingOutbox smallBatches = new BookingOutbox(repository, List.of(subscriber),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), Runnable::run, new SimpleMeterRegistry(),
+                2, 3, Duration.ofDays(7));
+        pendingAfter(0L,
+                event(1L, BookingEventType.APPOINTMENT_BOOKED, 10L, 0),
+                event(2L, BookingEventType.APPOINTMENT_UPDATED, 10L, 0));
+        pendingAfter(2L,
+                event(3L, BookingEventType.APPOINTMENT_CANCELLED, 10L, 0),
+                event(4L, BookingEventType.APPOINTMENT_BOOKED, 11L, 0));
+        pendingAfter(4L,
+                event(5L, BookingEventType.APPOINTMENT_BOOKED, 12L, 0));
+        failing.add(1L);
+
+        assertEquals(2, smallBatches.relayBatch());
+        assertEquals(List.of(4L, 5L), received);
+        verify(repository).markPublished(eq(List.of(4L, 5L)), any());
+        verify(repository).recordFailedAttempt(List.of(1L));
+    }
+
+    private void pendingAfter(long afterId, BookingOutboxEvent... events) {
+        when(repository.findByPublishedAtIsNullAndAbandonedAtIsNullAndIdGreaterThanOrderById(eq(afterId), any()))
+                .thenReturn(List.of(events));
+    }
+
+    private static BookingOutboxEvent event(Long id, BookingEventType type, Long aggregateId, int attempts) {
+        BookingOutboxEvent event = new BookingOutboxEvent();
+        event.setId(id);
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        event.setTargetId(1L);
+        event.setStartDateTime(LocalDateTime.of(2030, 1, 7, 9, 0));
+        event.setCreatedAt(LocalDateTime.now());
+        event.setAttempts(attempts);
+        return event;
+    }
+}
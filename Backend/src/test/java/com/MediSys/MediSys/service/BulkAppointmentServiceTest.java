@@ -0,0 +1,145 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.AppointmentRequest;
+import com.MediSys.MediSys.dto.BookedSlot;
+import com.MediSys.MediSys.dto.BulkAppointmentRequest;
+import com.MediSys.MediSys.dto.BulkBookingItemResult;
+import com.MediSys.MediSys.dto.BulkBookingResult;
+import com.MediSys.MediSys.dto.DoctorScheduleSummary;
+import com.MediSys.MediSys.dto.RecurrenceRequest;
+import com.MediSys.MediSys.enums.BulkBookingMode;
+import com.MediSys.MediSys.enums.BulkItemStatus;
+import com.MediSys.MediSys.model.Appointment;
+import com.MediSys.MediSys.model.Doctor;
+import com.MediSys.MediSys.model.Patient;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.DoctorScheduleRepository;
+import com.MediSys.MediSys.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkAppointmentServiceTest {
+
+    private static final AuthenticatedUser PATIENT = new AuthenticatedUser(10L, "patient@medisys.test", "PATIENT", null, 2L);
+
+    private final LocalDateTime first = LocalDate.now().plusWeeks(1)
+            .with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY)).atTime(10, 0);
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final DoctorScheduleRepository scheduleRepository = mock(DoctorScheduleRepository.class);
+    private final BulkAppointmentService service = new BulkAppointmentService(doctorRepository, patientRepository,
+            appointmentRepository, new DoctorScheduleCache(scheduleRepository, doctorRepository),
+            new DoctorSlotIndex(), new BookingLockManager(), new BookingMetrics(new SimpleMeterRegistry()),
+            mock(AppointmentCalendar.class), mock(AvailabilityBroadcaster.class), mock(SlotHoldRegistry.class),
+            mock(BookingLifecycle.class), mock(BookingOutbox.class));
+
+    @BeforeEach
+    void setUp() {
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        Patient patient = new Patient();
+        patient.setId(2L);
+        when(doctorRepository.findAllById(anyIterable())).thenReturn(List.of(doctor));
+        when(patientRepository.findAllById(anyIterable())).thenReturn(List.of(patient));
+        when(scheduleRepository.findSummariesByDoctorId(1L)).thenReturn(List.of(new DoctorScheduleSummary(
+                1L, 1L, "Doctor", "MONDAY", LocalTime.of(9, 0), LocalTime.of(17, 0), 30)));
+        when(appointmentRepository.findBookedSlots(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of(new BookedSlot(1L, first.plusWeeks(3))));
+        AtomicLong ids = new AtomicLong(100);
+        when(appointmentRepository.saveAllAndFlush(anyIterable())).thenAnswer(invocation -> {
+            List<Appointment> appointments = invocation.getArgument(0);
+            appointments.forEach(appointment -> appointment.setId(ids.incrementAndGet()));
+            return appointments;
+        });
+    }
+
+    @Test
+    void allOrNothingBooksNothingWhenOneSlotIsTaken() {
+        BulkBookingResult result = service.book(weeklySeries(BulkBookingMode.ALL_OR_NOTHING), PATIENT);
+
+        assertEquals(0, result.getBooked());
+        assertEquals(1, result.getRejected());
+        assertEquals(BulkItemStatus.REJECTED, result.getItems().get(3).getStatus());
+        assertEquals("SLOT_TAKEN", result.getItems().get(3).getReason());
+        verify(appointmentRepository, never()).saveAllAndFlush(anyIterable());
+    }
+
+    @Test
+    void bestEffortBooksTheRestInOneBatchAndQueriesConflictsOnce() {
+        BulkAppointmentRequest request = weeklySeries(BulkBookingMode.BEST_EFFORT);
+        AppointmentRequest offSchedule = new AppointmentRequest();
+        offSchedule.setDoctorId(1L);
+        offSchedule.setPatientId(2L);
+        offSchedule.setAppointmentDateTime(first.plusMinutes(10));
+        request.getAppointments().add(offSchedule);
+
+        BulkBookingResult result = service.book(request, PATIENT);
+
+        assertEquals(11, result.getBooked());
+        assertEquals(2, result.getRejected());
+        assertEquals("OFF_SCHEDULE", result.getItems().get(0).getReason());
+        assertEquals(List.of(101L, 102L, 103L), result.getItems().subList(1, 4).stream()
+                .map(BulkBookingItemResult::getAppointmentId).toList());
+        verify(appointmentRepository, times(1)).findBookedSlots(anyCollection(), any(), any(), anyList());
+        verify(appointmentRepository, times(1)).saveAllAndFlush(anyIterable());
+    }
+
+    @Test
+    void startsWithSecondsAreOffSchedule() {
+        BulkAppointmentRequest request = weeklySeries(BulkBookingMode.BEST_EFFORT);
+        AppointmentRequest withSeconds = new AppointmentRequest();
+        withSeconds.setDoctorId(1L);
+        withSeconds.setPatientId(2L);
+        withSeconds.setAppointmentDateTime(first.plusSeconds(30));
+        request.getAppointments().add(withSeconds);
+
+        BulkBookingResult result = service.book(request, PATIENT);
+
+        assertEquals(BulkItemStatus.REJECTED, result.getItems().get(0).getStatus());
+        assertEquals("OFF_SCHEDULE", result.getItems().get(0).getReason());
+    }
+
+    @Test
+    void rejectsOversizedRequests() {
+        BulkAppointmentRequest request = weeklySeries(BulkBookingMode.BEST_EFFORT);
+        request.getRecurrence().setOccurrences(BulkAppointmentService.MAX_ITEMS + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> service.book(request, PATIENT));
+    }
+
+    private BulkAppointmentRequest weeklySeries(BulkBookingMode mode) {
+        RecurrenceRequest recurrence = new RecurrenceRequest();
+        recurrence.setDoctorId(1L);
+        recurrence.setPatientId(2L);
+        recurrence.setFirstAppointment(first);
+        recurrence.setOccurrences(12);
+        BulkAppointmentRequest request = new BulkAppointmentRequest();
+        request.setRecurrence(recurrence);
+        request.setMode(mode);
+        return request;
+    }
+}
@@ -0,0 +1,60 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.enums.Catalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CatalogCache catalogCache = new CatalogCache(new ObjectMapper(), meterRegistry, 100, Duration.ofMinutes(5));
+
+    @Test
+    void servesCachedBytesUntilTheCatalogChanges() {
+        AtomicInteger loads = new AtomicInteger();
+
+        catalogCache.get(Catalog.ROOMS, "all", () -> List.of(loads.incrementAndGet()));
+        byte[] cached = catalogCache.get(Catalog.ROOMS, "all", () -> List.of(loads.incrementAndGet()));
+        catalogCache.get(Catalog.RESOURCES, "all", () -> List.of(loads.incrementAndGet()));
+        catalogCache.invalidate(Catalog.ROOMS);
+        byte[] reloaded = catalogCache.get(Catalog.ROOMS, "all", () -> List.of(loads.incrementAndGet()));
+        catalogCache.get(Catalog.RESOURCES, "all", () -> List.of(loads.incrementAndGet()));
+
+        assertEquals("[1]", new String(cached, StandardCharsets.UTF_8));
+        assertEquals("[3]", new String(reloaded, StandardCharsets.UTF_8));
+        assertEquals(3, loads.get());
+        assertEquals(1, meterRegistry.counter("medisys.catalog.cache", "catalog", "rooms", "result", "hit").count());
+        assertEquals(2, meterRegistry.counter("medisys.catalog.cache", "catalog", "rooms", "result", "miss").count());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        byte[] stale = catalogCache.get(Catalog.DOCTORS, "page", () -> {
+            catalogCache.invalidate(Catalog.DOCTORS);
+            return List.of("old");
+        });
+        byte[] fresh = catalogCache.get(Catalog.DOCTORS, "page", () -> List.of("new"));
+
+        assertEquals("[\"old\"]", new String(stale, StandardCharsets.UTF_8));
+        assertEquals("[\"new\"]", new String(fresh, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void nullVariantIsLoadedEveryTime() {
+        AtomicInteger loads = new AtomicInteger();
+
+        catalogCache.get(Catalog.DOCTORS, null, () -> List.of(loads.incrementAndGet()));
+        byte[] second = catalogCache.get(Catalog.DOCTORS, null, () -> List.of(loads.incrementAndGet()));
+
+        assertEquals("[2]", new String(second, StandardCharsets.UTF_8));
+        assertEquals(0, meterRegistry.counter("medisys.catalog.cache", "catalog", "doctors", "result", "miss").count());
+    }
+}
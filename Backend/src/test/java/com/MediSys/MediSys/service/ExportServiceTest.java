@@ -0,0 +1,173 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.controller.ExportController;
+import com.MediSys.MediSys.dto.ExportQuery;
+import com.MediSys.MediSys.enums.ExportFormat;
+import com.MediSys.MediSys.repository.ExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Streams exports from the Flyway schema on H2 into a buffer and reads them back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ExportRepository.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false",
+        // H2 has no streaming mode; a small positive fetch size still reads through a cursor
+        "export.fetch-size=2"
+})
+class ExportServiceTest {
+
+    private static final String HEADER =
+            "id,appointment_date_time,status,doctor_id,doctor_name,patient_id,patient_name,created_at,updated_at";
+
+    @Autowired private ExportRepository exportRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // Configured as Spring Boot configures the application's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private ExportService exportService;
+
+    @BeforeEach
+    void seed() {
+        exportService = new ExportService(exportRepository, objectMapper);
+        jdbcTemplate.update("insert into doctors (id, active, years_of_experience, full_name) values (1, true, 5, 'Dr A')");
+        jdbcTemplate.update("insert into patient (id, active, full_name) values (1, true, 'Pat'), "
+                + "(2, true, 'O''Neil, \"Sam\"')");
+        // Gaps in the ids, so a resume point is not always followed by id + 1
+        int[][] rows = {{1, 1}, {2, 2}, {4, 1}, {7, 2}, {8, 1}, {9, 1}, {12, 2}};
+        for (int[] row : rows) {
+            jdbcTemplate.update("insert into appointment (id, doctor_id, patient_id, appointment_date_time, status) "
+                    + "values (?, 1, ?, timestampadd(hour, ?, timestamp '2030-01-07 09:00:00'), ?)",
+                    row[0], row[1], row[0], row[0] == 8 ? "CANCELLED" : "SCHEDULED");
+        }
+    }
+
+    @Test
+    void csvHasAHeaderAndQuotesFieldsThatNeedIt() throws IOException {
+        ExportQuery query = new ExportQuery();
+        query.setAfterId(1L);
+        query.setStatus("scheduled");
+
+        List<String> lines = lines(write(exportService.appointments(query), ExportFormat.CSV));
+
+        assertEquals(HEADER, lines.get(0));
+        assertEquals("2,2030-01-07T11:00,SCHEDULED,1,Dr A,2,\"O'Neil, \"\"Sam\"\"\",,", lines.get(1));
+        assertEquals(List.of("2", "4", "7", "9", "12"), ids(lines.subList(1, lines.size())));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerRow() throws IOException {
+        ExportQuery query = new ExportQuery();
+        query.setStatus("CANCELLED");
+
+        List<String> lines = lines(write(exportService.appointments(query), ExportFormat.NDJSON));
+
+        assertEquals(1, lines.size());
+        Map<?, ?> row = objectMapper.readValue(lines.get(0), Map.class);
+        assertEquals(List.of(HEADER.split(",")), new ArrayList<>(row.keySet()));
+        assertEquals(8, row.get("id"));
+        assertEquals("2030-01-07T17:00:00", row.get("appointment_date_time"));
+        assertEquals("Pat", row.get("patient_name"));
+        assertNull(row.get("created_at"));
+    }
+
+    @Test
+    void resumingAfterAnyRowNeitherRepeatsNorSkips() throws IOException {
+        List<String> full = lines(write(exportService.appointments(new ExportQuery()), ExportFormat.CSV));
+        List<String> rows = full.subList(1, full.size());
+        assertEquals(List.of("1", "2", "4", "7", "8", "9", "12"), ids(rows));
+
+        for (int received = 0; received <= rows.size(); received++) {
+            ExportQuery resume = new ExportQuery();
+            resume.setAfterId(received == 0 ? null : Long.valueOf(ids(rows).get(received - 1)));
+            List<String> rest = lines(write(exportService.appointments(resume), ExportFormat.CSV));
+
+            List<String> joined = new ArrayList<>(rows.subList(0, received));
+            joined.addAll(rest.subList(1, rest.size()));
+            assertEquals(rows, joined, "resumed after " + received + " rows");
+        }
+    }
+
+    @Test
+    void responseIsGzippedOnlyWhenTheClientAcceptsIt() throws IOException {
+        ExportController controller = new ExportController(exportService);
+        ExportQuery query = new ExportQuery();
+
+        ResponseEntity<StreamingResponseBody> plain = controller.exportAppointments(query, "csv", null);
+        ResponseEntity<StreamingResponseBody> identity = controller.exportAppointments(query, "ndjson", "identity");
+        ResponseEntity<StreamingResponseBody> gzipped = controller.exportAppointments(query, "csv", "deflate, gzip;q=0.8");
+
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzipped.getHeaders().getFirst(HttpHeaders.VARY));
+        assertEquals("text/csv;charset=UTF-8", gzipped.getHeaders().getContentType().toString());
+        String expected = write(exportService.appointments(query), ExportFormat.CSV);
+        assertEquals(expected, body(plain));
+        assertEquals(expected, gunzip(body(gzipped.getBody())));
+    }
+
+    private String write(ExportRepository.Export export, ExportFormat format) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        exportService.write(export, format, buffer);
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        return new String(body(response.getBody()), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] body(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        body.writeTo(buffer);
+        return buffer.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static List<String> lines(String text) {
+        return text.isEmpty() ? List.of() : List.of(text.split("\n"));
+    }
+
+    private static List<String> ids(List<String> csvRows) {
+        return csvRows.stream().map(row -> row.substring(0, row.indexOf(','))).toList();
+    }
+}
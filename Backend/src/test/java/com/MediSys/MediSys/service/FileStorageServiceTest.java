@@ -0,0 +1,83 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.repository.DoctorRepository;
+import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.HospitalRoomRepository;
+import com.MediSys.MediSys.storage.LocalStorageBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileStorageServiceTest {
+
+    private static final long GRACE_MILLIS = 300;
+
+    @TempDir
+    Path root;
+
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private LocalStorageBackend backend;
+    private FileStorageService service;
+
+    private void start() throws Exception {
+        backend = new LocalStorageBackend(root.toString());
+        service = new FileStorageService(backend, mock(ImageVariantGenerator.class), doctorRepository,
+                mock(HospitalRoomRepository.class), mock(HospitalResourceRepository.class), 1, 10,
+                Duration.ofMillis(GRACE_MILLIS));
+    }
+
+    @AfterEach
+    void stop() {
+        service.shutdown();
+    }
+
+    @Test
+    void releasedPictureReuploadedWithinTheGraceIsKept() throws Exception {
+        start();
+        String url = service.storeFile(picture("x-ray"));
+        String key = url.substring("/uploads/".length());
+
+        // Doctor A drops the picture, doctor B uploads the same bytes before the sweep
+        service.deleteFile(url);
+        Thread.sleep(GRACE_MILLIS * 2 / 3);
+        assertEquals(url, service.storeFile(picture("x-ray")));
+        Thread.sleep(GRACE_MILLIS * 2 / 3);
+        service.sweepReleased();
+        assertTrue(backend.exists(key));
+
+        // B's transaction has committed by the time the re-upload's grace is over
+        when(doctorRepository.existsByImageUrl(url)).thenReturn(true);
+        Thread.sleep(GRACE_MILLIS);
+        service.sweepReleased();
+        assertTrue(backend.exists(key));
+    }
+
+    @Test
+    void uploadNobodyReferencesIsCollected() throws Exception {
+        start();
+        // As left behind by a transaction that rolled back after storing the file
+        String key = service.storeFile(picture("orphan")).substring("/uploads/".length());
+
+        service.sweepReleased();
+        assertTrue(backend.exists(key));
+
+        Thread.sleep(GRACE_MILLIS + 50);
+        service.sweepReleased();
+        assertFalse(backend.exists(key));
+    }
+
+    private static MockMultipartFile picture(String content) {
+        return new MockMultipartFile("file", "scan.png", "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
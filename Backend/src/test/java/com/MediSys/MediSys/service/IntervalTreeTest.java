@@ -0,0 +1,156 @@
+package com.MediSys.MediSys.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+
+    private static final Comparator<IntervalTree.Interval> BY_START_AND_ID =
+            Comparator.comparingLong(IntervalTree.Interval::start).thenComparingLong(IntervalTree.Interval::id);
+
+    private final IntervalTree tree = new IntervalTree();
+
+    @Test
+    void intervalsAreHalfOpen() {
+        tree.insert(1, 10, 20);
+
+        assertFalse(tree.overlaps(0, 10));
+        assertFalse(tree.overlaps(20, 30));
+        assertTrue(tree.overlaps(19, 20));
+        assertTrue(tree.overlaps(0, 11));
+        assertTrue(tree.overlaps(12, 15));
+        assertTrue(tree.overlaps(5, 25));
+        assertEquals(List.of(), tree.overlapping(20, 30));
+        assertEquals(List.of(new IntervalTree.Interval(1, 10, 20)), tree.overlapping(15, 16));
+    }
+
+    @Test
+    void intervalsSharingAStartAreKeptApartById() {
+        tree.insert(2, 10, 20);
+        tree.insert(1, 10, 30);
+        tree.insert(3, 10, 15);
+
+        assertEquals(List.of(1L, 2L, 3L), tree.overlapping(10, 11).stream().map(IntervalTree.Interval::id).toList());
+        assertFalse(tree.remove(1, 11));
+        assertTrue(tree.remove(1, 10));
+        assertFalse(tree.remove(1, 10));
+        assertEquals(2, tree.size());
+        // The long interval went with id 1, so its subtree maximum must have dropped
+        assertFalse(tree.overlaps(20, 30));
+    }
+
+    @Test
+    void removeEndingBeforeKeepsWhatEndsExactlyThen() {
+        tree.insert(1, 0, 10);
+        tree.insert(2, 5, 20);
+        tree.insert(3, 15, 20);
+        tree.insert(4, 18, 40);
+
+        assertEquals(1, tree.removeEndingBefore(20));
+        assertEquals(3, tree.size());
+        assertFalse(tree.overlaps(0, 5));
+        assertEquals(2, tree.removeEndingBefore(21));
+        assertEquals(List.of(new IntervalTree.Interval(4, 18, 40)), tree.overlapping(0, 100));
+    }
+
+    @Test
+    void matchesABruteForceListOverRandomInsertsAndRemovals() {
+        Random random = new Random(42);
+        List<IntervalTree.Interval> expected = new ArrayList<>();
+        long nextId = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                // Narrow start range so equal starts and touching ends come up often
+                long start = random.nextInt(500);
+                long end = start + 1 + random.nextInt(40);
+                tree.insert(nextId, start, end);
+                expected.add(new IntervalTree.Interval(nextId++, start, end));
+            } else if (op < 8) {
+                IntervalTree.Interval gone = expected.remove(random.nextInt(expected.size()));
+                assertTrue(tree.remove(gone.id(), gone.start()));
+            } else if (op < 9) {
+                assertFalse(tree.remove(nextId + 1, random.nextInt(500)));
+            } else if (random.nextInt(50) == 0) {
+                long time = random.nextInt(540);
+                int before = expected.size();
+                expected.removeIf(interval -> interval.end() < time);
+                assertEquals(before - expected.size(), tree.removeEndingBefore(time));
+            }
+
+            long from = random.nextInt(560) - 10;
+            long to = from + 1 + random.nextInt(30);
+            List<IntervalTree.Interval> overlapping = expected.stream()
+                    .filter(interval -> interval.start() < to && interval.end() > from)
+                    .sorted(BY_START_AND_ID)
+                    .toList();
+            assertEquals(overlapping, tree.overlapping(from, to), "overlapping " + from + ".." + to);
+            assertEquals(!overlapping.isEmpty(), tree.overlaps(from, to), "overlaps " + from + ".." + to);
+            assertEquals(expected.size(), tree.size());
+        }
+    }
+
+    @Test
+    void concurrentWritersAndReadersLeaveAConsistentTree() throws Exception {
+        int writers = 4;
+        int perWriter = 2_000;
+        // A long interval that stays put, so every reader must always find it
+        tree.insert(-1, 0, 1_000_000);
+        ExecutorService executor = Executors.newFixedThreadPool(writers * 2);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int w = 0; w < writers; w++) {
+                long base = w * perWriter;
+                results.add(executor.submit(() -> {
+                    go.await();
+                    // Each writer owns its ids and keeps the even ones
+                    for (long id = base; id < base + perWriter; id++) {
+                        tree.insert(id, id, id + 5);
+                    }
+                    for (long id = base + 1; id < base + perWriter; id += 2) {
+                        assertTrue(tree.remove(id, id));
+                    }
+                    return null;
+                }));
+                results.add(executor.submit(() -> {
+                    go.await();
+                    Random random = new Random(base);
+                    for (int i = 0; i < perWriter; i++) {
+                        long from = random.nextInt(writers * perWriter);
+                        assertTrue(tree.overlaps(from, from + 1));
+                        assertTrue(tree.overlapping(from, from + 1).stream().anyMatch(interval -> interval.id() == -1));
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1 + writers * perWriter / 2, tree.size());
+        List<IntervalTree.Interval> all = tree.overlapping(Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(tree.size(), all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertEquals(0, all.get(i).start() % 2, "odd interval left at " + all.get(i).start());
+            assertTrue(BY_START_AND_ID.compare(all.get(i - 1), all.get(i)) < 0);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.auth.config.JwtAuthenticationCache;
+import com.MediSys.MediSys.auth.config.JwtAuthenticationFilter;
+import com.MediSys.MediSys.auth.config.TokenProvider;
+import com.MediSys.MediSys.auth.config.UnauthorizedEntryPoint;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class JwtAuthenticationCacheTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItYXV0aGVudGljYXRpb24tY2FjaGUtdGVzdHMtb25seQ==";
+    private static final AuthenticatedUser PATIENT = new AuthenticatedUser(10L, "patient@medisys.test", "PATIENT", null, 2L);
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_PATIENT"));
+
+    private final JwtAuthenticationCache cache = new JwtAuthenticationCache(100);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private TokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = spy(tokenProvider(3600));
+        filter = new JwtAuthenticationFilter(userDetailsService, tokenProvider, new UnauthorizedEntryPoint(), cache,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "HEADER_STRING", "Authorization");
+        ReflectionTestUtils.setField(filter, "TOKEN_PREFIX", "Bearer");
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void entryExpiresAtTheTokensExp() throws Exception {
+        cache.put("short-lived", PATIENT, AUTHORITIES, new Date(System.currentTimeMillis() + 200));
+        cache.put("already-expired", PATIENT, AUTHORITIES, new Date(System.currentTimeMillis() - 1));
+
+        assertNotNull(cache.get("short-lived"));
+        assertNull(cache.get("already-expired"));
+        Thread.sleep(300);
+        assertNull(cache.get("short-lived"));
+    }
+
+    @Test
+    void verifiedTokenIsServedFromTheCacheAfterTheFirstRequest() throws Exception {
+        String token = sign(tokenProvider);
+
+        assertEquals(PATIENT, authenticate("/api/appointments", token).getPrincipal());
+        SecurityContextHolder.clearContext();
+        assertEquals(PATIENT, authenticate("/api/appointments", token).getPrincipal());
+
+        verify(tokenProvider, times(1)).getAllClaimsFromToken(token);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void expiredTokenIsNeverCached() throws Exception {
+        // A negative validity issues a token whose exp is already behind us
+        String token = sign(tokenProvider(-60));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertNull(authenticate("/api/appointments", token, response));
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, response.getStatus());
+        assertNull(cache.get(token));
+    }
+
+    @Test
+    void tamperedTokenIsNotServedFromTheCache() throws Exception {
+        String token = sign(tokenProvider);
+        authenticate("/api/appointments", token);
+        SecurityContextHolder.clearContext();
+        String[] parts = token.split("\\.");
+        AuthenticatedUser admin = new AuthenticatedUser(10L, "patient@medisys.test", "ADMIN", null, null);
+        String forgedClaims = sign(tokenProvider(3600), admin).split("\\.")[1];
+
+        // The same claims under another signature, and another user's claims under the cached signature
+        String resigned = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+        String swapped = parts[0] + "." + forgedClaims + "." + parts[2];
+
+        assertNull(authenticate("/api/appointments", resigned));
+        assertNull(authenticate("/api/appointments", swapped));
+        assertNull(cache.get(resigned));
+        assertNull(cache.get(swapped));
+        verify(tokenProvider).getAllClaimsFromToken(resigned);
+        verify(tokenProvider).getAllClaimsFromToken(swapped);
+    }
+
+    @Test
+    void publicPathsSkipTokenChecks() throws Exception {
+        for (String path : List.of("/api/auth/login", "/api/doctors", "/api/resources", "/actuator/health",
+                "/uploads/rooms/a.png", "/api/room-bookings/check-availability")) {
+            assertNull(authenticate(path, "not-a-token"), path);
+        }
+
+        verify(tokenProvider, never()).getAllClaimsFromToken(anyString());
+    }
+
+    private Authentication authenticate(String path, String token) throws Exception {
+        return authenticate(path, token, new MockHttpServletResponse());
+    }
+
+    private Authentication authenticate(String path, String token, MockHttpServletResponse response) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertNotNull(chain.getRequest(), "the filter must always pass the request on");
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static TokenProvider tokenProvider(long validitySeconds) {
+        TokenProvider provider = new TokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "TOKEN_VALIDITY", validitySeconds);
+        ReflectionTestUtils.setField(provider, "AUTHORITIES_KEY", "roles");
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static String sign(TokenProvider provider) {
+        return sign(provider, PATIENT);
+    }
+
+    private static String sign(TokenProvider provider, AuthenticatedUser user) {
+        return provider.generateToken(new UsernamePasswordAuthenticationToken(user, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.role()))), user);
+    }
+}
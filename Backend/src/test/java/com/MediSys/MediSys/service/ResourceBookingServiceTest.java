@@ -0,0 +1,107 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import com.MediSys.MediSys.dto.ResourceBookingRequest;
+import com.MediSys.MediSys.dto.TimeSlotDto;
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.model.HospitalResource;
+import com.MediSys.MediSys.repository.AppointmentRepository;
+import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.KeysetPager;
+import com.MediSys.MediSys.repository.ResourceBookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ResourceBookingServiceTest {
+
+    private static final AuthenticatedUser PATIENT = new AuthenticatedUser(10L, "patient@medisys.test", "PATIENT", null, 2L);
+
+    private final ResourceCapacityLedger ledger = mock(ResourceCapacityLedger.class);
+    private final ResourceBookingRepository resourceBookingRepository = mock(ResourceBookingRepository.class);
+    private final HospitalResourceRepository hospitalResourceRepository = mock(HospitalResourceRepository.class);
+    private final ResourceBookingService service = new ResourceBookingService(resourceBookingRepository,
+            hospitalResourceRepository, mock(AppointmentRepository.class), ledger, mock(KeysetPager.class),
+            new BookingMetrics(new SimpleMeterRegistry()), mock(SlotHoldRegistry.class), mock(BookingLifecycle.class),
+            mock(BookingOutbox.class));
+
+    @Test
+    void oversizedOrPastWindowsNeverReachTheLedger() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.checkResourceAvailability(1L, start, start.plusYears(30)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getAvailableResourceSlots(1L, start, start.plusDays(367)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.checkResourceAvailability(1L, start.minusDays(2), start));
+        verifyNoInteractions(ledger);
+    }
+
+    @Test
+    void committedBookingsOverruleALedgerThatStillHasRoom() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        HospitalResource resource = resource(2);
+        when(hospitalResourceRepository.lockById(1L)).thenReturn(Optional.of(resource));
+        when(hospitalResourceRepository.findById(1L)).thenReturn(Optional.of(resource));
+        when(ledger.reserve(1L, start, start.plusHours(2))).thenReturn(true);
+        when(resourceBookingRepository.findOverlapping(1L, BookingStatus.BOOKED, start, start.plusHours(2))).thenReturn(List.of(
+                new TimeSlotDto(start.minusHours(1), start.plusHours(1)),
+                new TimeSlotDto(start.plusMinutes(30), start.plusHours(3))));
+
+        BookingConflictException conflict = assertThrows(BookingConflictException.class,
+                () -> service.bookResource(request(start, start.plusHours(2)), PATIENT));
+
+        assertEquals(BookingConflictException.Reason.RESOURCE_EXHAUSTED, conflict.getReason());
+        verify(resourceBookingRepository, never()).save(any());
+        // The row lock comes before the first plain read of the transaction
+        InOrder order = inOrder(hospitalResourceRepository);
+        order.verify(hospitalResourceRepository).lockById(1L);
+        order.verify(hospitalResourceRepository).findById(1L);
+    }
+
+    @Test
+    void peakUsageCountsOnlyBookingsThatOverlapEachOther() {
+        LocalDateTime nine = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+        assertEquals(0, ResourceBookingService.peakUsage(List.of()));
+        // Back to back bookings share a unit
+        assertEquals(1, ResourceBookingService.peakUsage(List.of(
+                new TimeSlotDto(nine, nine.plusHours(1)),
+                new TimeSlotDto(nine.plusHours(1), nine.plusHours(2)))));
+        assertEquals(2, ResourceBookingService.peakUsage(List.of(
+                new TimeSlotDto(nine, nine.plusHours(3)),
+                new TimeSlotDto(nine.plusMinutes(30), nine.plusHours(1)),
+                new TimeSlotDto(nine.plusHours(2), nine.plusHours(4)))));
+    }
+
+    private static HospitalResource resource(int quantity) {
+        HospitalResource resource = new HospitalResource();
+        resource.setId(1L);
+        resource.setQuantity(quantity);
+        return resource;
+    }
+
+    private static ResourceBookingRequest request(LocalDateTime start, LocalDateTime end) {
+        ResourceBookingRequest request = new ResourceBookingRequest();
+        request.setResourceId(1L);
+        request.setStartDateTime(start);
+        request.setEndDateTime(end);
+        return request;
+    }
+}
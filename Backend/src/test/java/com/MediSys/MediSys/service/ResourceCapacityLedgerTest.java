@@ -0,0 +1,151 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.enums.BookingStatus;
+import com.MediSys.MediSys.model.HospitalResource;
+import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.ResourceBookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResourceCapacityLedgerTest {
+
+    private static final int UNITS = 3;
+
+    private final HospitalResourceRepository hospitalResourceRepository = mock(HospitalResourceRepository.class);
+    private final ResourceBookingRepository resourceBookingRepository = mock(ResourceBookingRepository.class);
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    private ResourceCapacityLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        HospitalResource resource = new HospitalResource();
+        resource.setId(1L);
+        resource.setQuantity(UNITS);
+        when(hospitalResourceRepository.findAll()).thenReturn(List.of(resource));
+        when(resourceBookingRepository.findByStatusAndEndDateTimeAfter(eq(BookingStatus.BOOKED), any()))
+                .thenReturn(List.of());
+        ledger = new ResourceCapacityLedger(hospitalResourceRepository, resourceBookingRepository,
+                new SimpleMeterRegistry(), 15);
+        ledger.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedCapacity() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                // Staggered windows of five slices that all share 10:00-10:15
+                LocalDateTime from = start.plusMinutes(15L * (i % 4));
+                starts.add(from);
+                Callable<Boolean> reservation = () -> {
+                    go.await();
+                    return ledger.reserve(1L, from, from.plusMinutes(75));
+                };
+                results.add(executor.submit(reservation));
+            }
+            go.countDown();
+            int[] expected = new int[8];
+            int reserved = 0;
+            for (int i = 0; i < threads; i++) {
+                if (results.get(i).get(10, TimeUnit.SECONDS)) {
+                    reserved++;
+                    int first = (int) (Duration.between(start, starts.get(i)).toMinutes() / 15);
+                    for (int slice = first; slice < first + 5; slice++) {
+                        expected[slice]++;
+                    }
+                }
+            }
+
+            assertTrue(reserved >= 1 && reserved <= UNITS, "reserved " + reserved);
+            // Every slice carries exactly the winners; a refused window handed back what it took
+            for (int slice = 0; slice < expected.length; slice++) {
+                assertEquals(expected[slice], ledger.inUseAt(1L, start.plusMinutes(15L * slice)), "slice " + slice);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reservationIsReleasedWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ledger.reserve(1L, start, start.plusHours(1)));
+        assertEquals(1, ledger.inUseAt(1L, start));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, ledger.inUseAt(1L, start));
+    }
+
+    @Test
+    void reservationIsKeptWhenTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ledger.reserve(1L, start, start.plusHours(1)));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1, ledger.inUseAt(1L, start));
+    }
+
+    @Test
+    void loweringCapacityBelowUseRefusesUntilEnoughUnitsComeBack() {
+        for (int i = 0; i < UNITS; i++) {
+            assertTrue(ledger.reserve(1L, start, start.plusHours(1)));
+        }
+
+        ledger.setCapacity(1L, 1);
+
+        assertFalse(ledger.hasCapacity(1L, start, start.plusHours(1)));
+        assertFalse(ledger.reserve(1L, start, start.plusHours(1)));
+        assertTrue(ledger.freeSlots(1L, start, start.plusHours(1)).isEmpty());
+        // Outside the booked hour the single remaining unit is free
+        assertTrue(ledger.reserve(1L, start.plusHours(1), start.plusHours(2)));
+
+        ledger.release(1L, start, start.plusHours(1));
+        ledger.release(1L, start, start.plusHours(1));
+        assertFalse(ledger.reserve(1L, start, start.plusHours(1)));
+        ledger.release(1L, start, start.plusHours(1));
+        assertTrue(ledger.reserve(1L, start, start.plusHours(1)));
+        assertFalse(ledger.reserve(1L, start, start.plusHours(1)));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,102 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.exception.BookingConflictException;
+import com.MediSys.MediSys.exception.BookingConflictException.Reason;
+import com.MediSys.MediSys.exception.ResourceNotFoundException;
+import com.MediSys.MediSys.repository.HospitalResourceRepository;
+import com.MediSys.MediSys.repository.HospitalRoomRepository;
+import com.MediSys.MediSys.repository.ResourceBookingRepository;
+import com.MediSys.MediSys.repository.RoomBookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SlotHoldRegistryTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+    private static final LocalDateTime TEN = NINE.plusHours(1);
+
+    private final BookingAvailabilityIndex rooms = new BookingAvailabilityIndex(
+            mock(HospitalRoomRepository.class), mock(RoomBookingRepository.class));
+    private final ResourceCapacityLedger resources = new ResourceCapacityLedger(mock(HospitalResourceRepository.class),
+            mock(ResourceBookingRepository.class), new SimpleMeterRegistry(), 15);
+    private final SlotHoldRegistry holds = new SlotHoldRegistry(rooms, resources, mock(AvailabilityBroadcaster.class),
+            new SimpleMeterRegistry(), TTL, 2, 1000);
+
+    @Test
+    void wheelFiresEachTimeoutOnItsTickAcrossTurns() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("soon", 250);
+        wheel.schedule("next turn", 1_050);
+        wheel.schedule("far", 10_000);
+
+        assertEquals(List.of(), wheel.advance(299));
+        assertEquals(List.of("soon"), wheel.advance(300));
+        assertEquals(List.of(), wheel.advance(1_099));
+        assertEquals(List.of("next turn"), wheel.advance(1_100));
+        // A pause longer than a full turn still releases what came due, once
+        assertEquals(List.of("far"), wheel.advance(50_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void roomHoldBlocksTheWindowUntilItExpires() {
+        rooms.registerRoom(1L);
+        SlotHoldRegistry.Hold hold = holds.holdRoom(1L, NINE, TEN, 7L, null);
+
+        assertFalse(rooms.isRoomFree(1L, NINE.plusMinutes(30), TEN.plusMinutes(30)));
+        assertTrue(rooms.isRoomFreeForHold(1L, NINE, TEN, hold.key()));
+        assertEquals(0, holds.expireDue(hold.deadlineMillis() - 1_000));
+
+        assertEquals(1, holds.expireDue(hold.deadlineMillis() + 1_000));
+        assertTrue(rooms.isRoomFree(1L, NINE, TEN));
+        assertThrows(ResourceNotFoundException.class, () -> holds.find(hold.id(), SlotHoldRegistry.Kind.ROOM, 7L));
+    }
+
+    @Test
+    void confirmedResourceHoldKeepsItsUnitAndNeverExpires() {
+        resources.setCapacity(1L, 1);
+        SlotHoldRegistry.Hold hold = holds.holdResource(1L, NINE, TEN, 7L, null);
+
+        assertFalse(resources.hasCapacity(1L, NINE, TEN));
+        BookingConflictException exhausted = assertThrows(BookingConflictException.class,
+                () -> holds.holdResource(1L, NINE, TEN, 8L, null));
+        assertEquals(Reason.RESOURCE_EXHAUSTED, exhausted.getReason());
+
+        assertTrue(holds.claim(hold));
+        assertFalse(holds.claim(hold));
+        assertEquals(0, holds.expireDue(hold.deadlineMillis() + 1_000));
+        assertFalse(resources.hasCapacity(1L, NINE, TEN));
+    }
+
+    @Test
+    void doctorSlotIsHeldOnceAndHoldsAreCappedPerUser() {
+        SlotHoldRegistry.Hold hold = holds.holdDoctorSlot(1L, NINE, NINE.plusMinutes(30), 7L, null);
+        assertTrue(holds.isDoctorSlotHeld(1L, NINE));
+
+        BookingConflictException held = assertThrows(BookingConflictException.class,
+                () -> holds.holdDoctorSlot(1L, NINE, NINE.plusMinutes(30), 8L, null));
+        assertEquals(Reason.SLOT_HELD, held.getReason());
+        assertThrows(ResourceNotFoundException.class, () -> holds.find(hold.id(), SlotHoldRegistry.Kind.APPOINTMENT, 8L));
+
+        holds.holdDoctorSlot(1L, TEN, TEN.plusMinutes(30), 7L, null);
+        BookingConflictException limit = assertThrows(BookingConflictException.class,
+                () -> holds.holdDoctorSlot(2L, NINE, NINE.plusMinutes(30), 7L, null));
+        assertEquals(Reason.HOLD_LIMIT, limit.getReason());
+
+        holds.release(hold.id(), SlotHoldRegistry.Kind.APPOINTMENT, 7L);
+        assertFalse(holds.isDoctorSlotHeld(1L, NINE));
+        holds.holdDoctorSlot(2L, NINE, NINE.plusMinutes(30), 7L, null);
+        assertEquals(2, holds.size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.MediSys.MediSys.service;
+
+import com.MediSys.MediSys.auth.config.TokenProvider;
+import com.MediSys.MediSys.auth.model.AuthenticatedUser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenProviderTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdG9rZW4tcHJvdmlkZXItdGVzdHMtb25seS0zMi1ieXRlcw==";
+
+    private final TokenProvider tokenProvider = tokenProvider();
+
+    @Test
+    void principalRoundTripsThroughTheToken() {
+        for (AuthenticatedUser user : List.of(
+                new AuthenticatedUser(10L, "patient@medisys.test", "PATIENT", null, 2L),
+                new AuthenticatedUser(20L, "doctor@medisys.test", "DOCTOR", 1L, null),
+                new AuthenticatedUser(1L, "admin@medisys.test", "ADMIN", null, null))) {
+            List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.role()));
+            String token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, authorities), user);
+
+            assertEquals(user, tokenProvider.getPrincipal(tokenProvider.getAllClaimsFromToken(token)));
+            assertEquals(authorities, tokenProvider.getAuthorities(tokenProvider.getAllClaimsFromToken(token)));
+        }
+    }
+
+    @Test
+    void tokenWithoutARoleClaimHasNoPrincipal() {
+        // Shaped like the tokens issued before the identity claims were added
+        String legacy = Jwts.builder()
+                .setSubject("patient@medisys.test")
+                .claim("roles", "ROLE_PATIENT")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(tokenProvider.getPrincipal(tokenProvider.getAllClaimsFromToken(legacy)));
+    }
+
+    private static TokenProvider tokenProvider() {
+        TokenProvider provider = new TokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "TOKEN_VALIDITY", 3600L);
+        ReflectionTestUtils.setField(provider, "AUTHORITIES_KEY", "roles");
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
@@ -0,0 +1,75 @@
+package com.MediSys.MediSys.storage;
+
+import com.MediSys.MediSys.enums.ImageVariant;
+import com.MediSys.MediSys.service.ImageVariantGenerator;
+import com.MediSys.MediSys.storage.StorageBackend.StoredObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalStorageBackendTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        LocalStorageBackend backend = new LocalStorageBackend(root.toString());
+        byte[] content = "same picture".getBytes(StandardCharsets.UTF_8);
+
+        StoredObject first = backend.store(new ByteArrayInputStream(content), "png");
+        StoredObject second = backend.store(new ByteArrayInputStream(content), "png");
+
+        assertEquals(first.key(), second.key());
+        assertFalse(first.deduplicated());
+        assertTrue(second.deduplicated());
+        assertEquals(content.length, first.size());
+        assertTrue(first.key().matches("[0-9a-f]{2}/[0-9a-f]{64}\\.png"));
+        try (InputStream in = backend.open(first.key())) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        try (Stream<Path> incoming = Files.list(root.resolve(".incoming"))) {
+            assertEquals(0, incoming.count());
+        }
+    }
+
+    @Test
+    void keysCannotEscapeTheRoot() throws Exception {
+        LocalStorageBackend backend = new LocalStorageBackend(root.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> backend.open("../secret.txt"));
+        assertThrows(IllegalArgumentException.class, () -> backend.delete("ab/../../secret.txt"));
+    }
+
+    @Test
+    void generatesScaledJpegVariants() throws Exception {
+        LocalStorageBackend backend = new LocalStorageBackend(root.toString());
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1200, 600, BufferedImage.TYPE_INT_ARGB), "png", png);
+        StoredObject stored = backend.store(new ByteArrayInputStream(png.toByteArray()), "png");
+
+        new ImageVariantGenerator(backend).generate(stored.key());
+
+        try (InputStream in = backend.open(ImageVariantGenerator.variantKey(stored.key(), ImageVariant.THUMBNAIL))) {
+            BufferedImage thumbnail = ImageIO.read(in);
+            assertEquals(160, thumbnail.getWidth());
+            assertEquals(80, thumbnail.getHeight());
+        }
+        assertTrue(backend.exists(ImageVariantGenerator.variantKey(stored.key(), ImageVariant.MEDIUM)));
+    }
+}
@@ -0,0 +1,19 @@
+import axios from "axios";
+
+// Largest page the backend serves (pagination.max-size)
+const PAGE_SIZE = 100;
+
+// Reads a cursor-paged list endpoint ({ items, nextCursor }) to the end.
+export async function fetchAllPages(url, config = {}) {
+  const items = [];
+  let cursor = null;
+  do {
+    const response = await axios.get(url, {
+      ...config,
+      params: { ...config.params, size: PAGE_SIZE, cursor: cursor || undefined },
+    });
+    items.push(...response.data.items);
+    cursor = response.data.nextCursor;
+  } while (cursor);
+  return items;
+}
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from "react";
-import axios from "axios";
+import { fetchAllPages } from "../../lib/pagination";
 import { Line, Pie } from "react-chartjs-2";
 import {
   Chart as ChartJS,
@@ -46,34 +46,25 @@ const Dashboard = () => {
     setLoading(true);
     setError("");
     try {
-      const [patientsRes, doctorsRes, schedulesRes, roomsRes, resourcesRes] =
+      const auth = { headers: { Authorization: `Bearer ${token}` } };
+      const [patients, doctors, schedules, rooms, resources] =
         await Promise.all([
-          axios.get("http://localhost:8090/api/patients", {
-            headers: { Authorization: `Bearer ${token}` },
-          }),
-          axios.get("http://localhost:8090/api/doctors", {
-            headers: { Authorization: `Bearer ${token}` },
-          }),
-          axios.get("http://localhost:8090/api/doctor-schedules", {
-            headers: { Authorization: `Bearer ${token}` },
-          }),
-          axios.get("http://localhost:8090/api/rooms", {
-            headers: { Authorization: `Bearer ${token}` },
-          }),
-          axios.get("http://localhost:8090/api/resources", {
-            headers: { Authorization: `Bearer ${token}` },
-          }),
+          fetchAllPages("http://localhost:8090/api/patients", auth),
+          fetchAllPages("http://localhost:8090/api/doctors", auth),
+          fetchAllPages("http://localhost:8090/api/doctor-schedules", auth),
+          fetchAllPages("http://localhost:8090/api/rooms", auth),
+          fetchAllPages("http://localhost:8090/api/resources", auth),
         ]);
 
       setStats({
-        totalPatients: patientsRes.data.length,
-        totalDoctors: doctorsRes.data.length,
-        totalAppointments: schedulesRes.data.length,
-        totalRooms: roomsRes.data.length,
-        totalResources: resourcesRes.data.length,
+        totalPatients: patients.length,
+        totalDoctors: doctors.length,
+        totalAppointments: schedules.length,
+        totalRooms: rooms.length,
+        totalResources: resources.length,
       });
-      setSchedules(schedulesRes.data);
-      setResources(resourcesRes.data);
+      setSchedules(schedules);
+      setResources(resources);
     } catch (err) {
       setError(err.response?.data?.message || "Failed to fetch dashboard data");
     } finally {
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from "react";
 import axios from "axios";
+import { fetchAllPages } from "../../lib/pagination";
 import { FaEdit, FaTrash } from "react-icons/fa";
 
 const Resources = () => {
@@ -27,10 +28,10 @@ const Resources = () => {
   const fetchResources = async () => {
     setLoading(true);
     try {
-      const response = await axios.get("http://localhost:8090/api/resources", {
+      const resources = await fetchAllPages("http://localhost:8090/api/resources", {
         headers: { Authorization: `Bearer ${jwtToken}` },
       });
-      setResources(response.data);
+      setResources(resources);
     } catch (err) {
       setError("Failed to fetch resources");
     } finally {
@@ -41,13 +42,13 @@ const Resources = () => {
   const fetchResourceBookings = async () => {
     setLoading(true);
     try {
-      const response = await axios.get(
+      const bookings = await fetchAllPages(
         "http://localhost:8090/api/resource-bookings",
         {
           headers: { Authorization: `Bearer ${jwtToken}` },
         }
       );
-      setResourceBookings(response.data);
+      setResourceBookings(bookings);
     } catch (err) {
       setError("Failed to fetch resource bookings");
     } finally {
@@ -439,10 +440,10 @@ const Resources = () => {
                       } hover:bg-indigo-50`}
                     >
                       <td className="px-6 py-4 whitespace-nowrap text-sm font-medium text-gray-900">
-                        {booking.resource.name}
+                        {booking.resourceName}
                       </td>
                       <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-600">
-                        {booking.user.email}
+                        User #{booking.userId}
                       </td>
                       <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-600">
                         {new Date(booking.startDateTime).toLocaleString()}
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from "react";
 import axios from "axios";
+import { fetchAllPages } from "../../lib/pagination";
 import { FaEdit, FaTrash } from "react-icons/fa";
 
 const HospitalRooms = () => {
@@ -26,10 +27,10 @@ const HospitalRooms = () => {
   const fetchRooms = async () => {
     setLoading(true);
     try {
-      const response = await axios.get("http://localhost:8090/api/rooms", {
+      const rooms = await fetchAllPages("http://localhost:8090/api/rooms", {
         headers: { Authorization: `Bearer ${jwtToken}` },
       });
-      setRooms(response.data);
+      setRooms(rooms);
     } catch (err) {
       setError("Failed to fetch rooms");
     } finally {
@@ -40,13 +41,13 @@ const HospitalRooms = () => {
   const fetchRoomBookings = async () => {
     setLoading(true);
     try {
-      const response = await axios.get(
+      const bookings = await fetchAllPages(
         "http://localhost:8090/api/room-bookings",
         {
           headers: { Authorization: `Bearer ${jwtToken}` },
         }
       );
-      setRoomBookings(response.data);
+      setRoomBookings(bookings);
     } catch (err) {
       setError("Failed to fetch room bookings");
     } finally {
@@ -416,10 +417,10 @@ const HospitalRooms = () => {
                       } hover:bg-indigo-50`}
                     >
                       <td className="px-6 py-4 whitespace-nowrap text-sm font-medium text-gray-900">
-                        {booking.room.roomNumber}
+                        {booking.roomNumber}
                       </td>
                       <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-600">
-                        {booking.user.email}
+                        User #{booking.userId}
                       </td>
                       <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-600">
                         {new Date(booking.startDateTime).toLocaleString()}
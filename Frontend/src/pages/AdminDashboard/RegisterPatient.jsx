@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from "react";
 import axios from "axios";
+import { fetchAllPages } from "../../lib/pagination";
 import { FaEdit, FaTrash } from "react-icons/fa";
 
 const Patients = () => {
@@ -25,10 +26,10 @@ const Patients = () => {
   const fetchPatients = async () => {
     setLoading(true);
     try {
-      const response = await axios.get("http://localhost:8090/api/patients", {
+      const patients = await fetchAllPages("http://localhost:8090/api/patients", {
         headers: { Authorization: `Bearer ${token}` },
       });
-      setPatients(response.data);
+      setPatients(patients);
     } catch (err) {
       setError("Failed to fetch patients");
     } finally {
@@ -22,6 +22,18 @@ ChartJS.register(
   Legend
 );
 
+// Local yyyy-MM-dd, as the calendar endpoint keys its days
+const isoDate = (date) =>
+  `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, "0")}-${String(
+    date.getDate()
+  ).padStart(2, "0")}`;
+
+const daysFromToday = (days) => {
+  const date = new Date();
+  date.setDate(date.getDate() + days);
+  return isoDate(date);
+};
+
 const DoctorDashboard = () => {
   const [stats, setStats] = useState({
     todayAppointments: 0,
@@ -29,6 +41,7 @@ const DoctorDashboard = () => {
     totalPatients: 0,
   });
   const [appointments, setAppointments] = useState([]);
+  const [calendar, setCalendar] = useState([]);
   const [schedules, setSchedules] = useState([]);
   const [doctorId, setDoctorId] = useState(null);
   const [loading, setLoading] = useState(false);
@@ -84,13 +97,27 @@ const DoctorDashboard = () => {
       setLoading(true);
       setError("");
       try {
-        // Fetch appointments
+        // Fetch the last week and the next 30 days as daily counts
+        const calendarRes = await axios.get(
+          `http://localhost:8090/api/appointments/calendar/${doctorId}`,
+          {
+            params: { from: daysFromToday(-6), to: daysFromToday(30) },
+            headers: { Authorization: `Bearer ${token}` },
+          }
+        );
+        const days = calendarRes.data;
+        setCalendar(days);
+
+        // Fetch upcoming appointments
         const appointmentsRes = await axios.get(
           `http://localhost:8090/api/appointments/get-by-doctor/${doctorId}`,
-          { headers: { Authorization: `Bearer ${token}` } }
+          {
+            params: { from: daysFromToday(0), to: daysFromToday(30) },
+            headers: { Authorization: `Bearer ${token}` },
+          }
         );
-        const doctorAppointments = appointmentsRes.data;
-        setAppointments(doctorAppointments.slice(0, 5));
+        const upcomingAppointments = appointmentsRes.data;
+        setAppointments(upcomingAppointments.slice(0, 5));
 
         // Fetch schedules
         const schedulesRes = await axios.get(
@@ -100,17 +127,17 @@ const DoctorDashboard = () => {
         setSchedules(schedulesRes.data);
 
         // Calculate stats
-        const today = new Date().toDateString();
+        const today = daysFromToday(0);
+        const todayCounts = days.find((day) => day.date === today);
         setStats({
-          todayAppointments: doctorAppointments.filter(
-            (appt) =>
-              new Date(appt.appointmentDateTime).toDateString() === today
-          ).length,
-          pendingAppointments: doctorAppointments.filter(
-            (appt) => appt.status === "SCHEDULED"
-          ).length,
+          todayAppointments: todayCounts
+            ? todayCounts.scheduled + todayCounts.confirmed + todayCounts.completed
+            : 0,
+          pendingAppointments: days
+            .filter((day) => day.date >= today)
+            .reduce((sum, day) => sum + day.scheduled, 0),
           totalPatients: new Set(
-            doctorAppointments.map((appt) => appt.patient.id)
+            upcomingAppointments.map((appt) => appt.patient.id)
           ).size,
         });
       } catch (err) {
@@ -245,26 +272,15 @@ const DoctorDashboard = () => {
   };
 
   const getChartData = () => {
-    const startDate = new Date();
-    startDate.setDate(startDate.getDate() - 7);
-    const filtered = appointments.filter(
-      (appt) => new Date(appt.createdAt) >= startDate
-    );
-
-    const grouped = filtered.reduce((acc, appt) => {
-      const date = new Date(appt.createdAt).toISOString().split("T")[0];
-      acc[date] = (acc[date] || 0) + 1;
-      return acc;
-    }, {});
-
     const labels = [];
     for (let i = 6; i >= 0; i--) {
-      const date = new Date();
-      date.setDate(date.getDate() - i);
-      labels.push(date.toISOString().split("T")[0]);
+      labels.push(daysFromToday(-i));
     }
 
-    const data = labels.map((date) => grouped[date] || 0);
+    const data = labels.map((date) => {
+      const day = calendar.find((d) => d.date === date);
+      return day ? day.scheduled + day.confirmed + day.completed : 0;
+    });
     return {
       labels,
       datasets: [
@@ -326,7 +342,11 @@ const DoctorDashboard = () => {
               value: stats.pendingAppointments,
               icon: "⏳",
             },
-            { title: "Total Patients", value: stats.totalPatients, icon: "👥" },
+            {
+              title: "Patients (Next 30 Days)",
+              value: stats.totalPatients,
+              icon: "👥",
+            },
           ].map((stat, index) => (
             <div
               key={index}
@@ -558,7 +578,7 @@ const DoctorDashboard = () => {
             <div className="flex justify-center py-4">
               <div className="animate-spin rounded-full h-8 w-8 border-t-2 border-b-2 border-indigo-600"></div>
             </div>
-          ) : appointments.length > 0 ? (
+          ) : calendar.length > 0 ? (
             <div className="h-80">
               <Line data={getChartData()} options={lineChartOptions} />
             </div>
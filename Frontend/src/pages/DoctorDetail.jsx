@@ -13,6 +13,16 @@ import axios from "axios";
 import { Button } from "../components/ui/button";
 import toast from "react-hot-toast";
 
+const DAYS = [
+  "SUNDAY",
+  "MONDAY",
+  "TUESDAY",
+  "WEDNESDAY",
+  "THURSDAY",
+  "FRIDAY",
+  "SATURDAY",
+];
+
 const DoctorDetail = () => {
   const { id } = useParams();
   const [doctor, setDoctor] = useState(null);
@@ -20,7 +30,7 @@ const DoctorDetail = () => {
   const [selectedTime, setSelectedTime] = useState("");
   const [isSubmitting, setIsSubmitting] = useState(false);
   const [bookingSuccess, setBookingSuccess] = useState(false);
-  const [bookedTimeStamps, setBookedTimeStamps] = useState([]);
+  const [freeTimeStamps, setFreeTimeStamps] = useState([]);
   const [currentPatientId, setCurrentPatientId] = useState(null); // State for patient ID
   const navigate = useNavigate();
   const token = localStorage.getItem("jwtToken");
@@ -51,7 +61,7 @@ const DoctorDetail = () => {
     fetchCurrentPatient();
   }, [token]);
 
-  // Fetch doctor details and appointments
+  // Fetch doctor details
   useEffect(() => {
     const fetchDoctor = async () => {
       try {
@@ -67,29 +77,48 @@ const DoctorDetail = () => {
         if (doctorRes.data.schedules?.length > 0) {
           setSelectedDay(doctorRes.data.schedules[0].dayOfWeek);
         }
+      } catch (err) {
+        console.error("Error fetching data:", err);
+        toast.error("Failed to fetch doctor details.");
+      }
+    };
+
+    fetchDoctor();
+  }, [id, token]);
 
-        // Fetch all future appointments and convert to timestamps
-        const apptRes = await axios.get(
-          `http://localhost:8090/api/appointments/get-by-doctor/${id}`,
+  // Fetch the free slots of the selected day and convert to timestamps
+  useEffect(() => {
+    if (!doctor || !selectedDay) return;
+    const fetchFreeSlots = async () => {
+      const dayIndex = DAYS.indexOf(selectedDay);
+      const date = new Date();
+      date.setDate(date.getDate() + ((dayIndex - date.getDay() + 7) % 7));
+      const localDate = `${date.getFullYear()}-${String(
+        date.getMonth() + 1
+      ).padStart(2, "0")}-${String(date.getDate()).padStart(2, "0")}`;
+      try {
+        const slotsRes = await axios.get(
+          "http://localhost:8090/api/appointments/available-slots",
           {
+            params: { doctorId: doctor.id, date: localDate },
             headers: {
               Authorization: `Bearer ${token}`,
             },
           }
         );
-        const futureBooked = apptRes.data
-          .filter((a) => new Date(a.appointmentDateTime) > new Date())
-          .map((a) => new Date(a.appointmentDateTime).setMilliseconds(0)); // normalized timestamps
-
-        setBookedTimeStamps(futureBooked);
+        setFreeTimeStamps(
+          slotsRes.data.map((slot) => new Date(slot).setMilliseconds(0)) // normalized timestamps
+        );
       } catch (err) {
-        console.error("Error fetching data:", err);
-        toast.error("Failed to fetch doctor or appointments.");
+        console.error("Error fetching available slots:", err);
+        setFreeTimeStamps([]);
+        toast.error("Failed to fetch available times.");
       }
     };
 
-    fetchDoctor();
-  }, [id, token]);
+    setFreeTimeStamps([]);
+    fetchFreeSlots();
+  }, [doctor, selectedDay, token]);
 
   const generateTimeSlots = (start, end, duration) => {
     const slots = [];
@@ -137,15 +166,7 @@ const DoctorDetail = () => {
     const [hour, minute] = selectedTime.split(":");
 
     const now = new Date();
-    const selectedDayIndex = [
-      "SUNDAY",
-      "MONDAY",
-      "TUESDAY",
-      "WEDNESDAY",
-      "THURSDAY",
-      "FRIDAY",
-      "SATURDAY",
-    ].indexOf(selectedDay);
+    const selectedDayIndex = DAYS.indexOf(selectedDay);
     const todayIndex = now.getDay();
     const offset = (selectedDayIndex - todayIndex + 7) % 7;
 
@@ -374,15 +395,8 @@ const DoctorDetail = () => {
                           {getAvailableTimesForSelectedDay().map(
                             (time, index) => {
                               const baseDate = new Date();
-                              const selectedDayIndex = [
-                                "SUNDAY",
-                                "MONDAY",
-                                "TUESDAY",
-                                "WEDNESDAY",
-                                "THURSDAY",
-                                "FRIDAY",
-                                "SATURDAY",
-                              ].indexOf(selectedDay);
+                              const selectedDayIndex =
+                                DAYS.indexOf(selectedDay);
                               const todayIndex = baseDate.getDay();
                               const offset =
                                 (selectedDayIndex - todayIndex + 7) % 7;
@@ -401,7 +415,7 @@ const DoctorDetail = () => {
                               );
                               utcDate.setMilliseconds(0);
 
-                              const isBooked = bookedTimeStamps.includes(
+                              const isBooked = !freeTimeStamps.includes(
                                 utcDate.getTime()
                               );
 
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from "react";
 import axios from "axios";
+import { fetchAllPages } from "../lib/pagination";
 import { FaEdit, FaTrash } from "react-icons/fa";
 import { X } from "lucide-react";
 import toast from "react-hot-toast";
@@ -30,10 +31,10 @@ const DoctorSchedule = () => {
   const fetchDoctors = async () => {
     setLoading(true);
     try {
-      const response = await axios.get("http://localhost:8090/api/doctors", {
+      const doctors = await fetchAllPages("http://localhost:8090/api/doctors", {
         headers: { Authorization: `Bearer ${token}` },
       });
-      setDoctors(response.data);
+      setDoctors(doctors);
     } catch (err) {
       setError("Failed to fetch doctors");
       toast.error("Failed to fetch doctors");
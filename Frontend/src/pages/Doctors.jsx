@@ -1,10 +1,10 @@
 import React, { useEffect, useState } from "react";
-import axios from "axios";
 import { Search, Filter } from "lucide-react";
 import DoctorCard from "../components/ui/DoctorCard";
 import { Button } from "../components/ui/button";
 import Navbar from "../components/layout/Navbar";
 import Footer from "../components/layout/Footer";
+import { fetchAllPages } from "../lib/pagination";
 
 const Doctors = () => {
   const [doctors, setDoctors] = useState([]);
@@ -14,9 +14,9 @@ const Doctors = () => {
   useEffect(() => {
     const fetchDoctors = async () => {
       try {
-        const response = await axios.get("http://localhost:8090/api/doctors");
-        setDoctors(response.data);
-        console.log(response.data);
+        const doctors = await fetchAllPages("http://localhost:8090/api/doctors");
+        setDoctors(doctors);
+        console.log(doctors);
       } catch (error) {
         console.error("Error fetching doctors:", error);
       }
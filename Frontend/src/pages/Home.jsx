@@ -25,8 +25,10 @@ const Home = () => {
     const fetchDoctors = async () => {
       setLoadingDoctors(true);
       try {
-        const response = await axios.get("http://localhost:8090/api/doctors");
-        setDoctors(response.data.slice(0, 4)); // Get first 4 doctors
+        const response = await axios.get("http://localhost:8090/api/doctors", {
+          params: { size: 4 },
+        });
+        setDoctors(response.data.items); // Get first 4 doctors
       } catch (err) {
         setError("Failed to fetch doctors");
       } finally {
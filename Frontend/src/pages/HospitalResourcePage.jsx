@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import axios from "axios";
+import { fetchAllPages } from "../lib/pagination";
 import { Card, CardContent } from "@/components/ui/card";
 import { Button } from "../components/ui/button";
 import { Search, X, CalendarCheck } from "lucide-react";
@@ -20,11 +21,11 @@ const HospitalResources = () => {
   const fetchResources = async () => {
     setLoading(true);
     try {
-      const res = await axios.get("http://localhost:8090/api/resources", {
+      const resources = await fetchAllPages("http://localhost:8090/api/resources", {
         headers: { Authorization: `Bearer ${token}` },
       });
-      setResources(res.data);
-      setFilteredResources(res.data);
+      setResources(resources);
+      setFilteredResources(resources);
     } catch (err) {
       toast.error("Failed to load resources");
       console.error(err);
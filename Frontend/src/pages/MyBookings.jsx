@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from "react";
 import axios from "axios";
+import { fetchAllPages } from "../lib/pagination";
 import { Link } from "react-router-dom";
 import { Button } from "../components/ui/button";
 import {
@@ -41,29 +42,29 @@ const MyBookings = () => {
       setPatient(patientData);
       console.log("Patient Data:", patientData);
 
+      const auth = { headers: { Authorization: `Bearer ${token}` } };
+
       // Fetch appointments
-      const appointmentsRes = await axios.get(
+      const appointmentList = await fetchAllPages(
         "http://localhost:8090/api/appointments",
-        {
-          headers: { Authorization: `Bearer ${token}` },
-        }
+        auth
       );
-      const mappedAppointments = appointmentsRes.data
+      const mappedAppointments = appointmentList
         .filter((appt) => {
-          const match = appt.patient.id === patientData.id;
+          const match = appt.patientId === patientData.id;
           console.log(
-            `Appointment ID ${appt.id} match: ${match}, patient.id: ${appt.patient.id}, expected: ${patientData.id}`
+            `Appointment ID ${appt.id} match: ${match}, patientId: ${appt.patientId}, expected: ${patientData.id}`
           );
           return match;
         })
         .map((appt) => ({
           id: appt.id,
-          doctorName: appt.doctor.fullName || "N/A",
+          doctorName: appt.doctorName || "N/A",
           startDateTime: appt.appointmentDateTime,
           endDateTime: new Date(
             new Date(appt.appointmentDateTime).getTime() + 30 * 60000
           ).toISOString(),
-          price: appt.price || 50, // Default price
+          price: 50, // Default price
           status:
             appt.status === "SCHEDULED" ? "BOOKED" : appt.status.toUpperCase(),
         }));
@@ -71,27 +72,25 @@ const MyBookings = () => {
       console.log("Appointments:", mappedAppointments);
 
       // Fetch room bookings
-      const roomBookingsRes = await axios.get(
+      const roomBookingList = await fetchAllPages(
         "http://localhost:8090/api/room-bookings",
-        {
-          headers: { Authorization: `Bearer ${token}` },
-        }
+        auth
       );
-      const mappedRoomBookings = roomBookingsRes.data
+      const mappedRoomBookings = roomBookingList
         .filter((booking) => {
-          const match = booking.user.id === patientData.user.id;
+          const match = booking.userId === patientData.user.id;
           console.log(
-            `Room Booking ID ${booking.id} match: ${match}, user.id: ${booking.user.id}, expected: ${patientData.user.id}`
+            `Room Booking ID ${booking.id} match: ${match}, userId: ${booking.userId}, expected: ${patientData.user.id}`
           );
           return match;
         })
         .map((booking) => {
           return {
             id: booking.id,
-            room: { number: booking.room.roomNumber, ...booking.room },
+            room: { id: booking.roomId, number: booking.roomNumber },
             startDateTime: booking.startDateTime,
             endDateTime: booking.endDateTime,
-            price: booking.room.price || 0,
+            price: booking.roomPrice || 0,
             status: booking.status.toUpperCase(),
           };
         });
@@ -99,17 +98,15 @@ const MyBookings = () => {
       console.log("Room Bookings:", mappedRoomBookings);
 
       // Fetch resource bookings
-      const resourceBookingsRes = await axios.get(
+      const resourceBookingList = await fetchAllPages(
         "http://localhost:8090/api/resource-bookings",
-        {
-          headers: { Authorization: `Bearer ${token}` },
-        }
+        auth
       );
-      const mappedResourceBookings = resourceBookingsRes.data
+      const mappedResourceBookings = resourceBookingList
         .filter((booking) => {
-          const match = booking.user.id === patientData.user.id;
+          const match = booking.userId === patientData.user.id;
           console.log(
-            `Resource Booking ID ${booking.id} match: ${match}, user.id: ${booking.user.id}, expected: ${patientData.user.id}`
+            `Resource Booking ID ${booking.id} match: ${match}, userId: ${booking.userId}, expected: ${patientData.user.id}`
           );
           return match;
         })
@@ -119,10 +116,10 @@ const MyBookings = () => {
             (1000 * 60 * 60);
           return {
             id: booking.id,
-            resource: { name: booking.resource.name, ...booking.resource },
+            resource: { id: booking.resourceId, name: booking.resourceName },
             startDateTime: booking.startDateTime,
             endDateTime: booking.endDateTime,
-            price: booking.resource.price * hours || 0,
+            price: booking.resourcePrice * hours || 0,
             status: booking.status.toUpperCase(),
           };
         });
@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import axios from "axios";
+import { fetchAllPages } from "../lib/pagination";
 import { Card, CardContent } from "@/components/ui/card";
 import { Button } from "../components/ui/button";
 import { DoorOpen, CalendarCheck, X } from "lucide-react";
@@ -23,10 +24,9 @@ const RoomList = () => {
   const fetchRooms = async () => {
     setLoading(true);
     try {
-      const roomRes = await axios.get("http://localhost:8090/api/rooms", {
+      const fetchedRooms = await fetchAllPages("http://localhost:8090/api/rooms", {
         headers: { Authorization: `Bearer ${token}` },
       });
-      const fetchedRooms = roomRes.data;
       setRooms(fetchedRooms);
       setFilteredRooms(fetchedRooms);
 